@@ -38,6 +38,11 @@ android {
     }
     buildFeatures {
         compose = true
+        buildConfig = true // 调试开关（卡顿检测、指标、性能浮层）按 BuildConfig.DEBUG 区分
+    }
+    testOptions {
+        // 本地单元测试中 android.util.Log 等桩方法返回默认值，不抛 "not mocked"
+        unitTests.isReturnDefaultValues = true
     }
 }
 
@@ -68,6 +73,7 @@ dependencies {
     implementation("androidx.media3:media3-exoplayer:1.2.1") // 核心播放器
     implementation("androidx.media3:media3-ui:1.2.1") // 播放器控件
     implementation("androidx.media3:media3-exoplayer-dash:1.2.1") // DASH 直播支持（.mpd 格式）
+    implementation("androidx.media3:media3-datasource-okhttp:1.2.1") // 媒体请求走 OkHttp（与 REST、WebSocket 共享连接池）
 
     // retrofit
     implementation("com.squareup.okhttp3:okhttp:4.12.0") //okhttp
@@ -77,4 +83,9 @@ dependencies {
 
     // 加载网络头像
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    implementation("com.github.bumptech.glide:okhttp3-integration:4.16.0") // 图片请求走 OkHttp（共享连接池、优先级调度）
+
+    // 本地单元测试
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0") // 本地 HTTP 服务（验证连接复用）
+    testImplementation("com.squareup.okhttp3:okhttp-tls:4.12.0") // 测试用自签证书（验证 TLS 握手次数）
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import com.bytedance.tictok_live.utils.player.LiveLatencyProfile;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准测试档位：缓冲策略（LoadControl）+ 轨道选择上限 + 直播延迟档位
+ */
+public class BenchmarkProfile {
+    public final String name;
+    // DefaultLoadControl 参数
+    public final int minBufferMs;
+    public final int maxBufferMs;
+    public final int bufferForPlaybackMs;
+    public final int bufferForPlaybackAfterRebufferMs;
+    // 视频码率上限，Integer.MAX_VALUE 为不限
+    public final int maxVideoBitrate;
+    public final LiveLatencyProfile latencyProfile;
+
+    public BenchmarkProfile(String name, int minBufferMs, int maxBufferMs, int bufferForPlaybackMs,
+                            int bufferForPlaybackAfterRebufferMs, int maxVideoBitrate,
+                            LiveLatencyProfile latencyProfile) {
+        this.name = name;
+        this.minBufferMs = minBufferMs;
+        this.maxBufferMs = maxBufferMs;
+        this.bufferForPlaybackMs = bufferForPlaybackMs;
+        this.bufferForPlaybackAfterRebufferMs = bufferForPlaybackAfterRebufferMs;
+        this.maxVideoBitrate = maxVideoBitrate;
+        this.latencyProfile = latencyProfile;
+    }
+
+    /**
+     * 默认对比档位（current 与 LivePlayerManager 线上配置一致）
+     */
+    public static List<BenchmarkProfile> defaults() {
+        return Arrays.asList(
+                new BenchmarkProfile("current", 3000, 7000, 200, 1000,
+                        Integer.MAX_VALUE, LiveLatencyProfile.LOW_LATENCY),
+                new BenchmarkProfile("fast_start", 1500, 4000, 100, 500,
+                        Integer.MAX_VALUE, LiveLatencyProfile.LOW_LATENCY),
+                new BenchmarkProfile("smooth", 5000, 15000, 1000, 2500,
+                        Integer.MAX_VALUE, LiveLatencyProfile.SMOOTH),
+                new BenchmarkProfile("sd_cap", 3000, 7000, 200, 1000,
+                        1_000_000, LiveLatencyProfile.LOW_LATENCY)
+        );
+    }
+}
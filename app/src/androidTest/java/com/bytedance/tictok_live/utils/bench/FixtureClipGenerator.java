@@ -0,0 +1,413 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import android.media.Image;
+import android.media.MediaCodec;
+import android.media.MediaCodecInfo;
+import android.media.MediaFormat;
+import android.os.Bundle;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 基准测试素材生成（在设备上执行，替代录制素材）
+ *
+ * 用系统 H.264 编码器编码一段合成画面（滚动渐变 + 移动色块），按分片时长切成单轨 fMP4：
+ * init.mp4 + seg_1.m4s ... seg_N.m4s，供 {@link SyntheticDashOrigin} 循环成直播。
+ * 每个分片以关键帧开头；同一目录已有素材时直接复用
+ */
+public final class FixtureClipGenerator {
+    private static final String TAG = "FixtureClipGenerator";
+
+    private static final String MIME = MediaFormat.MIMETYPE_VIDEO_AVC;
+    private static final int TRACK_ID = 1;
+    private static final int TIMESCALE = 90_000;
+    private static final long CODEC_TIMEOUT_US = 10_000;
+
+    private final int width;
+    private final int height;
+    private final int fps;
+    private final int bitrate;
+    private final long segmentDurationMs;
+    private final int segmentCount;
+
+    private byte[] sps;
+    private byte[] pps;
+    private final List<byte[]> samples = new ArrayList<>();
+    private final List<Boolean> keyFrames = new ArrayList<>();
+
+    /**
+     * @param segmentDurationMs 分片时长（需与 {@link OriginConfig#setSegmentDurationMs} 一致）
+     */
+    public FixtureClipGenerator(int width, int height, int fps, int bitrate, long segmentDurationMs, int segmentCount) {
+        this.width = width;
+        this.height = height;
+        this.fps = fps;
+        this.bitrate = bitrate;
+        this.segmentDurationMs = segmentDurationMs;
+        this.segmentCount = segmentCount;
+    }
+
+    /**
+     * 默认素材：256x144、25fps、2s 分片、共 5 个分片
+     */
+    public static FixtureClipGenerator defaults() {
+        return new FixtureClipGenerator(256, 144, 25, 400_000, 2000, 5);
+    }
+
+    /**
+     * 生成素材到目录（阻塞，需在子线程调用）
+     * @return 素材的 codecs 字符串（写入 MPD），如 avc1.42c01e
+     */
+    public String generate(File dir) throws IOException {
+        File codecsFile = new File(dir, "codecs.txt");
+        if (codecsFile.isFile() && new File(dir, "init.mp4").isFile()
+                && new File(dir, "seg_" + segmentCount + ".m4s").isFile()) {
+            return new String(readAll(codecsFile), StandardCharsets.US_ASCII).trim();
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("创建素材目录失败：" + dir);
+        }
+
+        long start = System.currentTimeMillis();
+        encode();
+        int framesPerSegment = (int) (fps * segmentDurationMs / 1000);
+        if (sps == null || pps == null || samples.size() < framesPerSegment * segmentCount) {
+            throw new IOException("编码输出不完整，帧数：" + samples.size());
+        }
+
+        writeFile(new File(dir, "init.mp4"), buildInit());
+        long sampleDuration = TIMESCALE / fps;
+        for (int i = 0; i < segmentCount; i++) {
+            int from = i * framesPerSegment;
+            if (!keyFrames.get(from)) {
+                throw new IOException("编码器未在分片边界输出关键帧，分片：" + (i + 1));
+            }
+            byte[] segment = buildSegment(i + 1, from * sampleDuration, from, framesPerSegment, sampleDuration);
+            writeFile(new File(dir, "seg_" + (i + 1) + ".m4s"), segment);
+        }
+        String codecs = String.format(Locale.ROOT, "avc1.%02x%02x%02x", sps[1] & 0xFF, sps[2] & 0xFF, sps[3] & 0xFF);
+        writeFile(codecsFile, codecs.getBytes(StandardCharsets.US_ASCII));
+        Log.d(TAG, "素材生成完成：" + dir + "，帧数：" + samples.size() + "，codecs：" + codecs
+                + "，耗时：" + (System.currentTimeMillis() - start) + "ms");
+        return codecs;
+    }
+
+    // 编码全部帧：分片边界请求关键帧，输出转为长度前缀（AVCC）格式
+    private void encode() throws IOException {
+        int totalFrames = (int) (fps * segmentDurationMs / 1000) * segmentCount;
+        int framesPerSegment = totalFrames / segmentCount;
+
+        MediaFormat format = MediaFormat.createVideoFormat(MIME, width, height);
+        format.setInteger(MediaFormat.KEY_COLOR_FORMAT, MediaCodecInfo.CodecCapabilities.COLOR_FormatYUV420Flexible);
+        format.setInteger(MediaFormat.KEY_BIT_RATE, bitrate);
+        format.setInteger(MediaFormat.KEY_FRAME_RATE, fps);
+        format.setInteger(MediaFormat.KEY_I_FRAME_INTERVAL, (int) Math.max(1, segmentDurationMs / 1000));
+
+        MediaCodec codec = MediaCodec.createEncoderByType(MIME);
+        try {
+            codec.configure(format, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+            codec.start();
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            int queued = 0;
+            boolean outputDone = false;
+            while (!outputDone) {
+                if (queued <= totalFrames) {
+                    int inputIndex = codec.dequeueInputBuffer(CODEC_TIMEOUT_US);
+                    if (inputIndex >= 0) {
+                        if (queued == totalFrames) {
+                            codec.queueInputBuffer(inputIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                        } else {
+                            if (queued > 0 && queued % framesPerSegment == 0) {
+                                Bundle params = new Bundle();
+                                params.putInt(MediaCodec.PARAMETER_KEY_REQUEST_SYNC_FRAME, 0);
+                                codec.setParameters(params);
+                            }
+                            Image image = codec.getInputImage(inputIndex);
+                            if (image == null) {
+                                throw new IOException("编码器不支持 YUV420Flexible 输入");
+                            }
+                            fillFrame(image, queued);
+                            codec.queueInputBuffer(inputIndex, 0, width * height * 3 / 2,
+                                    queued * 1_000_000L / fps, 0);
+                        }
+                        queued++;
+                    }
+                }
+
+                int outputIndex = codec.dequeueOutputBuffer(info, CODEC_TIMEOUT_US);
+                if (outputIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    // 部分编码器只在输出格式里给出 SPS、PPS
+                    MediaFormat outputFormat = codec.getOutputFormat();
+                    if (sps == null && outputFormat.containsKey("csd-0") && outputFormat.containsKey("csd-1")) {
+                        readParameterSets(bytesOf(outputFormat.getByteBuffer("csd-0")));
+                        readParameterSets(bytesOf(outputFormat.getByteBuffer("csd-1")));
+                    }
+                    continue;
+                }
+                if (outputIndex < 0) continue;
+                ByteBuffer buffer = codec.getOutputBuffer(outputIndex);
+                if (buffer != null && info.size > 0) {
+                    byte[] data = new byte[info.size];
+                    buffer.position(info.offset);
+                    buffer.get(data);
+                    if ((info.flags & MediaCodec.BUFFER_FLAG_CODEC_CONFIG) != 0) {
+                        readParameterSets(data);
+                    } else {
+                        samples.add(toLengthPrefixed(data));
+                        keyFrames.add((info.flags & MediaCodec.BUFFER_FLAG_KEY_FRAME) != 0);
+                    }
+                }
+                codec.releaseOutputBuffer(outputIndex, false);
+                outputDone = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+            }
+            codec.stop();
+        } finally {
+            codec.release();
+        }
+    }
+
+    // 合成画面：亮度渐变随帧滚动，叠加一个水平移动的亮块，色度按帧缓慢变化
+    private void fillFrame(Image image, int frame) {
+        Image.Plane[] planes = image.getPlanes();
+        Image.Plane y = planes[0];
+        ByteBuffer yBuffer = y.getBuffer();
+        int blockX = (frame * 4) % width;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                boolean inBlock = col >= blockX && col < blockX + 32 && row >= height / 3 && row < height / 3 + 32;
+                int value = inBlock ? 235 : 16 + ((col + row + frame * 2) & 0x7F);
+                yBuffer.put(row * y.getRowStride() + col * y.getPixelStride(), (byte) value);
+            }
+        }
+        byte u = (byte) (96 + (frame % 64));
+        byte v = (byte) (160 - (frame % 64));
+        for (int p = 1; p <= 2; p++) {
+            Image.Plane plane = planes[p];
+            ByteBuffer buffer = plane.getBuffer();
+            for (int row = 0; row < height / 2; row++) {
+                for (int col = 0; col < width / 2; col++) {
+                    buffer.put(row * plane.getRowStride() + col * plane.getPixelStride(), p == 1 ? u : v);
+                }
+            }
+        }
+    }
+
+    // 编码器配置输出（Annex-B）：取出 SPS、PPS
+    private void readParameterSets(byte[] annexB) {
+        for (byte[] nal : splitNalUnits(annexB)) {
+            int type = nal[0] & 0x1F;
+            if (type == 7) {
+                sps = nal;
+            } else if (type == 8) {
+                pps = nal;
+            }
+        }
+    }
+
+    private static byte[] bytesOf(ByteBuffer buffer) {
+        ByteBuffer copy = buffer.duplicate();
+        copy.rewind();
+        byte[] data = new byte[copy.remaining()];
+        copy.get(data);
+        return data;
+    }
+
+    // Annex-B -> 4 字节长度前缀；编码器在关键帧前重复输出的 SPS、PPS 一并去掉（已写入 avcC）
+    private static byte[] toLengthPrefixed(byte[] annexB) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(annexB.length + 16);
+        for (byte[] nal : splitNalUnits(annexB)) {
+            int type = nal[0] & 0x1F;
+            if (type == 7 || type == 8) continue;
+            writeInt(out, nal.length);
+            out.write(nal, 0, nal.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<byte[]> splitNalUnits(byte[] data) {
+        List<byte[]> units = new ArrayList<>();
+        int start = -1;
+        int i = 0;
+        while (i + 2 < data.length) {
+            if (data[i] == 0 && data[i + 1] == 0 && data[i + 2] == 1) {
+                if (start >= 0) {
+                    units.add(trimmed(data, start, i));
+                }
+                i += 3;
+                start = i;
+            } else {
+                i++;
+            }
+        }
+        if (start >= 0 && start < data.length) {
+            units.add(trimmed(data, start, data.length));
+        }
+        return units;
+    }
+
+    // 去掉 4 字节起始码多出的前导 0
+    private static byte[] trimmed(byte[] data, int from, int to) {
+        while (to > from && data[to - 1] == 0) {
+            to--;
+        }
+        byte[] unit = new byte[to - from];
+        System.arraycopy(data, from, unit, 0, unit.length);
+        return unit;
+    }
+
+    // ---------------- fMP4 ----------------
+
+    private byte[] buildInit() {
+        byte[] ftyp = box("ftyp", ascii("iso6"), int32(0), ascii("iso6"), ascii("dash"), ascii("avc1"));
+
+        byte[] mvhd = fullBox("mvhd", 0, 0,
+                int32(0), int32(0), int32(1000), int32(0),
+                int32(0x00010000), int16(0x0100), new byte[10], matrix(),
+                new byte[24], int32(TRACK_ID + 1));
+
+        byte[] tkhd = fullBox("tkhd", 0, 0x7,
+                int32(0), int32(0), int32(TRACK_ID), int32(0), int32(0),
+                new byte[8], int16(0), int16(0), int16(0), int16(0), matrix(),
+                int32(width << 16), int32(height << 16));
+
+        byte[] mdhd = fullBox("mdhd", 0, 0,
+                int32(0), int32(0), int32(TIMESCALE), int32(0), int16(0x55C4), int16(0));
+        byte[] hdlr = fullBox("hdlr", 0, 0,
+                int32(0), ascii("vide"), new byte[12], ascii("VideoHandler\0"));
+
+        byte[] vmhd = fullBox("vmhd", 0, 1, int16(0), new byte[6]);
+        byte[] dinf = box("dinf", fullBox("dref", 0, 0, int32(1), fullBox("url ", 0, 1)));
+
+        byte[] avcC = box("avcC",
+                new byte[]{1, sps[1], sps[2], sps[3], (byte) 0xFF, (byte) 0xE1},
+                int16(sps.length), sps, new byte[]{1}, int16(pps.length), pps);
+        byte[] avc1 = box("avc1",
+                new byte[6], int16(1),
+                new byte[16], int16(width), int16(height),
+                int32(0x00480000), int32(0x00480000), int32(0), int16(1),
+                new byte[32], int16(0x0018), int16(0xFFFF), avcC);
+        byte[] stbl = box("stbl",
+                fullBox("stsd", 0, 0, int32(1), avc1),
+                fullBox("stts", 0, 0, int32(0)),
+                fullBox("stsc", 0, 0, int32(0)),
+                fullBox("stsz", 0, 0, int32(0), int32(0)),
+                fullBox("stco", 0, 0, int32(0)));
+        byte[] minf = box("minf", vmhd, dinf, stbl);
+        byte[] trak = box("trak", tkhd, box("mdia", mdhd, hdlr, minf));
+
+        byte[] mvex = box("mvex", fullBox("trex", 0, 0,
+                int32(TRACK_ID), int32(1), int32(0), int32(0), int32(0)));
+        return concat(ftyp, box("moov", mvhd, trak, mvex));
+    }
+
+    private byte[] buildSegment(int sequenceNumber, long baseMediaDecodeTime, int from, int count, long sampleDuration) {
+        ByteArrayOutputStream mdat = new ByteArrayOutputStream();
+        ByteArrayOutputStream entries = new ByteArrayOutputStream(count * 12);
+        for (int i = from; i < from + count; i++) {
+            byte[] sample = samples.get(i);
+            mdat.write(sample, 0, sample.length);
+            writeInt(entries, (int) sampleDuration);
+            writeInt(entries, sample.length);
+            // 关键帧：不依赖其它帧；其余：依赖其它帧 + 非同步帧
+            writeInt(entries, keyFrames.get(i) ? 0x02000000 : 0x01010000);
+        }
+
+        // data_offset 从 moof 起点算到 mdat 内容，moof 大小与其取值无关，先按 0 构建求出大小
+        byte[] moof = buildMoof(sequenceNumber, baseMediaDecodeTime, count, 0, entries.toByteArray());
+        moof = buildMoof(sequenceNumber, baseMediaDecodeTime, count, moof.length + 8, entries.toByteArray());
+        return concat(moof, box("mdat", mdat.toByteArray()));
+    }
+
+    private static byte[] buildMoof(int sequenceNumber, long baseMediaDecodeTime, int count, int dataOffset, byte[] entries) {
+        byte[] mfhd = fullBox("mfhd", 0, 0, int32(sequenceNumber));
+        // default-base-is-moof
+        byte[] tfhd = fullBox("tfhd", 0, 0x020000, int32(TRACK_ID));
+        byte[] tfdt = fullBox("tfdt", 1, 0, int32((int) (baseMediaDecodeTime >>> 32)), int32((int) baseMediaDecodeTime));
+        // data-offset + sample-duration + sample-size + sample-flags
+        byte[] trun = fullBox("trun", 0, 0x000701, int32(count), int32(dataOffset), entries);
+        return box("moof", mfhd, box("traf", tfhd, tfdt, trun));
+    }
+
+    private static byte[] box(String type, byte[]... payloads) {
+        int size = 8;
+        for (byte[] payload : payloads) {
+            size += payload.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        writeInt(out, size);
+        out.write(ascii(type), 0, 4);
+        for (byte[] payload : payloads) {
+            out.write(payload, 0, payload.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] fullBox(String type, int version, int flags, byte[]... payloads) {
+        byte[][] all = new byte[payloads.length + 1][];
+        all[0] = int32((version << 24) | (flags & 0xFFFFFF));
+        System.arraycopy(payloads, 0, all, 1, payloads.length);
+        return box(type, all);
+    }
+
+    private static byte[] matrix() {
+        return concat(int32(0x00010000), int32(0), int32(0),
+                int32(0), int32(0x00010000), int32(0),
+                int32(0), int32(0), int32(0x40000000));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] int32(int value) {
+        return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    private static byte[] int16(int value) {
+        return new byte[]{(byte) (value >>> 8), (byte) value};
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeFile(File file, byte[] data) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+    }
+
+    private static byte[] readAll(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
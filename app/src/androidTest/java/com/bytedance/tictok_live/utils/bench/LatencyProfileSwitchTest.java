@@ -0,0 +1,125 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.media3.common.C;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.bytedance.tictok_live.utils.player.LiveLatencyProfile;
+import com.bytedance.tictok_live.utils.player.LivePlayerManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 运行时切换直播延迟档位（性能浮层点击触发）：不重新缓冲，播放速度向新目标延迟收敛
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class LatencyProfileSwitchTest {
+    private static final String TAG = "LatencyProfileSwitchTest";
+
+    // 等待首次就绪、收敛到低延迟目标的上限
+    private static final long READY_TIMEOUT_MS = 30_000;
+    private static final long CONVERGE_TIMEOUT_MS = 60_000;
+    // 视为已收敛的偏差
+    private static final long CONVERGED_DRIFT_MS = 1000;
+    // 切换后观察时长：流畅档最低 0.98 倍速，10s 内延迟约增加 200ms
+    private static final long OBSERVE_MS = 10_000;
+    private static final long MIN_OFFSET_GROWTH_MS = 100;
+
+    private Context context;
+    private SyntheticDashOrigin origin;
+    private LivePlayerManager playerManager;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        File clipDir = new File(context.getCacheDir(), "bench_clip");
+        String codecs = FixtureClipGenerator.defaults().generate(clipDir);
+        origin = new SyntheticDashOrigin(new OriginConfig(clipDir)
+                .setCodecs(codecs)
+                .setSegmentDurationMs(2000));
+    }
+
+    @After
+    public void tearDown() {
+        if (playerManager != null) {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(playerManager::release);
+        }
+        origin.stop();
+    }
+
+    @Test
+    public void switchToSmoothSlowsDownWithoutRebuffer() throws Exception {
+        String manifestUrl = origin.start();
+        CountDownLatch ready = new CountDownLatch(1);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            playerManager = new LivePlayerManager(context, manifestUrl);
+            playerManager.initPlayer();
+            playerManager.prepareIfNeeded();
+            playerManager.runWhenReady(ready::countDown);
+        });
+        assertTrue("未就绪", ready.await(READY_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // 1. 低延迟档收敛到目标附近
+        long deadline = SystemClock.elapsedRealtime() + CONVERGE_TIMEOUT_MS;
+        long drift;
+        do {
+            SystemClock.sleep(500);
+            drift = onMain(playerManager::getLiveOffsetDriftMs);
+        } while ((drift == C.TIME_UNSET || Math.abs(drift) > CONVERGED_DRIFT_MS)
+                && SystemClock.elapsedRealtime() < deadline);
+        assertTrue("未收敛到低延迟目标，偏差：" + drift, Math.abs(drift) <= CONVERGED_DRIFT_MS);
+
+        // 2. 切换到流畅档（与浮层点击相同的调用）
+        int rebuffersBefore = onMain(() -> (long) playerManager.getQoeSession().getRebufferCount()).intValue();
+        long offsetBefore = onMain(playerManager::getCurrentLiveOffsetMs);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(
+                () -> playerManager.setLatencyProfile(LiveLatencyProfile.SMOOTH));
+
+        // 偏差立即按新目标计算：当前延迟远小于流畅档目标
+        long driftAfterSwitch = onMain(playerManager::getLiveOffsetDriftMs);
+        long expectedDrift = offsetBefore - LiveLatencyProfile.SMOOTH.targetOffsetMs;
+        assertTrue("切换后偏差应按流畅档目标计算：" + driftAfterSwitch,
+                Math.abs(driftAfterSwitch - expectedDrift) <= CONVERGED_DRIFT_MS);
+
+        // 3. 观察一段时间：播放不中断、不卡顿，降速使延迟增大
+        SystemClock.sleep(OBSERVE_MS);
+        long offsetAfter = onMain(playerManager::getCurrentLiveOffsetMs);
+        int rebuffersAfter = onMain(() -> (long) playerManager.getQoeSession().getRebufferCount()).intValue();
+        boolean playing = onMain(() -> playerManager.isPlaying() ? 1L : 0L) == 1L;
+        Log.d(TAG, "切换前延迟：" + offsetBefore + "ms，观察后延迟：" + offsetAfter
+                + "ms，卡顿：" + rebuffersBefore + " -> " + rebuffersAfter);
+
+        assertTrue("切换档位后播放中断", playing);
+        assertEquals("切换档位不应重新缓冲", rebuffersBefore, rebuffersAfter);
+        assertTrue("延迟未向流畅档目标增大：" + offsetBefore + " -> " + offsetAfter,
+                offsetAfter - offsetBefore >= MIN_OFFSET_GROWTH_MS);
+    }
+
+    private static Long onMain(LongGetter getter) {
+        AtomicLong value = new AtomicLong();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> value.set(getter.get()));
+        return value.get();
+    }
+
+    private interface LongGetter {
+        long get();
+    }
+}
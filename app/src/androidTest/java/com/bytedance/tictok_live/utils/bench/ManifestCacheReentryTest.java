@@ -0,0 +1,174 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.dash.DashMediaSource;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.bytedance.tictok_live.utils.player.LiveMediaCache;
+import com.bytedance.tictok_live.utils.player.LivePlayerManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * manifest 缓存对再次进房首帧的影响（设备上执行）：带往返延迟的本地直播源上反复“进房 - 播放 - 退出”，
+ * 分别在 manifest 缓存开启、关闭时统计首帧耗时（中位数）
+ *
+ * 播放器与线上相同的数据源（{@link LiveMediaCache}），init 分片两组都命中缓存，差异只来自 manifest；
+ * 每组第一次进房为冷启动，不计入
+ * 结果输出到 logcat（TAG ManifestCacheReentryTest）和 外部文件目录/manifest_cache_reentry.txt
+ */
+@OptIn(markerClass = UnstableApi.class)
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class ManifestCacheReentryTest {
+    private static final String TAG = "ManifestCacheReentryTest";
+
+    // 源站每个请求的附加延迟（模拟移动网络往返）
+    private static final int ORIGIN_LATENCY_MS = 150;
+    // 每组进房次数（含第一次冷启动）
+    private static final int ENTRIES = 6;
+    // 出首帧后继续播放的时长、退出到再次进房的间隔（都在 manifest 时效内）
+    private static final long WATCH_MS = 1000;
+    private static final long REENTRY_GAP_MS = 300;
+    private static final long FIRST_FRAME_TIMEOUT_MS = 30_000;
+
+    private Context context;
+    private SyntheticDashOrigin origin;
+    private HandlerThread imageThread;
+    private ImageReader imageReader;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        File clipDir = new File(context.getCacheDir(), "bench_clip");
+        String codecs = FixtureClipGenerator.defaults().generate(clipDir);
+        origin = new SyntheticDashOrigin(new OriginConfig(clipDir)
+                .setCodecs(codecs)
+                .setSegmentDurationMs(2000)
+                .setLatencyMs(ORIGIN_LATENCY_MS));
+
+        // 视频输出到 ImageReader，取出即丢弃（首帧耗时以渲染到 Surface 为准）
+        imageThread = new HandlerThread("ReentryImageReader");
+        imageThread.start();
+        imageReader = ImageReader.newInstance(256, 144, ImageFormat.PRIVATE, 4);
+        imageReader.setOnImageAvailableListener(reader -> {
+            Image image = reader.acquireLatestImage();
+            if (image != null) {
+                image.close();
+            }
+        }, new Handler(imageThread.getLooper()));
+    }
+
+    @After
+    public void tearDown() {
+        LiveMediaCache.getInstance(context).setManifestCacheEnabled(true);
+        origin.stop();
+        imageReader.close();
+        imageThread.quitSafely();
+    }
+
+    @Test
+    public void reentryTtffWithAndWithoutManifestCache() throws Exception {
+        String manifestUrl = origin.start();
+        List<Long> off = runEntries(manifestUrl, false);
+        List<Long> on = runEntries(manifestUrl, true);
+        report(String.format(Locale.US, "manifestCache=off medianTtff=%dms %s\nmanifestCache=on  medianTtff=%dms %s\n",
+                median(off), off, median(on), on));
+    }
+
+    // 一组：第一次进房不计，其余为再次进房的首帧耗时
+    private List<Long> runEntries(String manifestUrl, boolean manifestCacheEnabled) throws Exception {
+        LiveMediaCache.getInstance(context).setManifestCacheEnabled(manifestCacheEnabled);
+        List<Long> ttffs = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            long ttff = enterOnce(manifestUrl);
+            Log.d(TAG, "manifestCache=" + manifestCacheEnabled + " 第 " + (i + 1) + " 次进房首帧：" + ttff + "ms");
+            if (i > 0) {
+                ttffs.add(ttff);
+            }
+            SystemClock.sleep(REENTRY_GAP_MS);
+        }
+        return ttffs;
+    }
+
+    // 进房：与 LivePlayerManager 相同的数据源和 manifest 解析器，从 prepare 计时到首帧渲染
+    private long enterOnce(String manifestUrl) throws InterruptedException {
+        CountDownLatch firstFrame = new CountDownLatch(1);
+        AtomicLong ttffMs = new AtomicLong(-1);
+        AtomicReference<ExoPlayer> player = new AtomicReference<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            ExoPlayer exoPlayer = new ExoPlayer.Builder(context).build();
+            player.set(exoPlayer);
+            exoPlayer.setVideoSurface(imageReader.getSurface());
+            LiveMediaCache mediaCache = LiveMediaCache.getInstance(context);
+            exoPlayer.setMediaSource(new DashMediaSource.Factory(
+                    mediaCache.createDataSourceFactory(LivePlayerManager.createHttpDataSourceFactory()))
+                    .setManifestParser(mediaCache.createManifestParser())
+                    .createMediaSource(MediaItem.fromUri(manifestUrl)));
+            long start = SystemClock.elapsedRealtime();
+            exoPlayer.addListener(new Player.Listener() {
+                @Override
+                public void onRenderedFirstFrame() {
+                    ttffMs.compareAndSet(-1, SystemClock.elapsedRealtime() - start);
+                    firstFrame.countDown();
+                }
+            });
+            exoPlayer.setPlayWhenReady(true);
+            exoPlayer.prepare();
+        });
+        try {
+            assertTrue("未出首帧", firstFrame.await(FIRST_FRAME_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            SystemClock.sleep(WATCH_MS);
+            return ttffMs.get();
+        } finally {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(player.get()::release);
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private void report(String text) throws IOException {
+        Log.d(TAG, "再次进房首帧结果：\n" + text);
+        File dir = context.getExternalFilesDir(null);
+        if (dir == null) return;
+        try (FileWriter writer = new FileWriter(new File(dir, "manifest_cache_reentry.txt"), false)) {
+            writer.write(text);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * fMP4 分片改写工具：读取各轨道时间刻度，改写 tfdt / mfhd 让循环素材在时间轴上连续，
+ * 以及追加 free box 填充到目标大小
+ */
+final class Mp4Segments {
+
+    private static final int FREE_BOX_HEADER = 8;
+
+    private Mp4Segments() {}
+
+    /**
+     * 解析 init 分片：轨道 ID -> 时间刻度（moov/trak/tkhd + mdia/mdhd）
+     */
+    static Map<Integer, Long> readTrackTimescales(byte[] init) {
+        Map<Integer, Long> timescales = new HashMap<>();
+        int[] moov = findChild(init, 0, init.length, "moov");
+        if (moov == null) return timescales;
+
+        int pos = moov[0];
+        while (pos < moov[1]) {
+            int[] box = readBox(init, pos, moov[1]);
+            if (box == null) break;
+            if ("trak".equals(boxType(init, pos))) {
+                int[] tkhd = findChild(init, box[0], box[1], "tkhd");
+                int[] mdia = findChild(init, box[0], box[1], "mdia");
+                int[] mdhd = mdia != null ? findChild(init, mdia[0], mdia[1], "mdhd") : null;
+                if (tkhd != null && mdhd != null) {
+                    int tkhdVersion = init[tkhd[0]] & 0xFF;
+                    int trackId = (int) readUInt32(init, tkhd[0] + (tkhdVersion == 1 ? 20 : 12));
+                    int mdhdVersion = init[mdhd[0]] & 0xFF;
+                    long timescale = readUInt32(init, mdhd[0] + (mdhdVersion == 1 ? 20 : 12));
+                    timescales.put(trackId, timescale);
+                }
+            }
+            pos = box[1];
+        }
+        return timescales;
+    }
+
+    /**
+     * 改写媒体分片（返回副本）：序号写入 mfhd，各轨道 tfdt 改为分片起始时间
+     * @param segmentStartMs 分片在直播时间轴上的起始时间
+     * @param timescales 轨道时间刻度（缺失的轨道按毫秒处理）
+     */
+    static byte[] rewrite(byte[] segment, long segmentStartMs, int sequenceNumber, Map<Integer, Long> timescales) {
+        byte[] out = segment.clone();
+        int pos = 0;
+        while (pos < out.length) {
+            int[] box = readBox(out, pos, out.length);
+            if (box == null) break;
+            if ("moof".equals(boxType(out, pos))) {
+                rewriteMoof(out, box[0], box[1], segmentStartMs, sequenceNumber, timescales);
+            }
+            pos = box[1];
+        }
+        return out;
+    }
+
+    private static void rewriteMoof(byte[] data, int start, int end, long segmentStartMs, int sequenceNumber,
+                                    Map<Integer, Long> timescales) {
+        int pos = start;
+        while (pos < end) {
+            int[] box = readBox(data, pos, end);
+            if (box == null) break;
+            String type = boxType(data, pos);
+            if ("mfhd".equals(type)) {
+                writeUInt32(data, box[0] + 4, sequenceNumber);
+            } else if ("traf".equals(type)) {
+                int[] tfhd = findChild(data, box[0], box[1], "tfhd");
+                int[] tfdt = findChild(data, box[0], box[1], "tfdt");
+                if (tfhd != null && tfdt != null) {
+                    int trackId = (int) readUInt32(data, tfhd[0] + 4);
+                    Long timescale = timescales.get(trackId);
+                    long baseTime = segmentStartMs * (timescale != null ? timescale : 1000) / 1000;
+                    if ((data[tfdt[0]] & 0xFF) == 1) {
+                        writeUInt32(data, tfdt[0] + 4, baseTime >>> 32);
+                        writeUInt32(data, tfdt[0] + 8, baseTime & 0xFFFFFFFFL);
+                    } else {
+                        writeUInt32(data, tfdt[0] + 4, baseTime & 0xFFFFFFFFL);
+                    }
+                }
+            }
+            pos = box[1];
+        }
+    }
+
+    /**
+     * 追加 free box 填充到目标大小（已超过目标或差值不足一个 box 头则原样返回）
+     */
+    static byte[] padTo(byte[] data, int targetBytes) {
+        int padding = targetBytes - data.length;
+        if (padding < FREE_BOX_HEADER) return data;
+        byte[] out = new byte[targetBytes];
+        System.arraycopy(data, 0, out, 0, data.length);
+        writeUInt32(out, data.length, padding);
+        out[data.length + 4] = 'f';
+        out[data.length + 5] = 'r';
+        out[data.length + 6] = 'e';
+        out[data.length + 7] = 'e';
+        return out;
+    }
+
+    // 在 [start, end) 中查找子 box，返回 {内容起点, box 终点}
+    private static int[] findChild(byte[] data, int start, int end, String type) {
+        int pos = start;
+        while (pos < end) {
+            int[] box = readBox(data, pos, end);
+            if (box == null) return null;
+            if (type.equals(boxType(data, pos))) return box;
+            pos = box[1];
+        }
+        return null;
+    }
+
+    // 读取 box 头，返回 {内容起点, box 终点}，格式非法返回 null
+    private static int[] readBox(byte[] data, int pos, int end) {
+        if (pos + 8 > end) return null;
+        long size = readUInt32(data, pos);
+        int header = 8;
+        if (size == 1) {
+            if (pos + 16 > end) return null;
+            size = (readUInt32(data, pos + 8) << 32) | readUInt32(data, pos + 12);
+            header = 16;
+        } else if (size == 0) {
+            size = end - pos;
+        }
+        if (size < header || pos + size > end) return null;
+        return new int[]{pos + header, (int) (pos + size)};
+    }
+
+    private static String boxType(byte[] data, int pos) {
+        return new String(data, pos + 4, 4, StandardCharsets.ISO_8859_1);
+    }
+
+    private static long readUInt32(byte[] data, int pos) {
+        return ((data[pos] & 0xFFL) << 24) | ((data[pos + 1] & 0xFFL) << 16)
+                | ((data[pos + 2] & 0xFFL) << 8) | (data[pos + 3] & 0xFFL);
+    }
+
+    private static void writeUInt32(byte[] data, int pos, long value) {
+        data[pos] = (byte) (value >>> 24);
+        data[pos + 1] = (byte) (value >>> 16);
+        data[pos + 2] = (byte) (value >>> 8);
+        data[pos + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,185 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.bytedance.tictok_live.utils.network.NetworkCore;
+import com.bytedance.tictok_live.utils.network.NetworkPriorityScheduler;
+import com.bytedance.tictok_live.utils.network.NetworkPriorityScheduler.PriorityClass;
+import com.bytedance.tictok_live.utils.network.PriorityCallFactory;
+import com.bytedance.tictok_live.utils.player.LivePlayerManager;
+import com.bytedance.tictok_live.utils.player.qoe.QoeSession;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 网络优先级调度 A/B（设备上执行）：瓶颈链路上直播流与持续的低优先级下载争抢带宽，
+ * 分别在调度开启、关闭时播放固定时长，对比卡顿次数和卡顿率
+ *
+ * 结果输出到 logcat（TAG NetworkSchedulerAbTest）和 外部文件目录/network_scheduler_ab.txt
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class NetworkSchedulerAbTest {
+    private static final String TAG = "NetworkSchedulerAbTest";
+
+    // 共享链路带宽：高于最低档码率，低于最高档码率 + 争抢流量
+    private static final int LINK_KBPS = 3000;
+    // 争抢流量：并发数、单个大小（与批量头像同量级）
+    private static final int CROSS_TRAFFIC_CONCURRENCY = 4;
+    private static final int CROSS_TRAFFIC_BYTES = 128 * 1024;
+    // 每组播放时长
+    private static final long RUN_DURATION_MS = 40_000;
+    private static final long READY_TIMEOUT_MS = 30_000;
+
+    private Context context;
+    private File clipDir;
+    private String codecs;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        clipDir = new File(context.getCacheDir(), "bench_clip");
+        codecs = FixtureClipGenerator.defaults().generate(clipDir);
+    }
+
+    @After
+    public void tearDown() {
+        NetworkPriorityScheduler.getInstance().setEnabled(true);
+    }
+
+    @Test
+    public void schedulerOnVersusOffUnderContention() throws Exception {
+        String on = runOnce(true);
+        String off = runOnce(false);
+        report("scheduler=on  " + on + "\nscheduler=off " + off + "\n");
+    }
+
+    // 一组：新源站（链路状态清零）+ 新播放器 + 争抢流量
+    private String runOnce(boolean schedulerEnabled) throws Exception {
+        NetworkPriorityScheduler.getInstance().setEnabled(schedulerEnabled);
+        SyntheticDashOrigin origin = new SyntheticDashOrigin(new OriginConfig(clipDir)
+                .setCodecs(codecs)
+                .setSegmentDurationMs(2000)
+                .setLinkKbps(LINK_KBPS));
+        String manifestUrl = origin.start();
+        CrossTraffic crossTraffic = new CrossTraffic(manifestUrl.replace(SyntheticDashOrigin.MANIFEST_PATH,
+                "/blob_" + CROSS_TRAFFIC_BYTES + ".bin"));
+        AtomicReference<LivePlayerManager> player = new AtomicReference<>();
+        try {
+            CountDownLatch ready = new CountDownLatch(1);
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+                LivePlayerManager manager = new LivePlayerManager(context, manifestUrl);
+                player.set(manager);
+                manager.initPlayer();
+                manager.prepareIfNeeded();
+                manager.runWhenReady(ready::countDown);
+            });
+            assertTrue("未就绪", ready.await(READY_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+            crossTraffic.start(CROSS_TRAFFIC_CONCURRENCY);
+            SystemClock.sleep(RUN_DURATION_MS);
+            crossTraffic.stop();
+
+            AtomicReference<String> result = new AtomicReference<>();
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+                QoeSession session = player.get().getQoeSession();
+                result.set(String.format(Locale.US, "ttff=%dms rebuffer=%d(%.2f%%) crossTraffic=%d",
+                        session.getTtffMs(), session.getRebufferCount(), session.getRebufferRatio() * 100,
+                        crossTraffic.completed.get()));
+            });
+            Log.d(TAG, "scheduler=" + schedulerEnabled + " " + result.get());
+            return result.get();
+        } finally {
+            crossTraffic.stop();
+            if (player.get() != null) {
+                InstrumentationRegistry.getInstrumentation().runOnMainSync(player.get()::release);
+            }
+            origin.stop();
+        }
+    }
+
+    private void report(String text) throws IOException {
+        Log.d(TAG, "调度 A/B 结果：\n" + text);
+        File dir = context.getExternalFilesDir(null);
+        if (dir == null) return;
+        try (FileWriter writer = new FileWriter(new File(dir, "network_scheduler_ab.txt"), false)) {
+            writer.write(text);
+        }
+    }
+
+    /**
+     * 持续的低优先级下载（头像分类，经调度器准入），每完成一个立即发起下一个
+     */
+    private static class CrossTraffic implements Callback {
+        private final PriorityCallFactory callFactory =
+                new PriorityCallFactory(NetworkCore.getInstance().getOkHttpClient());
+        private final String url;
+        private volatile boolean running;
+        final AtomicInteger completed = new AtomicInteger();
+
+        CrossTraffic(String url) {
+            this.url = url;
+        }
+
+        void start(int concurrency) {
+            running = true;
+            for (int i = 0; i < concurrency; i++) {
+                next();
+            }
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        private void next() {
+            if (!running) return;
+            Request request = new Request.Builder()
+                    .url(url)
+                    .tag(PriorityClass.class, PriorityClass.AVATAR)
+                    .build();
+            callFactory.newCall(request).enqueue(this);
+        }
+
+        @Override
+        public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+            try (Response r = response) {
+                r.body().bytes();
+                completed.incrementAndGet();
+            }
+            next();
+        }
+
+        @Override
+        public void onFailure(@NonNull Call call, @NonNull IOException e) {
+            SystemClock.sleep(100);
+            next();
+        }
+    }
+}
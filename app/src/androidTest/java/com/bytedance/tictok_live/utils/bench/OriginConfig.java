@@ -0,0 +1,163 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 本地合成直播源配置
+ *
+ * 码率档位、分片时长、直播窗口在启动源站前确定；延迟、限速、卡顿、错误注入可在运行中修改
+ */
+public class OriginConfig {
+
+    /**
+     * 码率档位（每档用同一段素材，不足目标码率的分片用 free box 填充到目标大小）
+     */
+    public static class LadderRung {
+        public final int bitrateKbps;
+        public final int width;
+        public final int height;
+
+        public LadderRung(int bitrateKbps, int width, int height) {
+            this.bitrateKbps = bitrateKbps;
+            this.width = width;
+            this.height = height;
+        }
+
+        String representationId() {
+            return "r" + bitrateKbps;
+        }
+    }
+
+    // 素材目录：init.mp4 + seg_1.m4s ... seg_N.m4s（单轨 fMP4，分片时长需与 segmentDurationMs 一致）
+    private final File clipDir;
+
+    private List<LadderRung> ladder = Arrays.asList(
+            new LadderRung(800, 640, 360),
+            new LadderRung(1800, 960, 540),
+            new LadderRung(3500, 1280, 720)
+    );
+    private String codecs = "avc1.64001f";
+    private long segmentDurationMs = 2000;
+    // 直播窗口（可回看的分片数）
+    private int windowSegments = 15;
+    // 建议播放延迟（写入 MPD 的 suggestedPresentationDelay）
+    private long presentationDelayMs = 6000;
+
+    // 运行时故障注入
+    private volatile long latencyMs = 0;          // 每个请求的首字节延迟
+    private volatile int throttleKbps = 0;        // 下行限速，0 为不限
+    private volatile int linkKbps = 0;            // 所有连接共享的链路带宽（模拟瓶颈链路，媒体与其它请求争抢），0 为不限
+    private volatile int stallEverySegments = 0;  // 每 N 个分片卡顿一次，0 为不卡顿
+    private volatile long stallDurationMs = 0;    // 卡顿时长（响应体传输到一半时停顿）
+    private volatile float errorRate = 0f;        // 分片请求返回 503 的概率
+
+    public OriginConfig(File clipDir) {
+        this.clipDir = clipDir;
+    }
+
+    public OriginConfig setLadder(List<LadderRung> ladder) {
+        if (ladder == null || ladder.isEmpty()) {
+            throw new IllegalArgumentException("码率档位不能为空");
+        }
+        this.ladder = new ArrayList<>(ladder);
+        return this;
+    }
+
+    public OriginConfig setCodecs(String codecs) {
+        this.codecs = codecs;
+        return this;
+    }
+
+    public OriginConfig setSegmentDurationMs(long segmentDurationMs) {
+        this.segmentDurationMs = segmentDurationMs;
+        return this;
+    }
+
+    public OriginConfig setWindowSegments(int windowSegments) {
+        this.windowSegments = Math.max(3, windowSegments);
+        return this;
+    }
+
+    public OriginConfig setPresentationDelayMs(long presentationDelayMs) {
+        this.presentationDelayMs = presentationDelayMs;
+        return this;
+    }
+
+    public OriginConfig setLatencyMs(long latencyMs) {
+        this.latencyMs = Math.max(0, latencyMs);
+        return this;
+    }
+
+    public OriginConfig setThrottleKbps(int throttleKbps) {
+        this.throttleKbps = Math.max(0, throttleKbps);
+        return this;
+    }
+
+    public OriginConfig setLinkKbps(int linkKbps) {
+        this.linkKbps = Math.max(0, linkKbps);
+        return this;
+    }
+
+    public OriginConfig setStall(int everySegments, long durationMs) {
+        this.stallEverySegments = Math.max(0, everySegments);
+        this.stallDurationMs = Math.max(0, durationMs);
+        return this;
+    }
+
+    public OriginConfig setErrorRate(float errorRate) {
+        this.errorRate = Math.max(0f, Math.min(1f, errorRate));
+        return this;
+    }
+
+    public File getClipDir() {
+        return clipDir;
+    }
+
+    public List<LadderRung> getLadder() {
+        return Collections.unmodifiableList(ladder);
+    }
+
+    public String getCodecs() {
+        return codecs;
+    }
+
+    public long getSegmentDurationMs() {
+        return segmentDurationMs;
+    }
+
+    public int getWindowSegments() {
+        return windowSegments;
+    }
+
+    public long getPresentationDelayMs() {
+        return presentationDelayMs;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public int getThrottleKbps() {
+        return throttleKbps;
+    }
+
+    public int getLinkKbps() {
+        return linkKbps;
+    }
+
+    public int getStallEverySegments() {
+        return stallEverySegments;
+    }
+
+    public long getStallDurationMs() {
+        return stallDurationMs;
+    }
+
+    public float getErrorRate() {
+        return errorRate;
+    }
+}
@@ -0,0 +1,231 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Surface;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DefaultLoadControl;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.dash.DashMediaSource;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+
+import com.bytedance.tictok_live.utils.player.LiveLatencyProfile;
+import com.bytedance.tictok_live.utils.player.LivePlayerManager;
+import com.bytedance.tictok_live.utils.player.qoe.PlaybackQoeCollector;
+import com.bytedance.tictok_live.utils.player.qoe.QoeSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 播放器基准测试（仅在主线程使用）
+ *
+ * 依次用每个 {@link BenchmarkProfile} 新建播放器播放同一直播源（通常为 {@link SyntheticDashOrigin}）固定时长，
+ * 通过 QoE 会话统计首帧耗时、卡顿率、平均直播延迟等；档位之间串行执行，互不干扰
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class PlayerBenchmark {
+    private static final String TAG = "PlayerBenchmark";
+
+    // 直播延迟采样间隔
+    private static final long SAMPLE_INTERVAL_MS = 500;
+    // 两个档位之间的间隔（等待上一个播放器释放连接、解码器）
+    private static final long PROFILE_GAP_MS = 1000;
+
+    /**
+     * 单个档位的结果
+     */
+    public static class Result {
+        public final String profileName;
+        public final long ttffMs;
+        public final int rebufferCount;
+        public final double rebufferRatio;
+        public final long avgLiveOffsetMs;
+        public final int bitrateSwitchCount;
+        public final long droppedFrames;
+        public final int errorCount;
+
+        Result(String profileName, QoeSession session) {
+            this.profileName = profileName;
+            this.ttffMs = session.getTtffMs();
+            this.rebufferCount = session.getRebufferCount();
+            this.rebufferRatio = session.getRebufferRatio();
+            this.avgLiveOffsetMs = session.getAverageLiveOffsetMs();
+            this.bitrateSwitchCount = session.getBitrateSwitchCount();
+            this.droppedFrames = session.getDroppedVideoFrames();
+            this.errorCount = session.getErrorCount();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%-12s ttff=%dms rebuffer=%d(%.2f%%) avgOffset=%dms switches=%d dropped=%d errors=%d",
+                    profileName, ttffMs, rebufferCount, rebufferRatio * 100,
+                    avgLiveOffsetMs == C.TIME_UNSET ? -1 : avgLiveOffsetMs,
+                    bitrateSwitchCount, droppedFrames, errorCount);
+        }
+    }
+
+    public interface Callback {
+        void onProfileFinished(Result result);
+
+        void onAllFinished(List<Result> results);
+    }
+
+    private final Context appContext;
+    private final String manifestUrl;
+    private final long runDurationMs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // 视频输出（首帧耗时以渲染到 Surface 为准，无 Surface 时不出首帧）
+    private Surface videoSurface;
+
+    private final List<Result> results = new ArrayList<>();
+    private List<BenchmarkProfile> profiles;
+    private Callback callback;
+    private int index;
+
+    private ExoPlayer player;
+    private QoeSession session;
+
+    private final Runnable sampleTask = new Runnable() {
+        @Override
+        public void run() {
+            if (player == null) return;
+            if (player.isCurrentMediaItemLive()) {
+                session.sampleLiveOffset(player.getCurrentLiveOffset());
+            }
+            handler.postDelayed(this, SAMPLE_INTERVAL_MS);
+        }
+    };
+
+    /**
+     * @param manifestUrl 直播源地址
+     * @param runDurationMs 每个档位的播放时长
+     */
+    public PlayerBenchmark(Context context, String manifestUrl, long runDurationMs) {
+        this.appContext = context.getApplicationContext();
+        this.manifestUrl = manifestUrl;
+        this.runDurationMs = runDurationMs;
+    }
+
+    /**
+     * 设置视频输出（测试中可用 ImageReader 的 Surface 代替画面）
+     */
+    public void setVideoSurface(Surface surface) {
+        this.videoSurface = surface;
+    }
+
+    /**
+     * 依次执行全部档位
+     */
+    @MainThread
+    public void run(List<BenchmarkProfile> profiles, Callback callback) {
+        cancel();
+        this.profiles = new ArrayList<>(profiles);
+        this.callback = callback;
+        this.index = 0;
+        results.clear();
+        Log.d(TAG, "开始基准测试：" + manifestUrl + "，档位数：" + profiles.size() + "，每档时长：" + runDurationMs + "ms");
+        startProfile();
+    }
+
+    /**
+     * 取消（释放当前播放器，不回调结果）
+     */
+    @MainThread
+    public void cancel() {
+        handler.removeCallbacksAndMessages(null);
+        if (session != null) {
+            PlaybackQoeCollector.getInstance().endSession(session);
+        }
+        releasePlayer();
+    }
+
+    private void startProfile() {
+        BenchmarkProfile profile = profiles.get(index);
+
+        DefaultTrackSelector trackSelector = new DefaultTrackSelector(appContext);
+        trackSelector.setParameters(trackSelector.buildUponParameters()
+                .setMaxVideoBitrate(profile.maxVideoBitrate));
+
+        player = new ExoPlayer.Builder(appContext)
+                .setTrackSelector(trackSelector)
+                .setLoadControl(new DefaultLoadControl.Builder()
+                        .setBufferDurationsMs(
+                                profile.minBufferMs,
+                                profile.maxBufferMs,
+                                profile.bufferForPlaybackMs,
+                                profile.bufferForPlaybackAfterRebufferMs)
+                        .setPrioritizeTimeOverSizeThresholds(true)
+                        .build())
+                .build();
+
+        session = PlaybackQoeCollector.getInstance().startSession(manifestUrl + "#" + profile.name);
+        player.addAnalyticsListener(session);
+        if (videoSurface != null) {
+            player.setVideoSurface(videoSurface);
+        }
+
+        LiveLatencyProfile latency = profile.latencyProfile;
+        MediaItem mediaItem = new MediaItem.Builder()
+                .setUri(manifestUrl)
+                .setLiveConfiguration(new MediaItem.LiveConfiguration.Builder()
+                        .setTargetOffsetMs(latency.targetOffsetMs)
+                        .setMinOffsetMs(LiveLatencyProfile.MIN_OFFSET_MS)
+                        .setMaxOffsetMs(LiveLatencyProfile.MAX_OFFSET_MS)
+                        .setMinPlaybackSpeed(latency.minPlaybackSpeed)
+                        .setMaxPlaybackSpeed(latency.maxPlaybackSpeed)
+                        .build())
+                .build();
+        // 与线上相同的网络数据源，不经过 manifest 磁盘缓存，保证每档都是冷启动
+        player.setMediaSource(new DashMediaSource.Factory(LivePlayerManager.createHttpDataSourceFactory())
+                .createMediaSource(mediaItem));
+        player.setPlayWhenReady(true);
+        player.prepare();
+
+        handler.post(sampleTask);
+        handler.postDelayed(this::finishProfile, runDurationMs);
+        Log.d(TAG, "开始档位：" + profile.name);
+    }
+
+    private void finishProfile() {
+        handler.removeCallbacks(sampleTask);
+        PlaybackQoeCollector.getInstance().endSession(session);
+        Result result = new Result(profiles.get(index).name, session);
+        releasePlayer();
+
+        results.add(result);
+        Log.d(TAG, "档位结果：" + result);
+        if (callback != null) {
+            callback.onProfileFinished(result);
+        }
+
+        index++;
+        if (index < profiles.size()) {
+            handler.postDelayed(this::startProfile, PROFILE_GAP_MS);
+            return;
+        }
+        Log.d(TAG, "基准测试完成，共 " + results.size() + " 个档位");
+        if (callback != null) {
+            callback.onAllFinished(new ArrayList<>(results));
+        }
+    }
+
+    private void releasePlayer() {
+        if (player != null) {
+            player.release();
+            player = null;
+        }
+        session = null;
+    }
+}
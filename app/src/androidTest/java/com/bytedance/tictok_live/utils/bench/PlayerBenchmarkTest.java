@@ -0,0 +1,173 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 播放器基准测试（设备上执行）：本地合成直播源 + 默认对比档位
+ *
+ * 两个场景：无故障的源站，以及限速 + 周期性卡顿的源站（卡顿率、直播延迟的档位对比只在后者上有意义）
+ * 素材由 {@link FixtureClipGenerator} 生成并缓存在 cache/bench_clip；
+ * 结果输出到 logcat（TAG PlayerBenchmarkTest）和 外部文件目录/player_benchmark.txt、player_benchmark_impaired.txt，
+ * 可用 adb pull 取回
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class PlayerBenchmarkTest {
+    private static final String TAG = "PlayerBenchmarkTest";
+
+    // 每个档位的播放时长
+    private static final long RUN_DURATION_MS = 20_000;
+    // 故障场景：每连接限速（低于最高档码率，迫使降档）、每 5 个分片（10s）卡顿 4s（小于媒体读超时 5s，不报错），
+    // 播放时长覆盖至少两次卡顿
+    private static final int IMPAIRED_THROTTLE_KBPS = 2500;
+    private static final int IMPAIRED_STALL_EVERY_SEGMENTS = 5;
+    private static final long IMPAIRED_STALL_MS = 4000;
+    private static final long IMPAIRED_RUN_DURATION_MS = 30_000;
+    // 整体等待上限（档位数 x (时长 + 间隔) 之外留足余量）
+    private static final long TIMEOUT_MS = 3 * 60 * 1000;
+
+    private Context context;
+    private File clipDir;
+    private String codecs;
+    private SyntheticDashOrigin origin;
+    private HandlerThread imageThread;
+    private ImageReader imageReader;
+    private PlayerBenchmark benchmark;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        clipDir = new File(context.getCacheDir(), "bench_clip");
+        codecs = FixtureClipGenerator.defaults().generate(clipDir);
+
+        // 视频输出到 ImageReader，取出即丢弃（首帧耗时以渲染到 Surface 为准）
+        imageThread = new HandlerThread("BenchImageReader");
+        imageThread.start();
+        imageReader = ImageReader.newInstance(256, 144, ImageFormat.PRIVATE, 4);
+        imageReader.setOnImageAvailableListener(reader -> {
+            Image image = reader.acquireLatestImage();
+            if (image != null) {
+                image.close();
+            }
+        }, new Handler(imageThread.getLooper()));
+    }
+
+    @After
+    public void tearDown() {
+        if (benchmark != null) {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(benchmark::cancel);
+        }
+        if (origin != null) {
+            origin.stop();
+        }
+        imageReader.close();
+        imageThread.quitSafely();
+    }
+
+    @Test
+    public void defaultProfilesOnCleanOrigin() throws Exception {
+        List<BenchmarkProfile> profiles = BenchmarkProfile.defaults();
+        List<PlayerBenchmark.Result> all = runProfiles(newOrigin(), profiles, RUN_DURATION_MS);
+        report(all, "player_benchmark.txt");
+
+        // 无故障注入：每个档位都应出首帧且没有播放错误
+        assertEquals(profiles.size(), all.size());
+        for (PlayerBenchmark.Result result : all) {
+            assertTrue(result.profileName + " 未出首帧", result.ttffMs >= 0);
+            assertEquals(result.profileName + " 出现播放错误", 0, result.errorCount);
+        }
+    }
+
+    @Test
+    public void defaultProfilesOnThrottledStallingOrigin() throws Exception {
+        List<BenchmarkProfile> profiles = BenchmarkProfile.defaults();
+        List<PlayerBenchmark.Result> all = runProfiles(newOrigin()
+                        .setThrottleKbps(IMPAIRED_THROTTLE_KBPS)
+                        .setStall(IMPAIRED_STALL_EVERY_SEGMENTS, IMPAIRED_STALL_MS),
+                profiles, IMPAIRED_RUN_DURATION_MS);
+        report(all, "player_benchmark_impaired.txt");
+
+        // 每个档位都应出首帧；故障注入须实际造成卡顿，否则档位间的卡顿率对比没有意义
+        assertEquals(profiles.size(), all.size());
+        int totalRebuffers = 0;
+        for (PlayerBenchmark.Result result : all) {
+            assertTrue(result.profileName + " 未出首帧", result.ttffMs >= 0);
+            totalRebuffers += result.rebufferCount;
+        }
+        assertTrue("限速 + 卡顿场景下没有任何档位卡顿，故障注入未生效", totalRebuffers > 0);
+    }
+
+    private OriginConfig newOrigin() {
+        return new OriginConfig(clipDir)
+                .setCodecs(codecs)
+                .setSegmentDurationMs(2000);
+    }
+
+    // 启动源站，依次执行全部档位，返回结果
+    private List<PlayerBenchmark.Result> runProfiles(OriginConfig config, List<BenchmarkProfile> profiles,
+                                                     long runDurationMs) throws Exception {
+        origin = new SyntheticDashOrigin(config);
+        String manifestUrl = origin.start();
+
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicReference<List<PlayerBenchmark.Result>> results = new AtomicReference<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            benchmark = new PlayerBenchmark(context, manifestUrl, runDurationMs);
+            benchmark.setVideoSurface(imageReader.getSurface());
+            benchmark.run(profiles, new PlayerBenchmark.Callback() {
+                @Override
+                public void onProfileFinished(PlayerBenchmark.Result result) {
+                    Log.d(TAG, result.toString());
+                }
+
+                @Override
+                public void onAllFinished(List<PlayerBenchmark.Result> all) {
+                    results.set(all);
+                    finished.countDown();
+                }
+            });
+        });
+
+        assertTrue("基准测试超时", finished.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        return results.get();
+    }
+
+    private void report(List<PlayerBenchmark.Result> results, String fileName) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (PlayerBenchmark.Result result : results) {
+            sb.append(result).append('\n');
+        }
+        Log.d(TAG, "基准测试结果（" + fileName + "）：\n" + sb);
+        File dir = context.getExternalFilesDir(null);
+        if (dir == null) return;
+        try (FileWriter writer = new FileWriter(new File(dir, fileName), false)) {
+            writer.write(sb.toString());
+        }
+    }
+}
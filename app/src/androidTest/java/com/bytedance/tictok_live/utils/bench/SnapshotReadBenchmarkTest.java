@@ -0,0 +1,80 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.bytedance.tictok_live.model.HostInfo;
+import com.bytedance.tictok_live.utils.snapshot.RoomSnapshot;
+import com.bytedance.tictok_live.utils.snapshot.RoomSnapshotStore;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 直播间快照读取基准（设备上执行）：内存映射与普通流读取对比
+ *
+ * 快照按满额评论构造，先预热再计时；结果输出到 logcat（TAG SnapshotReadBenchmarkTest）
+ * 和 外部文件目录/snapshot_read_benchmark.txt，可用 adb pull 取回
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class SnapshotReadBenchmarkTest {
+    private static final String TAG = "SnapshotReadBenchmarkTest";
+
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int ITERATIONS = 500;
+    // 重复轮数（取每轮平均值，观察波动）
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void mappedVersusStreamRead() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        RoomSnapshot snapshot = buildSnapshot();
+        File dir = context.getCacheDir();
+
+        RoomSnapshotStore.benchmarkRead(dir, snapshot, WARMUP_ITERATIONS);
+        StringBuilder sb = new StringBuilder();
+        for (int round = 0; round < ROUNDS; round++) {
+            long[] result = RoomSnapshotStore.benchmarkRead(dir, snapshot, ITERATIONS);
+            assertTrue(result[0] > 0 && result[1] > 0);
+            sb.append(String.format(Locale.US, "round %d: mapped=%dus stream=%dus\n",
+                    round, result[0] / 1000, result[1] / 1000));
+        }
+        report(context, sb.toString());
+    }
+
+    // 满额评论，字段长度接近线上
+    private static RoomSnapshot buildSnapshot() {
+        HostInfo host = new HostInfo("host-1", 123456, "今晚一起看直播", "https://cdn.example.com/avatar/host.png",
+                "主播", "2025-11-20T08:00:00.000Z");
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < RoomSnapshot.MAX_COMMENTS; i++) {
+            comments.add(new Comment("2025-11-20T08:00:00.000Z", "观众" + i,
+                    "https://cdn.example.com/avatar/" + i + ".png", "主播好，第 " + i + " 条评论", String.valueOf(i)));
+        }
+        return new RoomSnapshot(host, comments, 888, System.currentTimeMillis());
+    }
+
+    private static void report(Context context, String text) throws IOException {
+        Log.d(TAG, "快照读取基准结果：\n" + text);
+        File dir = context.getExternalFilesDir(null);
+        if (dir == null) return;
+        try (FileWriter writer = new FileWriter(new File(dir, "snapshot_read_benchmark.txt"), false)) {
+            writer.write(text);
+        }
+    }
+}
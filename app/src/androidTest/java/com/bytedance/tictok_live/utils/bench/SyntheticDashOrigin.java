@@ -0,0 +1,402 @@
+package com.bytedance.tictok_live.utils.bench;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地合成 DASH 直播源（调试、基准测试用，只监听 127.0.0.1）
+ *
+ * 把一段录制好的 fMP4 素材循环成无限直播：
+ *  1. /live.mpd：动态 MPD，SegmentTemplate + $Number$，直播窗口随时间滚动
+ *  2. /init_{档位}.m4s、/seg_{档位}_{序号}.m4s：分片按序号循环取素材，改写 tfdt 保证时间轴连续，按档位码率填充大小
+ *  3. 按 {@link OriginConfig} 注入首字节延迟、限速、共享链路带宽、周期性卡顿、503 错误
+ *  4. /blob_{字节数}.bin：任意大小的填充数据，模拟与直播流争抢链路的其它请求（图片等）
+ * 素材由 {@link FixtureClipGenerator} 在设备上编码生成（也可 adb push 录制的素材），离线可用、结果可复现
+ */
+public class SyntheticDashOrigin {
+    private static final String TAG = "SyntheticDashOrigin";
+
+    public static final String MANIFEST_PATH = "/live.mpd";
+
+    private static final Pattern INIT_PATTERN = Pattern.compile("^/init_(r\\d+)\\.m4s$");
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("^/seg_(r\\d+)_(\\d+)\\.m4s$");
+    private static final Pattern CLIP_SEGMENT_PATTERN = Pattern.compile("^seg_(\\d+)\\.m4s$");
+    private static final Pattern BLOB_PATTERN = Pattern.compile("^/blob_(\\d{1,8})\\.bin$");
+
+    // 限速时每次写出的字节数
+    private static final int THROTTLE_CHUNK_BYTES = 8 * 1024;
+
+    // 共享链路：下一次可发送的时间（ns），各连接按块排队
+    private final Object linkLock = new Object();
+    private long linkNextFreeNs;
+
+    private final OriginConfig config;
+
+    private byte[] clipInit;
+    private final List<byte[]> clipSegments = new ArrayList<>();
+    private Map<Integer, Long> trackTimescales;
+
+    private ServerSocket serverSocket;
+    private ExecutorService connectionExecutor;
+    private volatile boolean running = false;
+
+    // 直播起点（墙上时间写入 MPD，单调时钟用于计算可用分片）
+    private long availabilityStartWallMs;
+    private long availabilityStartElapsedMs;
+
+    public SyntheticDashOrigin(OriginConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 加载素材并启动（阻塞读取素材，需在子线程调用）
+     * @return manifest 地址
+     */
+    public synchronized String start() throws IOException {
+        if (running) return getManifestUrl();
+
+        loadClip(config.getClipDir());
+        trackTimescales = Mp4Segments.readTrackTimescales(clipInit);
+
+        serverSocket = new ServerSocket(0, 16, InetAddress.getByName("127.0.0.1"));
+        connectionExecutor = Executors.newCachedThreadPool();
+        availabilityStartWallMs = System.currentTimeMillis();
+        availabilityStartElapsedMs = SystemClock.elapsedRealtime();
+        running = true;
+
+        Thread acceptThread = new Thread(this::acceptLoop, "SyntheticDashOrigin");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+
+        Log.d(TAG, "本地直播源已启动：" + getManifestUrl() + "，素材分片数：" + clipSegments.size()
+                + "，轨道时间刻度：" + trackTimescales);
+        return getManifestUrl();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException ignored) {
+            }
+            serverSocket = null;
+        }
+        if (connectionExecutor != null) {
+            connectionExecutor.shutdownNow();
+            connectionExecutor = null;
+        }
+        Log.d(TAG, "本地直播源已停止");
+    }
+
+    public String getManifestUrl() {
+        return "http://127.0.0.1:" + (serverSocket != null ? serverSocket.getLocalPort() : 0) + MANIFEST_PATH;
+    }
+
+    public OriginConfig getConfig() {
+        return config;
+    }
+
+    private void loadClip(File dir) throws IOException {
+        File init = new File(dir, "init.mp4");
+        File[] files = dir.listFiles();
+        if (!init.isFile() || files == null) {
+            throw new IOException("素材目录缺少 init.mp4：" + dir);
+        }
+        // 按序号排序 seg_N.m4s
+        List<File> segmentFiles = new ArrayList<>();
+        for (File file : files) {
+            if (CLIP_SEGMENT_PATTERN.matcher(file.getName()).matches()) {
+                segmentFiles.add(file);
+            }
+        }
+        if (segmentFiles.isEmpty()) {
+            throw new IOException("素材目录缺少 seg_N.m4s：" + dir);
+        }
+        segmentFiles.sort((a, b) -> Integer.compare(clipIndex(a), clipIndex(b)));
+
+        clipInit = readFile(init);
+        clipSegments.clear();
+        for (File file : segmentFiles) {
+            clipSegments.add(readFile(file));
+        }
+    }
+
+    // 读取整个文件（minSdk 23 无 java.nio.file）
+    private static byte[] readFile(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static int clipIndex(File file) {
+        Matcher matcher = CLIP_SEGMENT_PATTERN.matcher(file.getName());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionExecutor.execute(() -> handleConnection(socket));
+            } catch (IOException e) {
+                if (running) {
+                    Log.w(TAG, "接受连接失败", e);
+                }
+            }
+        }
+    }
+
+    // 每个连接处理一个请求，响应后关闭（Connection: close）
+    private void handleConnection(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            String requestLine = readLine(in);
+            if (requestLine == null) return;
+            // 读完请求头
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                // 忽略请求头（不支持 Range，全部返回完整内容）
+            }
+
+            String[] parts = requestLine.split(" ");
+            if (parts.length < 2) return;
+            boolean head = "HEAD".equals(parts[0]);
+            String path = parts[1];
+            int query = path.indexOf('?');
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+            serve(s.getOutputStream(), path, head);
+        } catch (IOException e) {
+            Log.w(TAG, "处理请求失败", e);
+        }
+    }
+
+    private void serve(OutputStream out, String path, boolean head) throws IOException {
+        sleepQuietly(config.getLatencyMs());
+
+        if (MANIFEST_PATH.equals(path)) {
+            writeResponse(out, 200, "application/dash+xml", buildManifest().getBytes(StandardCharsets.UTF_8), head, false);
+            return;
+        }
+
+        Matcher initMatcher = INIT_PATTERN.matcher(path);
+        if (initMatcher.matches()) {
+            if (findRung(initMatcher.group(1)) == null) {
+                writeResponse(out, 404, "text/plain", new byte[0], head, false);
+                return;
+            }
+            writeResponse(out, 200, "video/mp4", clipInit, head, false);
+            return;
+        }
+
+        Matcher segmentMatcher = SEGMENT_PATTERN.matcher(path);
+        if (segmentMatcher.matches()) {
+            OriginConfig.LadderRung rung = findRung(segmentMatcher.group(1));
+            int number = Integer.parseInt(segmentMatcher.group(2));
+            if (rung == null || !isAvailable(number)) {
+                writeResponse(out, 404, "text/plain", new byte[0], head, false);
+                return;
+            }
+            if (config.getErrorRate() > 0 && ThreadLocalRandom.current().nextFloat() < config.getErrorRate()) {
+                Log.d(TAG, "注入 503：" + path);
+                writeResponse(out, 503, "text/plain", new byte[0], head, false);
+                return;
+            }
+            int stallEvery = config.getStallEverySegments();
+            boolean stall = stallEvery > 0 && number % stallEvery == 0;
+            writeResponse(out, 200, "video/mp4", buildSegment(rung, number), head, stall);
+            return;
+        }
+
+        Matcher blobMatcher = BLOB_PATTERN.matcher(path);
+        if (blobMatcher.matches()) {
+            writeResponse(out, 200, "application/octet-stream",
+                    new byte[Integer.parseInt(blobMatcher.group(1))], head, false);
+            return;
+        }
+
+        writeResponse(out, 404, "text/plain", new byte[0], head, false);
+    }
+
+    // 分片 number 在 [(number-1)*d, number*d) 区间，区间结束后可用，且仍在直播窗口内
+    private boolean isAvailable(int number) {
+        long latest = (SystemClock.elapsedRealtime() - availabilityStartElapsedMs) / config.getSegmentDurationMs();
+        return number >= 1 && number <= latest && number > latest - config.getWindowSegments();
+    }
+
+    private byte[] buildSegment(OriginConfig.LadderRung rung, int number) {
+        byte[] source = clipSegments.get((number - 1) % clipSegments.size());
+        long segmentStartMs = (number - 1) * config.getSegmentDurationMs();
+        byte[] segment = Mp4Segments.rewrite(source, segmentStartMs, number, trackTimescales);
+        long targetBytes = (long) rung.bitrateKbps * 1000 / 8 * config.getSegmentDurationMs() / 1000;
+        return Mp4Segments.padTo(segment, (int) Math.min(Integer.MAX_VALUE, targetBytes));
+    }
+
+    private OriginConfig.LadderRung findRung(String representationId) {
+        for (OriginConfig.LadderRung rung : config.getLadder()) {
+            if (rung.representationId().equals(representationId)) return rung;
+        }
+        return null;
+    }
+
+    private String buildManifest() {
+        long segmentMs = config.getSegmentDurationMs();
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<MPD xmlns=\"urn:mpeg:dash:schema:mpd:2011\" type=\"dynamic\"")
+                .append(" profiles=\"urn:mpeg:dash:profile:isoff-live:2011\"")
+                .append(" availabilityStartTime=\"").append(isoTime(availabilityStartWallMs)).append('"')
+                .append(" publishTime=\"").append(isoTime(System.currentTimeMillis())).append('"')
+                .append(" minimumUpdatePeriod=\"").append(isoDuration(segmentMs)).append('"')
+                .append(" minBufferTime=\"").append(isoDuration(segmentMs)).append('"')
+                .append(" maxSegmentDuration=\"").append(isoDuration(segmentMs)).append('"')
+                .append(" timeShiftBufferDepth=\"").append(isoDuration(segmentMs * config.getWindowSegments())).append('"')
+                .append(" suggestedPresentationDelay=\"").append(isoDuration(config.getPresentationDelayMs())).append("\">\n")
+                .append("  <Period id=\"0\" start=\"PT0S\">\n")
+                .append("    <AdaptationSet id=\"0\" contentType=\"video\" mimeType=\"video/mp4\"")
+                .append(" segmentAlignment=\"true\" startWithSAP=\"1\">\n")
+                .append("      <SegmentTemplate timescale=\"1000\" duration=\"").append(segmentMs).append('"')
+                .append(" startNumber=\"1\" initialization=\"init_$RepresentationID$.m4s\"")
+                .append(" media=\"seg_$RepresentationID$_$Number$.m4s\"/>\n");
+        for (OriginConfig.LadderRung rung : config.getLadder()) {
+            sb.append("      <Representation id=\"").append(rung.representationId()).append('"')
+                    .append(" bandwidth=\"").append(rung.bitrateKbps * 1000L).append('"')
+                    .append(" codecs=\"").append(config.getCodecs()).append('"')
+                    .append(" width=\"").append(rung.width).append('"')
+                    .append(" height=\"").append(rung.height).append("\"/>\n");
+        }
+        sb.append("    </AdaptationSet>\n")
+                .append("  </Period>\n")
+                // 播放器按该时间同步时钟，避免设备时间偏差影响直播延迟
+                .append("  <UTCTiming schemeIdUri=\"urn:mpeg:dash:utc:direct:2014\" value=\"")
+                .append(isoTime(System.currentTimeMillis())).append("\"/>\n")
+                .append("</MPD>\n");
+        return sb.toString();
+    }
+
+    private void writeResponse(OutputStream out, int code, String contentType, byte[] body,
+                               boolean head, boolean stall) throws IOException {
+        String header = "HTTP/1.1 " + code + " " + reason(code) + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Cache-Control: no-cache\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(header.getBytes(StandardCharsets.ISO_8859_1));
+        if (head) {
+            out.flush();
+            return;
+        }
+
+        int throttleKbps = config.getThrottleKbps();
+        int half = body.length / 2;
+        int offset = 0;
+        while (offset < body.length) {
+            if (stall && offset >= half) {
+                Log.d(TAG, "注入卡顿：" + config.getStallDurationMs() + "ms");
+                sleepQuietly(config.getStallDurationMs());
+                stall = false;
+            }
+            int length = Math.min(THROTTLE_CHUNK_BYTES, body.length - offset);
+            if (stall && offset < half) {
+                length = Math.min(length, half - offset);
+            }
+            acquireLink(length);
+            out.write(body, offset, length);
+            offset += length;
+            if (throttleKbps > 0) {
+                out.flush();
+                sleepQuietly(length * 8L / throttleKbps);
+            }
+        }
+        out.flush();
+    }
+
+    // 共享链路限速：按块预约发送时间，所有连接分享 linkKbps 的带宽
+    private void acquireLink(int bytes) {
+        int linkKbps = config.getLinkKbps();
+        if (linkKbps <= 0) return;
+        long waitNs;
+        synchronized (linkLock) {
+            long now = System.nanoTime();
+            long start = Math.max(now, linkNextFreeNs);
+            linkNextFreeNs = start + bytes * 8L * 1_000_000L / linkKbps;
+            waitNs = linkNextFreeNs - now;
+        }
+        sleepQuietly(waitNs / 1_000_000L);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') break;
+            if (b != '\r') line.write(b);
+        }
+        if (b == -1 && line.size() == 0) return null;
+        return line.toString("ISO-8859-1");
+    }
+
+    private static String reason(int code) {
+        switch (code) {
+            case 200:
+                return "OK";
+            case 404:
+                return "Not Found";
+            case 503:
+                return "Service Unavailable";
+            default:
+                return "Unknown";
+        }
+    }
+
+    private static String isoTime(long wallMs) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(wallMs));
+    }
+
+    private static String isoDuration(long ms) {
+        return String.format(Locale.US, "PT%d.%03dS", ms / 1000, ms % 1000);
+    }
+
+    private static void sleepQuietly(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.bytedance.tictok_live.constant;
 
+import com.bytedance.tictok_live.BuildConfig;
+
 /**
  * 直播业务常量（统一管理）
  */
@@ -22,5 +24,22 @@ public class BusinessConstant {
     // 初始在线人数
     public static final Integer ONLINE_COUNT_INIT_VALUE = 100;
 
+    // 临时切后台时是否保留直播声音（关闭视频轨道，只解码音频）
+    // 默认关闭：后台播放需要前台服务 + MediaSession 提供通知栏控制，接入前不开启
+    public static final boolean BACKGROUND_AUDIO_ENABLED = false;
+
+    // 是否开启主线程卡顿检测（占用主 Looper 消息日志，每条消息多一次字符串拼接，仅调试包开启）
+    public static final boolean STALL_DETECTOR_ENABLED = BuildConfig.DEBUG;
+
+    // 是否采集进程内指标（关闭时记录为空操作，仅调试包开启），以及快照导出间隔（仅前台导出）
+    public static final boolean METRICS_ENABLED = BuildConfig.DEBUG;
+    public static final long METRICS_EXPORT_INTERVAL_MS = 10_000;
+
+    // 是否允许长按主播头像打开性能浮层（仅调试包）
+    public static final boolean PERF_HUD_ENABLED = BuildConfig.DEBUG;
+
+    // 是否开启打点追踪（编译期常量，关闭时追踪调用全部为空操作）
+    public static final boolean TRACE_ENABLED = false;
+
 
 }
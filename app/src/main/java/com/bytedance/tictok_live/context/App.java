@@ -1,7 +1,17 @@
 package com.bytedance.tictok_live.context;
 
+import android.app.Activity;
 import android.app.Application;
 import android.content.Context;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bytedance.tictok_live.constant.BusinessConstant;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
+import com.bytedance.tictok_live.utils.monitor.MainThreadStallDetector;
+import com.bytedance.tictok_live.utils.startup.AppInitializer;
 
 /**
  * 提供全局唯一的应用上下文
@@ -14,6 +24,53 @@ public class App extends Application {
     public void onCreate() {
         super.onCreate();
         appContext = this;
+        MetricsRegistry.setEnabled(BusinessConstant.METRICS_ENABLED);
+        if (BusinessConstant.METRICS_ENABLED) {
+            exportMetricsInForeground();
+        }
+        // 网络、WebSocket、Glide、播放器等单例在后台按顺序初始化，使用方通过延迟句柄获取
+        AppInitializer.getInstance().start(this);
+        if (BusinessConstant.STALL_DETECTOR_ENABLED) {
+            MainThreadStallDetector.getInstance().start(this);
+        }
+    }
+
+    /**
+     * 有页面可见时定期导出指标，全部页面不可见（切后台）时停止导出
+     */
+    private void exportMetricsInForeground() {
+        registerActivityLifecycleCallbacks(new ActivityLifecycleCallbacks() {
+            private int startedCount = 0;
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+                if (startedCount++ == 0) {
+                    MetricsRegistry.getInstance().startExport(App.this, BusinessConstant.METRICS_EXPORT_INTERVAL_MS);
+                }
+            }
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {
+                if (--startedCount == 0) {
+                    MetricsRegistry.getInstance().stopExport();
+                }
+            }
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {}
+        });
     }
 
     public static Context getAppContext() {
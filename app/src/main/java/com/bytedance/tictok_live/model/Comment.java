@@ -1,5 +1,7 @@
 package com.bytedance.tictok_live.model;
 
+import java.util.Objects;
+
 /**
  * 评论实体类
  */
@@ -60,6 +62,23 @@ public class Comment {
         this.id = id;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Comment that = (Comment) o;
+        return Objects.equals(createdAt, that.createdAt)
+                && Objects.equals(name, that.name)
+                && Objects.equals(avatar, that.avatar)
+                && Objects.equals(comment, that.comment)
+                && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, name, avatar, comment, id);
+    }
+
     @Override
     public String toString() {
         return "Comment{" +
@@ -1,5 +1,7 @@
 package com.bytedance.tictok_live.model;
 
+import java.util.Objects;
+
 /**
  * 主播信息
  */
@@ -70,6 +72,24 @@ public class HostInfo {
         this.id = id;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HostInfo that = (HostInfo) o;
+        return Objects.equals(createdAt, that.createdAt)
+                && Objects.equals(name, that.name)
+                && Objects.equals(avatar, that.avatar)
+                && Objects.equals(roomName, that.roomName)
+                && followerNum == that.followerNum
+                && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, name, avatar, roomName, followerNum, id);
+    }
+
     @Override
     public String toString() {
         return "HostInfo{" +
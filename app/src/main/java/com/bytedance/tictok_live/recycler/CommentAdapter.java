@@ -5,13 +5,18 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bytedance.tictok_live.R;
 import com.bytedance.tictok_live.model.Comment;
+import com.bytedance.tictok_live.utils.metrics.Counter;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
+import com.bytedance.tictok_live.utils.trace.Tracer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * 评论适配器，解析公屏评论信息
@@ -19,6 +24,9 @@ import java.util.List;
 public class CommentAdapter extends RecyclerView.Adapter<CommentViewHolder> {
     public static final String TAG = "CommentAdapter";
 
+    // 指标：绑定（渲染）的评论条数
+    private static final Counter RENDERED_METRIC = MetricsRegistry.getInstance().counter("comment.rendered");
+
     private List<Comment> commentList;
 
     // 构造方法：接收数据集
@@ -33,7 +41,9 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentViewHolder> {
     @NonNull
     @Override
     public CommentViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        Tracer.begin("adapter.createViewHolder");
         View itemRootView = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_comment,parent,false);
+        Tracer.end();
         //创建返回的ViewHolder
         return new CommentViewHolder(itemRootView);
     }
@@ -43,8 +53,11 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentViewHolder> {
      */
     @Override
     public void onBindViewHolder(@NonNull CommentViewHolder holder, int position) {
+        Tracer.begin("adapter.bindViewHolder");
         Comment comment = commentList.get(position);
         holder.bindData(comment);
+        RENDERED_METRIC.inc();
+        Tracer.end();
     }
 
     /**
@@ -60,8 +73,10 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentViewHolder> {
      * @param newComment 新评论
      */
     public void addComment(Comment newComment) {
+        Tracer.begin("adapter.addComment");
         commentList.add(newComment);
         notifyItemInserted(commentList.size() - 1);
+        Tracer.end();
     }
 
 
@@ -74,7 +89,50 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentViewHolder> {
         if (comments == null) {
             commentList = new ArrayList<>();
         }
+        Tracer.begin("adapter.setData");
         commentList.addAll(comments);
         notifyDataSetChanged();
+        Tracer.end();
+    }
+
+    /**
+     * 按差异更新评论（快照内容被网络数据覆盖时，只刷新变化的条目，避免整屏闪烁）
+     * @param comments 最新评论列表
+     */
+    public void submitDiff(List<Comment> comments) {
+        Tracer.begin("adapter.submitDiff");
+        List<Comment> oldList = commentList;
+        List<Comment> newList = comments == null ? new ArrayList<>() : new ArrayList<>(comments);
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return Objects.equals(oldList.get(oldItemPosition).getId(), newList.get(newItemPosition).getId());
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldList.get(oldItemPosition).equals(newList.get(newItemPosition));
+            }
+        }, false);
+        commentList = newList;
+        result.dispatchUpdatesTo(this);
+        Tracer.end();
+    }
+
+    /**
+     * 当前最后一条评论是否与给定评论相同（判断新列表是否只是在末尾追加）
+     */
+    public boolean isLastComment(Comment comment) {
+        return !commentList.isEmpty() && commentList.get(commentList.size() - 1).equals(comment);
     }
 }
@@ -1,50 +1,174 @@
 package com.bytedance.tictok_live.repository;
 
+import android.text.TextUtils;
+import android.util.Log;
 
 import com.bytedance.tictok_live.constant.BusinessConstant;
 import com.bytedance.tictok_live.model.Comment;
 import com.bytedance.tictok_live.model.HostInfo;
 import com.bytedance.tictok_live.utils.retrofit.HostApiService;
-import com.bytedance.tictok_live.utils.retrofit.RetrofitClient;
+import com.bytedance.tictok_live.utils.retrofit.HttpCacheConfig;
+import com.bytedance.tictok_live.utils.startup.AppInitializer;
 import com.bytedance.tictok_live.utils.websocket.WebSocketManager;
 
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import retrofit2.Call;
 import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
 
 /**
  * 直播数据仓库
  */
 public class LiveRepository {
-    // 网络、WebSocket实例
-    private HostApiService hostApiService;
+    private static final String TAG = "LiveRepository";
+
+    // 请求合并：所有仓库实例共享（预加载与页面各自持有仓库实例）
+    private static final long SINGLE_FLIGHT_MEMOIZE_MS = 3000;
+    private static final SingleFlight SINGLE_FLIGHT = new SingleFlight(SINGLE_FLIGHT_MEMOIZE_MS);
+    private static final String KEY_HOST_INFO = "GET hosts/5";
+    private static final String KEY_COMMENTS = "GET comments";
+
+    // 网络、WebSocket实例（Retrofit 由应用初始化在后台创建，首次请求时再取）
+    private volatile HostApiService hostApiService;
     private WebSocketManager webSocketManager;
 
 
     // 初始化
     public LiveRepository(){
-        hostApiService = RetrofitClient.createApi(HostApiService.class);
         initWebSocket();
     }
 
     private void initWebSocket() {
-        webSocketManager = WebSocketManager.getInstance();
+        // 首次连接由应用初始化的 websocket 任务发起（get() 返回时已在连接中，这里的调用直接跳过），
+        // 这里只负责断开后重新进房时再次连接
+        webSocketManager = AppInitializer.getInstance().getWebSocket().get();
         webSocketManager.connect();
     }
 
-    // 获取主播信息
+    private HostApiService api() {
+        if (hostApiService == null) {
+            hostApiService = AppInitializer.getInstance().getRetrofit().get().create(HostApiService.class);
+        }
+        return hostApiService;
+    }
+
+    // 过滤空或过长评论（页面与预加载共用）
+    public static ArrayList<Comment> filterValidComments(List<Comment> comments) {
+        ArrayList<Comment> validComments = new ArrayList<>();
+        for (Comment comment : comments) {
+            if (!TextUtils.isEmpty(comment.getComment()) && comment.getComment().length() <= BusinessConstant.COMMENT_MAX_LENGTH) {
+                validComments.add(comment);
+            }
+        }
+        return validComments;
+    }
+
+    // 获取主播信息（并发请求合并）
     public void getHostInfo(Callback<HostInfo> callback){
-        hostApiService.getHostInfo().enqueue(callback);
+        SINGLE_FLIGHT.execute(KEY_HOST_INFO, api()::getHostInfo, callback);
     }
 
-    // 获取公屏评论
+    // 获取公屏评论（并发请求合并）
     public void getInitComments(Callback<List<Comment>> callback){
-        hostApiService.getComments().enqueue(callback);
+        SINGLE_FLIGHT.execute(KEY_COMMENTS, api()::getComments, callback);
+    }
+
+    // 获取主播信息（先读缓存，后台校验，仅数据变化时再次回调）
+    public void getHostInfoCacheFirst(CacheFirstCallback<HostInfo> callback){
+        int maxStale = HttpCacheConfig.getHostInfoMaxStaleSeconds();
+        loadCacheFirst(
+                api().getHostInfo(HttpCacheConfig.onlyIfCached(maxStale)),
+                KEY_HOST_INFO,
+                api()::getHostInfo,
+                callback
+        );
+    }
+
+    // 获取公屏评论（先读缓存，后台校验，仅数据变化时再次回调）
+    public void getInitCommentsCacheFirst(CacheFirstCallback<List<Comment>> callback){
+        int maxStale = HttpCacheConfig.getCommentsMaxStaleSeconds();
+        loadCacheFirst(
+                api().getComments(HttpCacheConfig.onlyIfCached(maxStale)),
+                KEY_COMMENTS,
+                api()::getComments,
+                callback
+        );
+    }
+
+    /**
+     * 先缓存后网络：缓存与网络请求并发发起
+     *  1. 缓存命中且网络尚未返回：立即回调缓存数据
+     *  2. 网络返回 304 或数据与已回调的一致：不再回调
+     *  3. 网络数据有变化：回调新数据
+     *  4. 网络失败（或非 2xx）：回调 onError，之后返回的缓存仍会回调（离线时展示缓存）
+     * 网络请求经过请求合并，与预加载等并发调用共用同一次请求（不依赖实例状态，包内可见供单元测试调用）
+     */
+    static <T> void loadCacheFirst(Call<T> cacheCall, String networkKey,
+                                   SingleFlight.CallFactory<T> networkFactory, CacheFirstCallback<T> callback) {
+        // 已回调给调用方的数据
+        AtomicReference<T> delivered = new AtomicReference<>();
+        // 网络已成功返回数据（之后到达的缓存已过时，不再回调）
+        AtomicBoolean networkDone = new AtomicBoolean(false);
+
+        cacheCall.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                T body = response.body();
+                // 缓存缺失时 OkHttp 返回 504
+                if (networkDone.get() || !response.isSuccessful() || body == null) {
+                    return;
+                }
+                if (delivered.compareAndSet(null, body)) {
+                    Log.d(TAG, "命中缓存：" + call.request().url());
+                    callback.onData(body, true);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                Log.w(TAG, "读取缓存失败：" + call.request().url(), t);
+            }
+        });
+
+        SINGLE_FLIGHT.execute(networkKey, networkFactory, new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                T body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    callback.onError(new HttpException(response));
+                    return;
+                }
+                networkDone.set(true);
+
+                okhttp3.Response networkResponse = response.raw().networkResponse();
+                boolean notModified = networkResponse != null
+                        && networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED;
+                T previous = delivered.getAndSet(body);
+                if (previous != null && (notModified || previous.equals(body))) {
+                    Log.d(TAG, "数据未变化，跳过回调：" + call.request().url());
+                    return;
+                }
+                callback.onData(body, false);
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                callback.onError(t);
+            }
+        });
     }
 
     // 发送评论
     public void sendComment(String content, Callback<Comment> callback){
-        hostApiService.sendComment(content).enqueue(callback);
+        // 评论列表即将变化，丢弃短期缓存的评论结果
+        SINGLE_FLIGHT.invalidate(KEY_COMMENTS);
+        api().sendComment(content).enqueue(callback);
     }
 
     // Websocket 消息监听
@@ -85,9 +209,26 @@ public class LiveRepository {
     }
 
     /**
-     * 释放 WebSocket 连接
+     * 离开直播间：断开 WebSocket 并移除监听（单例保留给下次进房，不能 release）
      */
     public void releaseWebSocket(){
-        webSocketManager.release();
+        webSocketManager.leaveRoom();
+    }
+
+    /**
+     * 先缓存后网络的回调
+     */
+    public interface CacheFirstCallback<T> {
+        /**
+         * 数据回调（缓存命中、或网络数据有变化时触发）
+         * @param data 数据
+         * @param fromCache 是否来自缓存
+         */
+        void onData(T data, boolean fromCache);
+
+        /**
+         * 网络请求失败（之后仍可能收到缓存数据的 onData）
+         */
+        void onError(Throwable t);
     }
 }
@@ -0,0 +1,150 @@
+package com.bytedance.tictok_live.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * 请求合并（single-flight）
+ *
+ * 同一个 key 的并发请求只发起一次网络调用，后续调用方挂在同一个 in-flight Call 上一起回调；
+ * 成功结果短暂缓存，迟到的调用方直接复用，避免预加载和页面重复请求同一接口
+ */
+public class SingleFlight {
+    private static final String TAG = "SingleFlight";
+
+    // 主线程 Handler：缓存命中时与 Retrofit 一样在主线程回调
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // 成功结果的缓存时长
+    private final long memoizeMs;
+
+    // 进行中的请求、已完成的短期缓存（均由 this 加锁保护）
+    private final Map<String, Flight<?>> inFlight = new HashMap<>();
+    private final Map<String, Memo<?>> memos = new HashMap<>();
+
+    public SingleFlight(long memoizeMs) {
+        this.memoizeMs = memoizeMs;
+    }
+
+    /**
+     * 执行请求（相同 key 合并）
+     * @param key 接口 + 参数唯一标识
+     * @param factory 真正需要发起请求时才创建 Call
+     * @param callback 回调
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void execute(String key, CallFactory<T> factory, Callback<T> callback) {
+        Memo<T> memo = null;
+        Flight<T> flight = null;
+        boolean isLeader = false;
+
+        synchronized (this) {
+            Memo<?> cached = memos.get(key);
+            if (cached != null && SystemClock.elapsedRealtime() - cached.timestamp <= memoizeMs) {
+                memo = (Memo<T>) cached;
+            } else {
+                memos.remove(key);
+                flight = (Flight<T>) inFlight.get(key);
+                if (flight == null) {
+                    flight = new Flight<>(factory.create());
+                    inFlight.put(key, flight);
+                    isLeader = true;
+                }
+                flight.callbacks.add(callback);
+            }
+        }
+
+        // 1. 命中短期缓存
+        if (memo != null) {
+            Log.d(TAG, "复用刚完成的请求结果：" + key);
+            final Memo<T> hit = memo;
+            mainHandler.post(() -> callback.onResponse(hit.call, hit.response));
+            return;
+        }
+
+        // 2. 挂到进行中的请求上
+        if (!isLeader) {
+            Log.d(TAG, "合并进行中的请求：" + key);
+            return;
+        }
+
+        // 3. 首个调用方发起请求
+        final Flight<T> leader = flight;
+        leader.call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                List<Callback<T>> callbacks;
+                synchronized (SingleFlight.this) {
+                    inFlight.remove(key);
+                    if (response.isSuccessful()) {
+                        memos.put(key, new Memo<>(call, response, SystemClock.elapsedRealtime()));
+                    }
+                    callbacks = new ArrayList<>(leader.callbacks);
+                }
+                for (Callback<T> cb : callbacks) {
+                    cb.onResponse(call, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                List<Callback<T>> callbacks;
+                synchronized (SingleFlight.this) {
+                    inFlight.remove(key);
+                    callbacks = new ArrayList<>(leader.callbacks);
+                }
+                for (Callback<T> cb : callbacks) {
+                    cb.onFailure(call, t);
+                }
+            }
+        });
+    }
+
+    /**
+     * 使某个 key 的短期缓存失效（如数据已被修改）
+     */
+    public synchronized void invalidate(String key) {
+        memos.remove(key);
+    }
+
+    /**
+     * 延迟创建 Call
+     */
+    public interface CallFactory<T> {
+        Call<T> create();
+    }
+
+    // 进行中的请求及挂在其上的回调
+    private static class Flight<T> {
+        final Call<T> call;
+        final List<Callback<T>> callbacks = new ArrayList<>();
+
+        Flight(Call<T> call) {
+            this.call = call;
+        }
+    }
+
+    // 已完成请求的短期缓存
+    private static class Memo<T> {
+        final Call<T> call;
+        final Response<T> response;
+        final long timestamp;
+
+        Memo(Call<T> call, Response<T> response, long timestamp) {
+            this.call = call;
+            this.response = response;
+            this.timestamp = timestamp;
+        }
+    }
+}
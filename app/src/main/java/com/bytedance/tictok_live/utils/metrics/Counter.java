@@ -0,0 +1,45 @@
+package com.bytedance.tictok_live.utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 计数器（分段累加，无锁；关闭时记录为空操作）
+ *
+ * 多线程高频累加时按线程分散到不同槽位，减少 CAS 冲突，读取时求和
+ */
+public class Counter {
+    // 槽位数（2 的幂），槽位间隔 8 个 long 避免伪共享
+    private static final int STRIPES = 8;
+    private static final int PADDING = 8;
+
+    public final String name;
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public void inc() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        if (!MetricsRegistry.enabled) return;
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        cells.addAndGet(stripe * PADDING, delta);
+    }
+
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            cells.set(i * PADDING, 0);
+        }
+    }
+}
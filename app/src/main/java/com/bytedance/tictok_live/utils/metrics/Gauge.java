@@ -0,0 +1,47 @@
+package com.bytedance.tictok_live.utils.metrics;
+
+/**
+ * 瞬时值：主动写入（{@link #set}），或注册读取函数在快照时拉取（{@link MetricsRegistry#gauge(String, Source)}）
+ */
+public class Gauge {
+
+    /**
+     * 快照时读取当前值（在导出线程调用，需线程安全）
+     */
+    public interface Source {
+        long read();
+    }
+
+    public final String name;
+    private volatile long value;
+    private volatile Source source;
+
+    Gauge(String name) {
+        this.name = name;
+    }
+
+    public void set(long value) {
+        if (!MetricsRegistry.enabled) return;
+        this.value = value;
+    }
+
+    void setSource(Source source) {
+        this.source = source;
+    }
+
+    public long get() {
+        Source current = source;
+        if (current != null) {
+            try {
+                return current.read();
+            } catch (RuntimeException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    void reset() {
+        value = 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bytedance.tictok_live.utils.metrics;
+
+import android.os.SystemClock;
+
+import com.bytedance.tictok_live.utils.network.LatencyHistogram;
+
+/**
+ * 耗时统计（基于无锁直方图，记录时无分配；关闭时记录为空操作）
+ */
+public class MetricTimer {
+    public final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    MetricTimer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 记录一次耗时（ms）
+     */
+    public void record(long durationMs) {
+        if (!MetricsRegistry.enabled) return;
+        histogram.record(durationMs);
+    }
+
+    /**
+     * 记录从 startMs（SystemClock.elapsedRealtime）到现在的耗时
+     */
+    public void recordSince(long startMs) {
+        if (!MetricsRegistry.enabled || startMs < 0) return;
+        histogram.record(SystemClock.elapsedRealtime() - startMs);
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+}
@@ -0,0 +1,197 @@
+package com.bytedance.tictok_live.utils.metrics;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.bytedance.tictok_live.utils.network.LatencyHistogram;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内指标注册中心（单例）：计数器、瞬时值、耗时直方图
+ *
+ *  1. 各模块按名称获取指标（同名返回同一实例），建议保存为字段，避免记录时查表
+ *  2. 记录均为无锁操作；关闭时只多一次 volatile 读
+ *  3. 定期把快照追加到本地文件（一行一个快照，超过上限轮转为 .1）
+ *
+ * 指标名约定：模块.指标，如 player.ttff、ws.reconnect、ui.jank
+ */
+public class MetricsRegistry {
+    private static final String TAG = "MetricsRegistry";
+
+    // 导出文件：超过上限后轮转为 .1
+    private static final String EXPORT_FILE_NAME = "metrics.log";
+    private static final long MAX_EXPORT_BYTES = 256 * 1024;
+
+    // 总开关（各指标记录时直接读取）
+    static volatile boolean enabled = true;
+
+    private static volatile MetricsRegistry instance;
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MetricTimer> timers = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService exportExecutor;
+    private ScheduledFuture<?> exportTask;
+    private File exportFile;
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance() {
+        if (instance == null) {
+            synchronized (MetricsRegistry.class) {
+                if (instance == null) {
+                    instance = new MetricsRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = new Counter(name);
+            Counter existing = counters.putIfAbsent(name, counter);
+            if (existing != null) counter = existing;
+        }
+        return counter;
+    }
+
+    public Gauge gauge(String name) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            gauge = new Gauge(name);
+            Gauge existing = gauges.putIfAbsent(name, gauge);
+            if (existing != null) gauge = existing;
+        }
+        return gauge;
+    }
+
+    /**
+     * 注册拉取式瞬时值（同名覆盖读取函数；传 null 取消拉取，保留最后写入的值）
+     */
+    public Gauge gauge(String name, Gauge.Source source) {
+        Gauge gauge = gauge(name);
+        gauge.setSource(source);
+        return gauge;
+    }
+
+    public MetricTimer timer(String name) {
+        MetricTimer timer = timers.get(name);
+        if (timer == null) {
+            timer = new MetricTimer(name);
+            MetricTimer existing = timers.putIfAbsent(name, timer);
+            if (existing != null) timer = existing;
+        }
+        return timer;
+    }
+
+    /**
+     * 清空全部指标数值（指标实例保留）
+     */
+    public void reset() {
+        for (Counter counter : counters.values()) counter.reset();
+        for (Gauge gauge : gauges.values()) gauge.reset();
+        for (MetricTimer timer : timers.values()) timer.reset();
+    }
+
+    /**
+     * 生成一行紧凑快照：
+     * 时间戳 c:名称=值 ... g:名称=值 ... t:名称=次数/p50/p90/p99/max ...（耗时单位 ms，按名称排序）
+     */
+    public String snapshotLine() {
+        StringBuilder sb = new StringBuilder(256).append(System.currentTimeMillis());
+        for (String name : sortedKeys(counters.keySet())) {
+            sb.append(" c:").append(name).append('=').append(counters.get(name).get());
+        }
+        for (String name : sortedKeys(gauges.keySet())) {
+            sb.append(" g:").append(name).append('=').append(gauges.get(name).get());
+        }
+        for (String name : sortedKeys(timers.keySet())) {
+            LatencyHistogram histogram = timers.get(name).getHistogram();
+            if (histogram.getCount() == 0) continue;
+            sb.append(" t:").append(name).append('=')
+                    .append(histogram.getCount()).append('/')
+                    .append(histogram.getPercentileMs(50)).append('/')
+                    .append(histogram.getPercentileMs(90)).append('/')
+                    .append(histogram.getPercentileMs(99)).append('/')
+                    .append(histogram.getMaxMs());
+        }
+        return sb.toString();
+    }
+
+    private static List<String> sortedKeys(Set<String> keys) {
+        List<String> list = new ArrayList<>(keys);
+        Collections.sort(list);
+        return list;
+    }
+
+    /**
+     * 开始定期导出快照到 files/metrics.log（重复调用只保留最新的间隔）
+     */
+    public synchronized void startExport(Context context, long intervalMs) {
+        exportFile = new File(context.getApplicationContext().getFilesDir(), EXPORT_FILE_NAME);
+        if (exportExecutor == null) {
+            exportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "MetricsExport"));
+        }
+        if (exportTask != null) {
+            exportTask.cancel(false);
+        }
+        exportTask = exportExecutor.scheduleWithFixedDelay(this::exportOnce, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        Log.d(TAG, "指标定期导出已开启，间隔：" + intervalMs + "ms");
+    }
+
+    /**
+     * 停止定期导出（立即补写一次）
+     */
+    public synchronized void stopExport() {
+        if (exportTask == null) return;
+        exportTask.cancel(false);
+        exportTask = null;
+        exportExecutor.execute(this::exportOnce);
+    }
+
+    // 导出线程：追加一行快照
+    private void exportOnce() {
+        File file = exportFile;
+        if (file == null || !enabled) return;
+        try {
+            if (file.length() > MAX_EXPORT_BYTES) {
+                File rotated = new File(file.getPath() + ".1");
+                if (rotated.exists() && !rotated.delete()) {
+                    Log.w(TAG, "删除旧指标文件失败");
+                }
+                if (!file.renameTo(rotated)) {
+                    Log.w(TAG, "指标文件轮转失败");
+                }
+            }
+            try (FileWriter writer = new FileWriter(file, true)) {
+                writer.write(snapshotLine());
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "指标导出失败", e);
+        }
+    }
+}
@@ -5,6 +5,14 @@ import android.os.Looper;
 import android.util.Log;
 import android.view.Choreographer;
 
+import androidx.annotation.MainThread;
+
+import com.bytedance.tictok_live.utils.metrics.Counter;
+import com.bytedance.tictok_live.utils.metrics.Gauge;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -14,11 +22,25 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 原理：
  *  1. Choreographer 每渲染一帧会回调 doFrame(long frameTimeNanos)
  *  2. 通过计算两次 frameTimeNanos 的间隔得到帧率（FPS）
- *  3. 如果两帧间隔大于阈值，视为丢帧
+ *  3. 帧间隔按场景记录到固定桶直方图（无分配），通过 {@link #getSnapshot} 查询分位数、卡顿率、最长卡顿
  */
 public class FluencyMonitor {
     public static final String TAG = "LivePlayerMonitor";
 
+    /**
+     * 场景标签：帧数据按当前场景分开统计
+     */
+    public enum Scene {
+        ENTERING,      // 进房（首帧前后）
+        STEADY,        // 稳定观看
+        COMMENT_BURST  // 评论密集刷新
+    }
+
+    // 指标
+    private static final Gauge FPS_METRIC = MetricsRegistry.getInstance().gauge("ui.fps");
+    private static final Counter FRAME_METRIC = MetricsRegistry.getInstance().counter("ui.frame");
+    private static final Counter JANK_METRIC = MetricsRegistry.getInstance().counter("ui.jank");
+
     // 用于在主线程操作 Choreography
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
@@ -31,24 +53,33 @@ public class FluencyMonitor {
     // 当前帧率（近似）
     private final AtomicInteger fps = new AtomicInteger(0);
 
-    // 累计丢帧次数
-    private final AtomicInteger droppedFrames = new AtomicInteger(0);
-
     // 丢帧阈值（默认16.6ms，即60帧/秒的单帧耗时）
     public static final long DROPPED_FRAME_THRESHOLD_NS = 16_666_667L;
 
+    // 刷新周期（按屏幕刷新率设置）、卡顿阈值（1.5 个刷新周期）
+    private long frameIntervalNs = DROPPED_FRAME_THRESHOLD_NS;
+    private long jankThresholdNs = DROPPED_FRAME_THRESHOLD_NS * 3 / 2;
+
+    // 评论密集：1 秒内评论数达到阈值进入，静默一段时间后退出
+    private static final int COMMENT_BURST_THRESHOLD = 5;
+    private static final long COMMENT_BURST_WINDOW_NS = 1_000_000_000L;
+    private static final long COMMENT_BURST_HOLD_NS = 2_000_000_000L;
+    private final long[] recentCommentTimes = new long[COMMENT_BURST_THRESHOLD];
+    private int recentCommentIndex = 0;
+    private long burstUntilNanos = 0;
+
+    // 各场景直方图（按 Scene.ordinal 下标）
+    private final FrameTimeHistogram[] histograms = new FrameTimeHistogram[Scene.values().length];
+    private Scene baseScene = Scene.ENTERING;
+
     // 运行标记
     private boolean running = false;
 
-    // 日志
-    // 日志输出间隔：1秒（转纳秒）
-    private static final long LOG_INTERVAL_NS = 1_000_000_000L;
-    // 上一次输出日志的时间（纳秒）
-    private long lastLogTimeNanos = 0;
-    // 1秒内累计的帧间隔总和（用于计算平均FPS）
-    private long frameIntervalSum = 0;
-    // 1秒内的总帧数
-    private int frameCount = 0;
+    public FluencyMonitor() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new FrameTimeHistogram();
+        }
+    }
 
     /**
      * 开始监控
@@ -65,41 +96,19 @@ public class FluencyMonitor {
                 if (lastFrameTimeNanos != 0) {
                     // 帧间隔
                     long diff = frameTimeNanos - lastFrameTimeNanos;
-                    // 累计帧间隔和帧数
-                    frameIntervalSum += diff;
-                    frameCount++;
 
                     // 计算实时FPS
-                    int currentFps = (int) Math.round(1_000_000_000.0 / diff);
-                    fps.set(currentFps);
-
-                    // 判断是否丢帧并累计
-                    if (diff > DROPPED_FRAME_THRESHOLD_NS) {
-                        droppedFrames.incrementAndGet();
+                    if (diff > 0) {
+                        fps.set((int) Math.round(1_000_000_000.0 / diff));
+                        FPS_METRIC.set(fps.get());
                     }
-
-                    // 检查是否达到1秒输出间隔
-                    long timeSinceLastLog = frameTimeNanos - lastLogTimeNanos;
-                    if (timeSinceLastLog >= LOG_INTERVAL_NS) {
-                        // 计算1秒内的平均FPS（更准确）
-                        int averageFps = frameCount == 0
-                                ? 0
-                                : (int) Math.round((double) frameCount * 1_000_000_000L / frameIntervalSum);
-
-                        // 输出日志
-                        Log.d(TAG,
-                                "1秒统计 -> 平均FPS = " + averageFps
-                                        // + ", 累计丢帧总数 = " + droppedFrames.get()
-                                        + ", 1秒内帧数 = " + frameCount);
-
-                        // 重置统计变量，准备下一个5秒
-                        lastLogTimeNanos = frameTimeNanos;
-                        frameIntervalSum = 0;
-                        frameCount = 0;
+                    FRAME_METRIC.inc();
+                    if (diff > jankThresholdNs) {
+                        JANK_METRIC.inc();
                     }
-                } else {
-                    // 首帧初始化日志时间
-                    lastLogTimeNanos = frameTimeNanos;
+
+                    // 记录到当前场景的直方图
+                    histograms[currentScene(frameTimeNanos).ordinal()].record(diff, frameIntervalNs, jankThresholdNs);
                 }
 
                 // 更新上一帧时间
@@ -117,7 +126,7 @@ public class FluencyMonitor {
     }
 
     /**
-     * 停止监控
+     * 停止监控（已统计的数据保留，再次 start 继续累计）
      */
     public void stop(){
         if (!running) return;
@@ -131,12 +140,94 @@ public class FluencyMonitor {
             }
             frameCallback = null;
         }
+        // 后台期间不算帧间隔
         lastFrameTimeNanos = 0;
-        lastLogTimeNanos = 0;
-        frameIntervalSum = 0;
-        frameCount = 0;
         fps.set(0);
-        droppedFrames.set(0);
+    }
+
+    /**
+     * 按屏幕刷新率设置刷新周期（高刷屏上 16.6ms 的阈值会漏判）
+     */
+    @MainThread
+    public void setRefreshRate(float refreshRate) {
+        if (refreshRate <= 0) return;
+        frameIntervalNs = (long) (1_000_000_000L / refreshRate);
+        jankThresholdNs = frameIntervalNs * 3 / 2;
+    }
+
+    /**
+     * 切换基础场景（进房 / 稳定观看），评论密集场景由 {@link #onCommentsUpdated} 自动判断
+     */
+    @MainThread
+    public void setScene(Scene scene) {
+        if (scene == Scene.COMMENT_BURST) return;
+        baseScene = scene;
+    }
+
+    /**
+     * 评论列表刷新时调用（每条新评论一次），短时间内密集刷新进入评论密集场景
+     */
+    @MainThread
+    public void onCommentsUpdated() {
+        long now = System.nanoTime();
+        // 环形记录最近 N 条的时间，最早一条仍在窗口内即为密集
+        long oldest = recentCommentTimes[recentCommentIndex];
+        recentCommentTimes[recentCommentIndex] = now;
+        recentCommentIndex = (recentCommentIndex + 1) % COMMENT_BURST_THRESHOLD;
+        if (oldest != 0 && now - oldest <= COMMENT_BURST_WINDOW_NS) {
+            burstUntilNanos = now + COMMENT_BURST_HOLD_NS;
+        }
+    }
+
+    // frameTimeNanos 与 System.nanoTime 同一时基
+    private Scene currentScene(long frameTimeNanos) {
+        return frameTimeNanos < burstUntilNanos ? Scene.COMMENT_BURST : baseScene;
+    }
+
+    /**
+     * 某场景的统计快照
+     */
+    @MainThread
+    public FrameStats getSnapshot(Scene scene) {
+        return new FrameStats(scene, histograms[scene.ordinal()]);
+    }
+
+    /**
+     * 全部场景汇总快照
+     */
+    @MainThread
+    public FrameStats getOverallSnapshot() {
+        FrameTimeHistogram merged = new FrameTimeHistogram();
+        for (FrameTimeHistogram histogram : histograms) {
+            histogram.addTo(merged);
+        }
+        return new FrameStats(null, merged);
+    }
+
+    /**
+     * 各场景快照（有数据的）
+     */
+    @MainThread
+    public List<FrameStats> getSceneSnapshots() {
+        List<FrameStats> result = new ArrayList<>();
+        for (Scene scene : Scene.values()) {
+            if (histograms[scene.ordinal()].getFrameCount() > 0) {
+                result.add(getSnapshot(scene));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 输出一次统计汇总日志（替代逐秒日志，在页面退到后台等时机调用）
+     */
+    @MainThread
+    public void dumpStats() {
+        StringBuilder sb = new StringBuilder("帧耗时统计：").append(getOverallSnapshot());
+        for (FrameStats stats : getSceneSnapshots()) {
+            sb.append("\n  ").append(stats);
+        }
+        Log.d(TAG, sb.toString());
     }
 
     /**
@@ -147,10 +238,13 @@ public class FluencyMonitor {
     }
 
     /**
-     * 重置丢帧计数器
+     * 清空全部统计
      */
-    public void resetDroppedFrames(){
-        droppedFrames.set(0);
+    @MainThread
+    public void reset() {
+        for (FrameTimeHistogram histogram : histograms) {
+            histogram.reset();
+        }
     }
 
-}
\ No newline at end of file
+}
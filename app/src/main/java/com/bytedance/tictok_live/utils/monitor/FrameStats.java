@@ -0,0 +1,49 @@
+package com.bytedance.tictok_live.utils.monitor;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * 帧耗时统计快照（不可变）
+ */
+public class FrameStats {
+    // 场景，汇总快照为 null
+    public final FluencyMonitor.Scene scene;
+    public final long frameCount;
+    // 帧间隔分位数（ms）
+    public final double p50Ms;
+    public final double p90Ms;
+    public final double p99Ms;
+    // 卡顿帧（间隔超过 1.5 个刷新周期）数量、占比
+    public final long jankFrames;
+    public final double jankRatio;
+    // 丢帧数（按刷新周期折算）
+    public final long droppedFrames;
+    // 最长帧间隔（ms）
+    public final double longestFreezeMs;
+    // 平均帧率
+    public final double averageFps;
+
+    FrameStats(FluencyMonitor.Scene scene, FrameTimeHistogram histogram) {
+        this.scene = scene;
+        this.frameCount = histogram.getFrameCount();
+        this.p50Ms = histogram.getPercentileMs(50);
+        this.p90Ms = histogram.getPercentileMs(90);
+        this.p99Ms = histogram.getPercentileMs(99);
+        this.jankFrames = histogram.getJankFrames();
+        this.jankRatio = frameCount == 0 ? 0 : (double) jankFrames / frameCount;
+        this.droppedFrames = histogram.getDroppedFrames();
+        this.longestFreezeMs = histogram.getLongestNs() / 1_000_000.0;
+        this.averageFps = histogram.getSumNs() == 0 ? 0 : frameCount * 1_000_000_000.0 / histogram.getSumNs();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s frames=%d fps=%.1f p50=%.0fms p90=%.0fms p99=%.0fms jank=%d(%.1f%%) dropped=%d longest=%.1fms",
+                scene == null ? "ALL" : scene.name(), frameCount, averageFps, p50Ms, p90Ms, p99Ms,
+                jankFrames, jankRatio * 100, droppedFrames, longestFreezeMs);
+    }
+}
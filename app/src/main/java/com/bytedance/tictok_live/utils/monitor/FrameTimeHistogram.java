@@ -0,0 +1,106 @@
+package com.bytedance.tictok_live.utils.monitor;
+
+/**
+ * 帧间隔直方图（固定桶，记录时无分配；只在主线程记录和读取）
+ *
+ * 桶按 1ms 线性划分：[0,1) [1,2) ... [MAX_MS-1, MAX_MS)，超过 MAX_MS 归入溢出桶，
+ * 分位数取所在桶的上界（溢出桶用实际最长帧间隔）
+ */
+public class FrameTimeHistogram {
+
+    // 线性桶覆盖的范围（ms），更长的帧间隔已是明显卡顿，只需要记录最长值
+    private static final int MAX_MS = 128;
+    private static final long NS_PER_MS = 1_000_000L;
+
+    private final long[] buckets = new long[MAX_MS + 1];
+    private long frameCount;
+    private long sumNs;
+    private long jankFrames;
+    private long droppedFrames;
+    private long longestNs;
+
+    /**
+     * 记录一帧
+     * @param intervalNs 与上一帧的间隔
+     * @param frameIntervalNs 屏幕刷新周期
+     * @param jankThresholdNs 超过该间隔视为卡顿帧
+     */
+    void record(long intervalNs, long frameIntervalNs, long jankThresholdNs) {
+        if (intervalNs <= 0) return;
+        int index = (int) Math.min(intervalNs / NS_PER_MS, MAX_MS);
+        buckets[index]++;
+        frameCount++;
+        sumNs += intervalNs;
+        if (intervalNs > jankThresholdNs) {
+            jankFrames++;
+        }
+        // 间隔跨过的刷新周期数 - 1 即丢掉的帧数（四舍五入吸收 vsync 抖动）
+        long missed = (intervalNs + frameIntervalNs / 2) / frameIntervalNs - 1;
+        if (missed > 0) {
+            droppedFrames += missed;
+        }
+        if (intervalNs > longestNs) {
+            longestNs = intervalNs;
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        frameCount = 0;
+        sumNs = 0;
+        jankFrames = 0;
+        droppedFrames = 0;
+        longestNs = 0;
+    }
+
+    // 合并到另一个直方图（生成汇总快照用）
+    void addTo(FrameTimeHistogram target) {
+        for (int i = 0; i < buckets.length; i++) {
+            target.buckets[i] += buckets[i];
+        }
+        target.frameCount += frameCount;
+        target.sumNs += sumNs;
+        target.jankFrames += jankFrames;
+        target.droppedFrames += droppedFrames;
+        target.longestNs = Math.max(target.longestNs, longestNs);
+    }
+
+    long getFrameCount() {
+        return frameCount;
+    }
+
+    long getJankFrames() {
+        return jankFrames;
+    }
+
+    long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    long getLongestNs() {
+        return longestNs;
+    }
+
+    long getSumNs() {
+        return sumNs;
+    }
+
+    /**
+     * 近似分位数（ms），无数据返回 0
+     */
+    double getPercentileMs(double percentile) {
+        if (frameCount == 0) return 0;
+        long target = (long) Math.ceil(frameCount * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                double longestMs = (double) longestNs / NS_PER_MS;
+                return i == MAX_MS ? longestMs : Math.min(i + 1, longestMs);
+            }
+        }
+        return (double) longestNs / NS_PER_MS;
+    }
+}
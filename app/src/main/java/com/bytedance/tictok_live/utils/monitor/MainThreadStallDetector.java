@@ -0,0 +1,340 @@
+package com.bytedance.tictok_live.utils.monitor;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.Printer;
+
+import androidx.annotation.NonNull;
+
+import com.bytedance.tictok_live.utils.metrics.Counter;
+import com.bytedance.tictok_live.utils.metrics.MetricTimer;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 主线程卡顿检测（单例）
+ *
+ * 原理：
+ *  1. 通过 Looper#setMessageLogging 得到主线程每条消息的开始（">>>>> Dispatching"）和结束（"<<<<< Finished"）
+ *  2. 消息开始时在看门狗线程延迟 threshold 投递采样消息；超时仍未结束则抓取主线程堆栈，之后按间隔继续采样
+ *  3. 消息结束且耗时超过阈值时，按堆栈签名（阻塞点 + 最先出现的业务帧）聚合次数、累计卡顿时长
+ * 结果可在进程内查询（{@link #getStalls()}），也可写入本地文件（{@link #dumpToFileAsync()}）
+ */
+public class MainThreadStallDetector {
+    private static final String TAG = "MainThreadStall";
+
+    // 默认卡顿阈值、连续采样间隔、单次卡顿最多采样数
+    private static final long DEFAULT_THRESHOLD_MS = 100;
+    private static final long SAMPLE_INTERVAL_MS = 50;
+    private static final int MAX_SAMPLES_PER_STALL = 10;
+    // 签名取的业务帧数量、文件中保留的堆栈深度
+    private static final int SIGNATURE_APP_FRAMES = 3;
+    private static final int DUMP_STACK_DEPTH = 30;
+    // 业务代码包名（签名优先定位到业务帧）
+    private static final String APP_PACKAGE = "com.bytedance.tictok_live";
+    private static final String DUMP_FILE_NAME = "main_thread_stalls.txt";
+
+    private static final String DISPATCH_PREFIX = ">>>>> Dispatching";
+    private static final String FINISH_PREFIX = "<<<<< Finished";
+    private static final int MSG_SAMPLE = 1;
+
+    private static volatile MainThreadStallDetector instance;
+
+    // 指标
+    private static final Counter STALL_METRIC = MetricsRegistry.getInstance().counter("main.stall");
+    private static final MetricTimer STALL_DURATION_METRIC = MetricsRegistry.getInstance().timer("main.stall_duration");
+
+    /**
+     * 同一签名的聚合结果
+     */
+    public static class StallRecord {
+        public final String signature;
+        // 首次出现时的消息目标（Handler 类名与回调）
+        public final String messageTarget;
+        // 代表性堆栈（首次出现时的采样）
+        public final StackTraceElement[] sampleStack;
+        private int count;
+        private long totalBlockedMs;
+        private long maxBlockedMs;
+
+        StallRecord(String signature, String messageTarget, StackTraceElement[] sampleStack) {
+            this.signature = signature;
+            this.messageTarget = messageTarget;
+            this.sampleStack = sampleStack;
+        }
+
+        synchronized void add(long blockedMs) {
+            count++;
+            totalBlockedMs += blockedMs;
+            maxBlockedMs = Math.max(maxBlockedMs, blockedMs);
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized long getTotalBlockedMs() {
+            return totalBlockedMs;
+        }
+
+        public synchronized long getMaxBlockedMs() {
+            return maxBlockedMs;
+        }
+
+        @NonNull
+        @Override
+        public synchronized String toString() {
+            return "count=" + count + " total=" + totalBlockedMs + "ms max=" + maxBlockedMs + "ms " + signature;
+        }
+    }
+
+    private final Thread mainThread = Looper.getMainLooper().getThread();
+    private final ConcurrentHashMap<String, StallRecord> records = new ConcurrentHashMap<>();
+
+    private Context appContext;
+    private HandlerThread watchdogThread;
+    private Handler watchdogHandler;
+    private volatile long thresholdMs = DEFAULT_THRESHOLD_MS;
+    private volatile boolean running = false;
+
+    // 当前消息（主线程写；序号用于丢弃过期的采样消息）
+    private volatile int dispatchSeq = 0;
+    private volatile boolean dispatching = false;
+    private long dispatchStartMs;
+    private String dispatchTarget;
+    // 当前消息的堆栈采样及其所属消息序号（看门狗线程写，主线程结束时取走；均在 samples 锁内读写）
+    private final List<StackTraceElement[]> samples = new ArrayList<>();
+    private int samplesSeq = -1;
+
+    private final Printer printer = this::onLooperLog;
+
+    private MainThreadStallDetector() {
+    }
+
+    public static MainThreadStallDetector getInstance() {
+        if (instance == null) {
+            synchronized (MainThreadStallDetector.class) {
+                if (instance == null) {
+                    instance = new MainThreadStallDetector();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 开始检测（需在主线程调用；会占用主 Looper 的消息日志 Printer）
+     */
+    public synchronized void start(Context context) {
+        if (running) return;
+        running = true;
+        appContext = context.getApplicationContext();
+        watchdogThread = new HandlerThread("StallWatchdog");
+        watchdogThread.start();
+        watchdogHandler = new Handler(watchdogThread.getLooper()) {
+            @Override
+            public void handleMessage(@NonNull Message msg) {
+                if (msg.what == MSG_SAMPLE) {
+                    sample(msg.arg1);
+                }
+            }
+        };
+        Looper.getMainLooper().setMessageLogging(printer);
+        Log.d(TAG, "主线程卡顿检测已开启，阈值：" + thresholdMs + "ms");
+    }
+
+    /**
+     * 停止检测（已聚合的结果保留）
+     */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        Looper.getMainLooper().setMessageLogging(null);
+        dispatching = false;
+        watchdogThread.quitSafely();
+        watchdogThread = null;
+        watchdogHandler = null;
+    }
+
+    public void setThresholdMs(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    // 主线程：消息开始 / 结束
+    private void onLooperLog(String line) {
+        Handler handler = watchdogHandler;
+        if (handler == null) return;
+        if (line.startsWith(DISPATCH_PREFIX)) {
+            dispatchSeq++;
+            dispatchStartMs = SystemClock.uptimeMillis();
+            dispatchTarget = line;
+            dispatching = true;
+            handler.sendMessageDelayed(handler.obtainMessage(MSG_SAMPLE, dispatchSeq, 0), thresholdMs);
+        } else if (line.startsWith(FINISH_PREFIX)) {
+            dispatching = false;
+            handler.removeMessages(MSG_SAMPLE);
+            long blockedMs = SystemClock.uptimeMillis() - dispatchStartMs;
+            if (blockedMs < thresholdMs) return;
+
+            List<StackTraceElement[]> stallSamples = new ArrayList<>();
+            synchronized (samples) {
+                if (samplesSeq == dispatchSeq) {
+                    stallSamples.addAll(samples);
+                }
+                samples.clear();
+            }
+            String target = parseTarget(dispatchTarget);
+            handler.post(() -> aggregate(stallSamples, target, blockedMs));
+        }
+    }
+
+    // 看门狗线程：消息仍在执行则采样主线程堆栈
+    private void sample(int seq) {
+        if (!dispatching || seq != dispatchSeq) return;
+        StackTraceElement[] stack = mainThread.getStackTrace();
+        int sampleCount;
+        synchronized (samples) {
+            // 抓栈期间消息可能已结束
+            if (!dispatching || seq != dispatchSeq) return;
+            if (samplesSeq != seq) {
+                samples.clear();
+                samplesSeq = seq;
+            }
+            samples.add(stack);
+            sampleCount = samples.size();
+        }
+        Handler handler = watchdogHandler;
+        if (handler != null && sampleCount < MAX_SAMPLES_PER_STALL) {
+            handler.sendMessageDelayed(handler.obtainMessage(MSG_SAMPLE, seq, 0), SAMPLE_INTERVAL_MS);
+        }
+    }
+
+    // 看门狗线程：取出现次数最多的签名计入聚合
+    private void aggregate(List<StackTraceElement[]> stallSamples, String target, long blockedMs) {
+        String signature = "<未采样到堆栈>";
+        StackTraceElement[] representative = new StackTraceElement[0];
+        if (!stallSamples.isEmpty()) {
+            Map<String, Integer> votes = new HashMap<>();
+            int best = 0;
+            for (StackTraceElement[] stack : stallSamples) {
+                String candidate = signatureOf(stack);
+                Integer previous = votes.get(candidate);
+                int votesNow = previous == null ? 1 : previous + 1;
+                votes.put(candidate, votesNow);
+                if (votesNow > best) {
+                    best = votesNow;
+                    signature = candidate;
+                    representative = stack;
+                }
+            }
+        }
+        StallRecord record = records.get(signature);
+        if (record == null) {
+            record = new StallRecord(signature, target, representative);
+            StallRecord existing = records.putIfAbsent(signature, record);
+            if (existing != null) {
+                record = existing;
+            }
+        }
+        record.add(blockedMs);
+        STALL_METRIC.inc();
+        STALL_DURATION_METRIC.record(blockedMs);
+        Log.w(TAG, "主线程卡顿 " + blockedMs + "ms：" + signature);
+    }
+
+    // 签名：阻塞点（栈顶帧）+ 最先出现的若干业务帧
+    static String signatureOf(StackTraceElement[] stack) {
+        if (stack.length == 0) return "<空堆栈>";
+        StringBuilder sb = new StringBuilder(formatFrame(stack[0]));
+        int appFrames = 0;
+        for (int i = 1; i < stack.length && appFrames < SIGNATURE_APP_FRAMES; i++) {
+            StackTraceElement frame = stack[i];
+            if (frame.getClassName().startsWith(APP_PACKAGE)
+                    && !frame.getClassName().startsWith(MainThreadStallDetector.class.getName())) {
+                sb.append(appFrames == 0 ? " | " : " <- ").append(formatFrame(frame));
+                appFrames++;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String formatFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        return simpleName + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+    }
+
+    // ">>>>> Dispatching to Handler (android.view.Choreographer$FrameHandler) {...} callback: what" -> Handler 类名与回调
+    private static String parseTarget(String line) {
+        if (line == null) return "";
+        int open = line.indexOf('(');
+        int close = line.indexOf(')', open + 1);
+        String handlerClass = open >= 0 && close > open ? line.substring(open + 1, close) : "";
+        int brace = line.indexOf('}', close + 1);
+        String callback = brace >= 0 ? line.substring(brace + 1).trim() : "";
+        return (handlerClass + " " + callback).trim();
+    }
+
+    /**
+     * 聚合结果（按累计卡顿时长降序）
+     */
+    public List<StallRecord> getStalls() {
+        List<StallRecord> result = new ArrayList<>(records.values());
+        Collections.sort(result, (a, b) -> Long.compare(b.getTotalBlockedMs(), a.getTotalBlockedMs()));
+        return result;
+    }
+
+    /**
+     * 清空聚合结果
+     */
+    public void reset() {
+        records.clear();
+    }
+
+    /**
+     * 在看门狗线程把聚合结果写入 files/main_thread_stalls.txt（覆盖）
+     */
+    public void dumpToFileAsync() {
+        Handler handler = watchdogHandler;
+        Context context = appContext;
+        if (handler == null || context == null) return;
+        File file = new File(context.getFilesDir(), DUMP_FILE_NAME);
+        handler.post(() -> dumpToFile(file));
+    }
+
+    private void dumpToFile(File file) {
+        List<StallRecord> stalls = getStalls();
+        try (FileWriter writer = new FileWriter(file, false)) {
+            writer.write("# 主线程卡顿聚合 " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ROOT).format(new Date())
+                    + "，阈值：" + thresholdMs + "ms，签名数：" + stalls.size() + "\n");
+            for (StallRecord record : stalls) {
+                writer.write("\n" + record + "\n");
+                writer.write("  target: " + record.messageTarget + "\n");
+                int depth = Math.min(record.sampleStack.length, DUMP_STACK_DEPTH);
+                for (int i = 0; i < depth; i++) {
+                    writer.write("    at " + record.sampleStack[i] + "\n");
+                }
+            }
+            Log.d(TAG, "卡顿聚合已写入：" + file.getAbsolutePath() + "，签名数：" + stalls.size());
+        } catch (IOException e) {
+            Log.w(TAG, "卡顿聚合写入失败", e);
+        }
+    }
+}
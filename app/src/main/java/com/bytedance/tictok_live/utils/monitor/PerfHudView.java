@@ -0,0 +1,198 @@
+package com.bytedance.tictok_live.utils.monitor;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.SystemClock;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import com.bytedance.tictok_live.utils.metrics.Counter;
+import com.bytedance.tictok_live.utils.metrics.Gauge;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
+
+import java.util.Locale;
+
+/**
+ * 性能浮层（调试用）：帧率 / 卡顿、评论进入与渲染速率、WebSocket 往返时延与发送积压、
+ * 播放缓冲 / 码率 / 直播延迟、堆内存
+ *
+ * 单个自定义 View 直接绘制文本，每 {@link #REFRESH_INTERVAL_MS} 刷新一次，行数固定不触发重新布局；
+ * 数据来自 {@link MetricsRegistry}（指标关闭时相关行为 0）和 {@link FluencyMonitor}
+ */
+public class PerfHudView extends View {
+
+    private static final long REFRESH_INTERVAL_MS = 500;
+    private static final int LINE_COUNT = 6;
+    private static final float TEXT_SIZE_SP = 10;
+    private static final float PADDING_DP = 6;
+    private static final float WIDTH_DP = 210;
+
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint backgroundPaint = new Paint();
+    private final float padding;
+    private final float lineHeight;
+    private final float textBaseline;
+
+    // 数据源
+    private FluencyMonitor fluencyMonitor;
+    private final Counter jankCounter;
+    private final Counter frameCounter;
+    private final Counter ingressCounter;
+    private final Counter renderedCounter;
+    private final Gauge rttGauge;
+    private final Gauge queueGauge;
+    private final Gauge bufferGauge;
+    private final Gauge bitrateGauge;
+    private final Gauge liveOffsetGauge;
+
+    // 上次刷新时的计数（计算速率）
+    private long lastRefreshMs = -1;
+    private long lastJank;
+    private long lastFrames;
+    private long lastIngress;
+    private long lastRendered;
+
+    private final String[] lines = new String[LINE_COUNT];
+    private boolean running = false;
+
+    private final Runnable refreshTask = new Runnable() {
+        @Override
+        public void run() {
+            refresh();
+            if (running) {
+                postDelayed(this, REFRESH_INTERVAL_MS);
+            }
+        }
+    };
+
+    public PerfHudView(Context context) {
+        this(context, null);
+    }
+
+    public PerfHudView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        float scaledDensity = getResources().getDisplayMetrics().scaledDensity;
+        padding = PADDING_DP * density;
+
+        textPaint.setColor(Color.GREEN);
+        textPaint.setTypeface(Typeface.MONOSPACE);
+        textPaint.setTextSize(TEXT_SIZE_SP * scaledDensity);
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        lineHeight = metrics.descent - metrics.ascent;
+        textBaseline = -metrics.ascent;
+        backgroundPaint.setColor(0x99000000);
+
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        jankCounter = registry.counter("ui.jank");
+        frameCounter = registry.counter("ui.frame");
+        ingressCounter = registry.counter("comment.ingress");
+        renderedCounter = registry.counter("comment.rendered");
+        rttGauge = registry.gauge("ws.rtt_ms");
+        queueGauge = registry.gauge("ws.queue_bytes");
+        bufferGauge = registry.gauge("player.buffer_ms");
+        bitrateGauge = registry.gauge("player.video_bitrate");
+        liveOffsetGauge = registry.gauge("player.live_offset_ms");
+
+        for (int i = 0; i < LINE_COUNT; i++) {
+            lines[i] = "";
+        }
+    }
+
+    public void setFluencyMonitor(FluencyMonitor fluencyMonitor) {
+        this.fluencyMonitor = fluencyMonitor;
+    }
+
+    /**
+     * 显示 / 隐藏浮层（隐藏时停止刷新）
+     */
+    public void toggle() {
+        setVisibility(getVisibility() == VISIBLE ? GONE : VISIBLE);
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateRunning();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateRunning();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        running = false;
+        removeCallbacks(refreshTask);
+    }
+
+    private void updateRunning() {
+        boolean shouldRun = isAttachedToWindow() && isShown();
+        if (shouldRun == running) return;
+        running = shouldRun;
+        removeCallbacks(refreshTask);
+        if (running) {
+            lastRefreshMs = -1;
+            post(refreshTask);
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        float density = getResources().getDisplayMetrics().density;
+        int width = (int) (WIDTH_DP * density);
+        int height = (int) (padding * 2 + lineHeight * LINE_COUNT);
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    // 读取数据生成文本（主线程，每次刷新一次）
+    private void refresh() {
+        long now = SystemClock.elapsedRealtime();
+        long jank = jankCounter.get();
+        long frames = frameCounter.get();
+        long ingress = ingressCounter.get();
+        long rendered = renderedCounter.get();
+
+        if (lastRefreshMs > 0) {
+            double seconds = Math.max(1, now - lastRefreshMs) / 1000.0;
+            long frameDelta = frames - lastFrames;
+            double jankPercent = frameDelta == 0 ? 0 : (jank - lastJank) * 100.0 / frameDelta;
+            int fps = fluencyMonitor != null ? fluencyMonitor.getFps() : 0;
+            double longest = fluencyMonitor != null ? fluencyMonitor.getOverallSnapshot().longestFreezeMs : 0;
+            lines[0] = String.format(Locale.ROOT, "FPS %3d  jank %4.1f%%  max %.0fms", fps, jankPercent, longest);
+            lines[1] = String.format(Locale.ROOT, "评论 进入 %.1f/s  渲染 %.1f/s",
+                    (ingress - lastIngress) / seconds, (rendered - lastRendered) / seconds);
+        }
+        lines[2] = String.format(Locale.ROOT, "WS rtt %dms  queue %dB", rttGauge.get(), queueGauge.get());
+        lines[3] = String.format(Locale.ROOT, "缓冲 %dms  码率 %dkbps", bufferGauge.get(), bitrateGauge.get() / 1000);
+        lines[4] = String.format(Locale.ROOT, "直播延迟 %dms", liveOffsetGauge.get());
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+        lines[5] = String.format(Locale.ROOT, "堆 %dMB / %dMB", usedMb, runtime.maxMemory() >> 20);
+
+        lastRefreshMs = now;
+        lastJank = jank;
+        lastFrames = frames;
+        lastIngress = ingress;
+        lastRendered = rendered;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        canvas.drawRect(0, 0, getWidth(), getHeight(), backgroundPaint);
+        float y = padding + textBaseline;
+        for (String line : lines) {
+            canvas.drawText(line, padding, y, textPaint);
+            y += lineHeight;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.bytedance.tictok_live.utils.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 耗时直方图（线程安全、记录时无锁无分配）
+ *
+ * 桶按 2 的幂划分（毫秒）：[0,1) [1,2) [2,4) [4,8) ... [2^(n-2), +∞)，
+ * 分位数取所在桶的上界，精度足够定位“哪个阶段慢”
+ */
+public class LatencyHistogram {
+
+    // 桶数量：最后一个桶上界约 32s，之后全部归入溢出桶
+    private static final int BUCKET_COUNT = 17;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumMs = new AtomicLong();
+    private final AtomicLong maxMs = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     * @param durationMs 耗时（毫秒），负数忽略
+     */
+    public void record(long durationMs) {
+        if (durationMs < 0) return;
+        buckets.incrementAndGet(bucketIndex(durationMs));
+        count.incrementAndGet();
+        sumMs.addAndGet(durationMs);
+
+        // 无锁更新最大值
+        long currentMax;
+        while (durationMs > (currentMax = maxMs.get())) {
+            if (maxMs.compareAndSet(currentMax, durationMs)) break;
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSumMs() {
+        return sumMs.get();
+    }
+
+    public long getMaxMs() {
+        return maxMs.get();
+    }
+
+    public long getMeanMs() {
+        long c = count.get();
+        return c == 0 ? 0 : sumMs.get() / c;
+    }
+
+    /**
+     * 近似分位数
+     * @param percentile 0~100
+     * @return 分位数所在桶的上界（毫秒），无数据返回 0
+     */
+    public long getPercentileMs(double percentile) {
+        long total = count.get();
+        if (total == 0) return 0;
+
+        long target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                // 溢出桶用实际最大值代替上界
+                return i == BUCKET_COUNT - 1 ? maxMs.get() : Math.min(bucketUpperBound(i), maxMs.get());
+            }
+        }
+        return maxMs.get();
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sumMs.set(0);
+        maxMs.set(0);
+    }
+
+    // 耗时 -> 桶下标：0ms 在 0 号桶，其余按最高位定位
+    private static int bucketIndex(long durationMs) {
+        if (durationMs <= 0) return 0;
+        int index = 64 - Long.numberOfLeadingZeros(durationMs);
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    // 桶上界（毫秒）
+    private static long bucketUpperBound(int index) {
+        return 1L << index;
+    }
+}
@@ -0,0 +1,120 @@
+package com.bytedance.tictok_live.utils.network;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * 全局网络核心（单例）
+ * 功能：REST、WebSocket、直播媒体共用同一套 OkHttp 连接池、调度器、DNS，
+ * 同域名连接可复用（HTTP/2 多路复用），并发上限在此统一配置
+ * 注意：WebSocket 升级只能走 HTTP/1.1 且独占连接，不会复用 REST 的 HTTP/2 连接（单独建连、握手一次）
+ */
+public class NetworkCore {
+    public static final String TAG = "NetworkCore";
+
+    // 单例（volatile 保证可见性）
+    private static volatile NetworkCore instance;
+
+    // 调度器并发配置
+    private static final int MAX_REQUESTS = 32;          // 全局最大并发请求数
+    private static final int MAX_REQUESTS_PER_HOST = 6;  // 单域名最大并发请求数（含媒体分片）
+
+    // 连接池配置
+    private static final int MAX_IDLE_CONNECTIONS = 8;        // 最大空闲连接数
+    private static final long KEEP_ALIVE_DURATION_MS = 5 * 60 * 1000; // 空闲连接保活时长（5分钟）
+
+    // 默认超时配置（各业务可通过 newBuilder() 单独覆盖，仍共享连接池）
+    private static final long DEFAULT_TIMEOUT_SECONDS = 10;
+    // 直播媒体超时（弱网下尽快失败，交给播放器重试、降档）
+    private static final long MEDIA_TIMEOUT_MS = 5000;
+
+    // 共享核心对象
+    private final Dispatcher dispatcher;
+    private final ConnectionPool connectionPool;
+    private final OkHttpClient okHttpClient;
+
+    private NetworkCore() {
+        dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_MS, TimeUnit.MILLISECONDS);
+
+        okHttpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)) // 优先 HTTP/2，支持多路复用
+                .eventListenerFactory(NetworkTimingCollector.getInstance()) // 分阶段耗时采集（派生 client 同样生效）
+                .connectTimeout(DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
+
+    // 单例模式(双重检查锁)
+    public static NetworkCore getInstance() {
+        if (instance == null) {
+            synchronized (NetworkCore.class) {
+                if (instance == null) {
+                    instance = new NetworkCore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 获取全局共享的 OkHttpClient
+     * 注意：需要定制（拦截器、超时等）时使用 newBuilder()，派生出的 client 仍共享连接池和调度器；
+     * 需要按优先级限流、缓冲不足时让路的请求用 {@link PriorityCallFactory} 包装
+     */
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    /**
+     * 派生 WebSocket client：关闭 OkHttp 自带重试（由 WebSocketManager 自定义重连），仍共享连接池和调度器
+     */
+    public static OkHttpClient deriveWebSocketClient(OkHttpClient baseClient) {
+        return baseClient.newBuilder()
+                .retryOnConnectionFailure(false)
+                .build();
+    }
+
+    /**
+     * 派生直播媒体 client（manifest、分片）：超时更短，允许跨协议重定向，仍共享连接池，与 REST 同域名时复用同一连接
+     */
+    public static OkHttpClient deriveMediaClient(OkHttpClient baseClient) {
+        return baseClient.newBuilder()
+                .connectTimeout(MEDIA_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(MEDIA_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .followSslRedirects(true) // 允许跨协议重定向
+                .build();
+    }
+
+    /**
+     * 当前连接池中的连接总数
+     */
+    public int getConnectionCount() {
+        return connectionPool.connectionCount();
+    }
+
+    /**
+     * 当前连接池中的空闲连接数
+     */
+    public int getIdleConnectionCount() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    /**
+     * 当前正在执行的请求数
+     */
+    public int getRunningCallsCount() {
+        return dispatcher.runningCallsCount();
+    }
+}
@@ -0,0 +1,208 @@
+package com.bytedance.tictok_live.utils.network;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bytedance.tictok_live.constant.BusinessConstant;
+import com.bytedance.tictok_live.utils.network.NetworkPriorityScheduler.PriorityClass;
+import com.bytedance.tictok_live.utils.websocket.WebSocketManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 连接预热（单例）
+ *
+ * 启动页阶段对 REST、WebSocket、直播 CDN 三个域名发起 HEAD 请求，提前完成 DNS + TCP + TLS，
+ * 连接留在全局连接池中供首个真实请求复用；并统计首个真实请求因复用连接节省的耗时。
+ * 注意：WebSocket 握手不回调 EventListener，其域名只统计预热耗时，不统计节省耗时
+ */
+public class NetworkPreconnector {
+    public static final String TAG = "NetworkPreconnector";
+
+    // 单例（volatile 保证可见性）
+    private static volatile NetworkPreconnector instance;
+
+    // 域名 -> 预热时建连耗时（DNS + TCP + TLS）
+    private final ConcurrentHashMap<String, Long> warmupCostMs = new ConcurrentHashMap<>();
+    // 域名 -> 首个真实请求节省的耗时（未复用为 0）
+    private final ConcurrentHashMap<String, Long> savedMs = new ConcurrentHashMap<>();
+
+    private volatile boolean started = false;
+
+    private NetworkPreconnector() {}
+
+    // 单例模式(双重检查锁)
+    public static NetworkPreconnector getInstance() {
+        if (instance == null) {
+            synchronized (NetworkPreconnector.class) {
+                if (instance == null) {
+                    instance = new NetworkPreconnector();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 预热全部进房域名（异步，不阻塞调用线程）
+     */
+    public void preconnectAll() {
+        if (started) return;
+        started = true;
+
+        // 预热请求显式标注优先级（按域名分类时 WebSocket 域名会被归为图片）
+        preconnect(BusinessConstant.BASE_URL, false, PriorityClass.CRITICAL);
+        preconnect(BusinessConstant.LIVE_DASH_URL, false, PriorityClass.MEDIA);
+        // WebSocket 只能在 HTTP/1.1 连接上升级，按 HTTP/1.1 预热才能被握手复用
+        preconnect(WebSocketManager.WEB_SOCKET_URL, true, PriorityClass.CRITICAL);
+    }
+
+    private void preconnect(String url, boolean http1Only, PriorityClass priority) {
+        HttpUrl httpUrl = HttpUrl.parse(toHttpScheme(url));
+        if (httpUrl == null) {
+            Log.w(TAG, "预热地址非法：" + url);
+            return;
+        }
+        String host = httpUrl.host();
+
+        OkHttpClient.Builder builder = NetworkCore.getInstance().getOkHttpClient().newBuilder()
+                .eventListenerFactory(call -> new WarmupListener(host));
+        if (http1Only) {
+            builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+        }
+
+        Request request = new Request.Builder()
+                .url(httpUrl)
+                .head()
+                .tag(PriorityClass.class, priority)
+                .build();
+
+        final long start = SystemClock.elapsedRealtime();
+        new PriorityCallFactory(builder.build()).newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+                Log.d(TAG, "预热完成：" + host + "，总耗时：" + (SystemClock.elapsedRealtime() - start) + "ms");
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                Log.w(TAG, "预热失败：" + host, e);
+            }
+        });
+    }
+
+    /**
+     * 预热请求拿到连接时记录建连耗时（首个真实请求可能先于预热完成，此时不再记录）
+     */
+    void onWarmupConnected(String host, long setupMs) {
+        if (!savedMs.containsKey(host)) {
+            warmupCostMs.put(host, setupMs);
+            Log.d(TAG, "预热建连完成：" + host + "，DNS+建连耗时：" + setupMs + "ms");
+        }
+    }
+
+    /**
+     * 真实请求结束时回调（由 NetworkTimingCollector 调用，只传入拿到了连接的请求），只统计每个预热域名的首个请求
+     * @param host 域名
+     * @param reusedConnection 是否复用了已有连接
+     */
+    void onRequestFinished(String host, boolean reusedConnection) {
+        Long cost = warmupCostMs.get(host);
+        if (cost == null || savedMs.containsKey(host)) return;
+
+        long saved = reusedConnection ? cost : 0;
+        if (savedMs.putIfAbsent(host, saved) == null) {
+            if (reusedConnection) {
+                Log.d(TAG, "首个请求复用预热连接：" + host + "，节省约 " + saved + "ms");
+            } else {
+                Log.w(TAG, "首个请求未复用预热连接（连接已失效或协议不匹配）：" + host);
+            }
+        }
+    }
+
+    /**
+     * 各域名预热建连耗时（ms）
+     */
+    public Map<String, Long> getWarmupCosts() {
+        return Collections.unmodifiableMap(warmupCostMs);
+    }
+
+    /**
+     * 某域名首个真实请求节省的耗时（ms），尚无数据返回 null
+     */
+    @Nullable
+    public Long getSavedMs(String host) {
+        return savedMs.get(host);
+    }
+
+    // ws/wss 转为 http/https，便于 HttpUrl 解析
+    private static String toHttpScheme(String url) {
+        if (url.regionMatches(true, 0, "wss:", 0, 4)) {
+            return "https:" + url.substring(4);
+        }
+        if (url.regionMatches(true, 0, "ws:", 0, 3)) {
+            return "http:" + url.substring(3);
+        }
+        return url;
+    }
+
+    /**
+     * 预热请求监听：累计 DNS、建连（含 TLS）耗时
+     */
+    private class WarmupListener extends EventListener {
+        private final String host;
+        private long dnsStart;
+        private long connectStart;
+        private long setupMs;
+
+        WarmupListener(String host) {
+            this.host = host;
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            dnsStart = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+            setupMs += SystemClock.elapsedRealtime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+            connectStart = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol) {
+            setupMs += SystemClock.elapsedRealtime() - connectStart;
+        }
+
+        @Override
+        public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+            onWarmupConnected(host, setupMs);
+        }
+    }
+}
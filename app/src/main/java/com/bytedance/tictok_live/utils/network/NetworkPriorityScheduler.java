@@ -0,0 +1,237 @@
+package com.bytedance.tictok_live.utils.network;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dispatcher;
+
+/**
+ * 网络请求优先级调度（单例）
+ *
+ * 在请求交给 OkHttp 之前做准入，不阻塞任何线程：
+ *  1. 按优先级分类限流：直播媒体 > 主播信息/WebSocket > 评论 > 头像，每个分类一个 Dispatcher（共享线程池），
+ *     超出并发上限的异步请求在 Dispatcher 队列中排队
+ *  2. 播放器缓冲低于阈值时，低优先级异步请求（评论、头像）先进入延后队列，把带宽让给直播流；
+ *     缓冲恢复或等待满 {@link #MAX_DEFER_MS} 后再交给 Dispatcher，避免饿死
+ * 请求通过 {@link PriorityCallFactory} 接入；同步请求（execute）不经过 Dispatcher 限流，也不延后
+ */
+public class NetworkPriorityScheduler {
+    public static final String TAG = "NetworkScheduler";
+
+    /**
+     * 优先级分类（声明顺序即优先级，并配置各自的最大并发数）
+     */
+    public enum PriorityClass {
+        MEDIA(6),       // manifest、媒体分片
+        CRITICAL(4),    // 主播信息、连接预热
+        COMMENTS(2),    // 评论
+        AVATAR(2);      // 头像等图片
+
+        final int maxConcurrency;
+
+        PriorityClass(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        // 是否在缓冲不足时让路
+        boolean isDeferrable() {
+            return this == COMMENTS || this == AVATAR;
+        }
+    }
+
+    // 缓冲低于该值时延后低优先级请求
+    public static final long LOW_BUFFER_THRESHOLD_MS = 2000;
+    // 低优先级请求最长延后时长
+    public static final long MAX_DEFER_MS = 3000;
+    // 播放器未运行或未出首帧时的缓冲值（不做让路）
+    public static final long BUFFER_UNKNOWN = -1;
+    // 关闭调度时各分类的并发上限（与 NetworkCore 的全局上限一致）
+    private static final int UNLIMITED_CONCURRENCY = 32;
+
+    // 单例（volatile 保证可见性）
+    private static volatile NetworkPriorityScheduler instance;
+
+    // 各分类的调度器（共享同一个线程池）
+    private final EnumMap<PriorityClass, Dispatcher> dispatchers = new EnumMap<>(PriorityClass.class);
+
+    // 延后队列（按提交顺序放行），超时由定时线程放行
+    private final Set<DeferredDispatch> deferred = new LinkedHashSet<>();
+    private final ScheduledExecutorService deferTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 播放器当前缓冲时长（ms），由 LivePlayerManager 定时上报
+    private volatile long bufferedDurationMs = BUFFER_UNKNOWN;
+    // 是否启用调度（关闭时不延后、不按分类限流，用于 A/B 对比）
+    private volatile boolean enabled = true;
+
+    private NetworkPriorityScheduler() {
+        Dispatcher first = null;
+        for (PriorityClass cls : PriorityClass.values()) {
+            Dispatcher dispatcher = first == null ? new Dispatcher() : new Dispatcher(first.executorService());
+            dispatcher.setMaxRequests(cls.maxConcurrency);
+            dispatcher.setMaxRequestsPerHost(cls.maxConcurrency);
+            dispatchers.put(cls, dispatcher);
+            if (first == null) {
+                first = dispatcher;
+            }
+        }
+    }
+
+    // 单例模式(双重检查锁)
+    public static NetworkPriorityScheduler getInstance() {
+        if (instance == null) {
+            synchronized (NetworkPriorityScheduler.class) {
+                if (instance == null) {
+                    instance = new NetworkPriorityScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 某分类的调度器（派生 client 使用，限制该分类的异步并发数）
+     */
+    public Dispatcher getDispatcher(PriorityClass cls) {
+        return dispatchers.get(cls);
+    }
+
+    /**
+     * 准入：可让路的分类在缓冲不足时进入延后队列，否则立即执行 dispatch（把请求交给 Dispatcher）
+     * @return 进入延后队列时返回句柄（可用 {@link #dispatchNow} 提前放行），立即执行返回 null
+     */
+    DeferredDispatch admit(PriorityClass cls, Runnable dispatch) {
+        if (!cls.isDeferrable() || !isBufferLow()) {
+            dispatch.run();
+            return null;
+        }
+        DeferredDispatch entry = new DeferredDispatch(cls, dispatch);
+        synchronized (deferred) {
+            deferred.add(entry);
+        }
+        entry.timeout = deferTimer.schedule(() -> dispatchNow(entry), MAX_DEFER_MS, TimeUnit.MILLISECONDS);
+        // 入队与缓冲恢复并发时，避免错过放行
+        if (!isBufferLow()) {
+            releaseDeferred();
+        }
+        return entry;
+    }
+
+    /**
+     * 立即放行延后的请求（超时、取消时调用；已放行则忽略）
+     */
+    void dispatchNow(DeferredDispatch entry) {
+        synchronized (deferred) {
+            if (!deferred.remove(entry)) return;
+        }
+        entry.run();
+    }
+
+    /**
+     * 上报播放器缓冲时长
+     * @param durationMs 缓冲时长，播放器停止或尚未出首帧时传 {@link #BUFFER_UNKNOWN}
+     */
+    public void updateBufferedDuration(long durationMs) {
+        bufferedDurationMs = durationMs;
+        if (!isBufferLow()) {
+            releaseDeferred();
+        }
+    }
+
+    public long getBufferedDurationMs() {
+        return bufferedDurationMs;
+    }
+
+    /**
+     * 启用 / 关闭调度（关闭时放行延后队列，各分类并发上限放开）
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        for (PriorityClass cls : PriorityClass.values()) {
+            int limit = enabled ? cls.maxConcurrency : UNLIMITED_CONCURRENCY;
+            Dispatcher dispatcher = dispatchers.get(cls);
+            dispatcher.setMaxRequests(limit);
+            dispatcher.setMaxRequestsPerHost(limit);
+        }
+        if (!enabled) {
+            releaseDeferred();
+        }
+        Log.d(TAG, "网络优先级调度：" + (enabled ? "开启" : "关闭"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 某分类当前正在执行的异步请求数
+     */
+    public int getActiveCount(PriorityClass cls) {
+        return dispatchers.get(cls).runningCallsCount();
+    }
+
+    /**
+     * 当前在延后队列中的请求数
+     */
+    public int getDeferredCount() {
+        synchronized (deferred) {
+            return deferred.size();
+        }
+    }
+
+    private boolean isBufferLow() {
+        long buffered = bufferedDurationMs;
+        return enabled && buffered != BUFFER_UNKNOWN && buffered < LOW_BUFFER_THRESHOLD_MS;
+    }
+
+    // 按提交顺序放行全部延后请求（在锁外执行，Dispatcher 入队不持有本锁）
+    private void releaseDeferred() {
+        List<DeferredDispatch> released;
+        synchronized (deferred) {
+            if (deferred.isEmpty()) return;
+            released = new ArrayList<>(deferred);
+            deferred.clear();
+        }
+        for (DeferredDispatch entry : released) {
+            entry.run();
+        }
+    }
+
+    /**
+     * 延后队列中的一次请求
+     */
+    static final class DeferredDispatch {
+        private final PriorityClass cls;
+        private final Runnable dispatch;
+        private final long deferredAt = SystemClock.elapsedRealtime();
+        private volatile ScheduledFuture<?> timeout;
+
+        DeferredDispatch(PriorityClass cls, Runnable dispatch) {
+            this.cls = cls;
+            this.dispatch = dispatch;
+        }
+
+        // 调用方保证只执行一次（已从延后队列移除）
+        private void run() {
+            ScheduledFuture<?> pendingTimeout = timeout;
+            if (pendingTimeout != null) {
+                pendingTimeout.cancel(false);
+            }
+            Log.d(TAG, cls + " 请求因缓冲不足延后：" + (SystemClock.elapsedRealtime() - deferredAt) + "ms");
+            dispatch.run();
+        }
+    }
+}
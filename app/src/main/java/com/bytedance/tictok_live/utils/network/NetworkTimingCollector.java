@@ -0,0 +1,337 @@
+package com.bytedance.tictok_live.utils.network;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 网络分阶段耗时采集（基于 OkHttp EventListener）
+ *
+ * 按接口聚合 DNS、建连、TLS、发送请求、首字节、读取响应体、总耗时（成功、失败分开统计），写入无锁直方图，
+ * 进程内可随时查询，用于定位进房链路中哪个阶段最慢。
+ * 注意：OkHttp 的 WebSocket 握手不会回调 EventListener，由 WebSocketManager 调用 {@link #record} 手动上报
+ */
+public class NetworkTimingCollector implements EventListener.Factory {
+    public static final String TAG = "NetworkTiming";
+
+    /**
+     * 统计阶段
+     */
+    public enum Phase {
+        DNS,            // DNS 解析
+        CONNECT,        // TCP 建连（含 TLS）
+        TLS,            // TLS 握手
+        REQUEST,        // 发送请求头、请求体
+        TTFB,           // 请求发送完毕 -> 收到响应头
+        BODY,           // 读取响应体
+        TOTAL,          // 整个请求（仅成功完成的请求）
+        FAILED          // 失败请求从开始到失败的耗时（超时、断网等，不计入 TOTAL 以免拉偏分位数）
+    }
+
+    // 单例（volatile 保证可见性）
+    private static volatile NetworkTimingCollector instance;
+
+    // 接口 -> 各阶段直方图
+    private final ConcurrentHashMap<String, EndpointTimings> endpoints = new ConcurrentHashMap<>();
+
+    private NetworkTimingCollector() {}
+
+    // 单例模式(双重检查锁)
+    public static NetworkTimingCollector getInstance() {
+        if (instance == null) {
+            synchronized (NetworkTimingCollector.class) {
+                if (instance == null) {
+                    instance = new NetworkTimingCollector();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @NonNull
+    @Override
+    public EventListener create(@NonNull Call call) {
+        return new CallTimingListener(endpointKey(call.request().url()));
+    }
+
+    /**
+     * 手动上报某个接口某阶段的耗时（用于不经过 EventListener 的链路，如 WebSocket 握手）
+     */
+    public void record(String endpoint, Phase phase, long durationMs) {
+        timingsOf(endpoint).histogram(phase).record(durationMs);
+    }
+
+    /**
+     * 查询某个接口的统计，不存在返回 null
+     */
+    @Nullable
+    public EndpointTimings getTimings(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * 查询全部接口的统计（只读视图）
+     */
+    public Map<String, EndpointTimings> getAllTimings() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * 输出当前统计到日志
+     */
+    public void dump() {
+        for (Map.Entry<String, EndpointTimings> entry : endpoints.entrySet()) {
+            Log.d(TAG, entry.getKey() + " -> " + entry.getValue());
+        }
+    }
+
+    private EndpointTimings timingsOf(String endpoint) {
+        EndpointTimings timings = endpoints.get(endpoint);
+        if (timings == null) {
+            EndpointTimings created = new EndpointTimings();
+            timings = endpoints.putIfAbsent(endpoint, created);
+            if (timings == null) timings = created;
+        }
+        return timings;
+    }
+
+    /**
+     * 生成聚合用的接口标识：host + path；媒体分片地址各不相同，按扩展名归并
+     */
+    public static String endpointKey(HttpUrl url) {
+        String path = url.encodedPath();
+        int dot = path.lastIndexOf('.');
+        if (dot > path.lastIndexOf('/')) {
+            String ext = path.substring(dot + 1).toLowerCase(Locale.ROOT);
+            if ("m4s".equals(ext) || "mp4".equals(ext) || "m4a".equals(ext) || "m4v".equals(ext)
+                    || "ts".equals(ext) || "cmfv".equals(ext) || "cmfa".equals(ext)) {
+                return url.host() + "/*." + ext;
+            }
+        }
+        return url.host() + path;
+    }
+
+    /**
+     * 单个接口的各阶段统计
+     */
+    public static class EndpointTimings {
+        private final EnumMap<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+
+        EndpointTimings() {
+            // 预先创建全部阶段，之后只读不写 map，记录时无需加锁
+            for (Phase phase : Phase.values()) {
+                histograms.put(phase, new LatencyHistogram());
+            }
+        }
+
+        public LatencyHistogram histogram(Phase phase) {
+            return histograms.get(phase);
+        }
+
+        /**
+         * 平均耗时最大的阶段（不含 TOTAL、FAILED），无数据返回 null
+         */
+        @Nullable
+        public Phase getDominantPhase() {
+            Phase dominant = null;
+            long maxMean = -1;
+            for (Phase phase : Phase.values()) {
+                if (phase == Phase.TOTAL || phase == Phase.FAILED) continue;
+                LatencyHistogram h = histograms.get(phase);
+                if (h.getCount() > 0 && h.getMeanMs() > maxMean) {
+                    maxMean = h.getMeanMs();
+                    dominant = phase;
+                }
+            }
+            return dominant;
+        }
+
+        /**
+         * 各阶段 p50 快照（毫秒）
+         */
+        public Map<Phase, Long> getP50Snapshot() {
+            Map<Phase, Long> snapshot = new HashMap<>();
+            for (Phase phase : Phase.values()) {
+                snapshot.put(phase, histograms.get(phase).getPercentileMs(50));
+            }
+            return snapshot;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram h = histograms.get(phase);
+                if (h.getCount() == 0) continue;
+                sb.append(phase).append("{n=").append(h.getCount())
+                        .append(", p50=").append(h.getPercentileMs(50))
+                        .append(", p90=").append(h.getPercentileMs(90))
+                        .append(", max=").append(h.getMaxMs())
+                        .append("} ");
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 单次请求的事件监听（每个 Call 一个实例，回调在同一调用链上顺序发生）
+     */
+    private class CallTimingListener extends EventListener {
+        private final String endpoint;
+
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestStart;
+        private long requestEnd;
+        private long responseBodyStart;
+        private boolean newConnection;     // 本次请求是否新建了连接
+        private boolean connectionAcquired; // 本次请求是否拿到了连接（命中缓存、only-if-cached 未命中时没有）
+        private boolean answeredFromCache; // 本次请求是否直接由缓存应答
+
+        CallTimingListener(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private long now() {
+            return SystemClock.elapsedRealtime();
+        }
+
+        private void record(Phase phase, long start) {
+            if (start > 0) {
+                NetworkTimingCollector.this.record(endpoint, phase, now() - start);
+            }
+        }
+
+        @Override
+        public void callStart(@NonNull Call call) {
+            callStart = now();
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            dnsStart = now();
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+            record(Phase.DNS, dnsStart);
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+            connectStart = now();
+            newConnection = true;
+        }
+
+        @Override
+        public void secureConnectStart(@NonNull Call call) {
+            secureConnectStart = now();
+        }
+
+        @Override
+        public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+            record(Phase.TLS, secureConnectStart);
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol) {
+            record(Phase.CONNECT, connectStart);
+        }
+
+        @Override
+        public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+            connectionAcquired = true;
+        }
+
+        @Override
+        public void cacheHit(@NonNull Call call, @NonNull Response response) {
+            answeredFromCache = true;
+        }
+
+        @Override
+        public void satisfactionFailure(@NonNull Call call, @NonNull Response response) {
+            // only-if-cached 且缓存不可用：504 由缓存层直接返回，没有走网络
+            answeredFromCache = true;
+        }
+
+        @Override
+        public void requestHeadersStart(@NonNull Call call) {
+            requestStart = now();
+        }
+
+        @Override
+        public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+            requestEnd = now();
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+            requestEnd = now();
+        }
+
+        @Override
+        public void responseHeadersStart(@NonNull Call call) {
+            if (requestStart > 0) {
+                NetworkTimingCollector.this.record(endpoint, Phase.REQUEST, requestEnd - requestStart);
+            }
+            record(Phase.TTFB, requestEnd);
+        }
+
+        @Override
+        public void responseBodyStart(@NonNull Call call) {
+            responseBodyStart = now();
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            record(Phase.BODY, responseBodyStart);
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+            record(Phase.TOTAL, callStart);
+            // 统计预热连接的复用收益：只统计真正走网络（拿到连接）的请求，缓存应答的请求不计
+            if (connectionAcquired && !answeredFromCache) {
+                NetworkPreconnector.getInstance().onRequestFinished(call.request().url().host(), !newConnection);
+            }
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+            record(Phase.FAILED, callStart);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.bytedance.tictok_live.utils.network;
+
+import androidx.annotation.NonNull;
+
+import com.bytedance.tictok_live.constant.BusinessConstant;
+import com.bytedance.tictok_live.utils.network.NetworkPriorityScheduler.PriorityClass;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/**
+ * 优先级调度的 Call.Factory（供 Retrofit、Glide、连接预热使用）
+ *
+ * 按请求分类交给对应分类的派生 client（共享连接池，Dispatcher 按分类限流）；
+ * 评论、头像的异步请求先经过调度器准入，缓冲不足时在应用层排队，不占用 OkHttp 线程
+ * only-if-cached 请求只读缓存、不占带宽，不延后
+ */
+public class PriorityCallFactory implements Call.Factory {
+
+    private static final String LIVE_MEDIA_HOST = hostOf(BusinessConstant.LIVE_DASH_URL);
+    private static final String API_HOST = hostOf(BusinessConstant.BASE_URL);
+
+    private final NetworkPriorityScheduler scheduler;
+    private final EnumMap<PriorityClass, OkHttpClient> clients = new EnumMap<>(PriorityClass.class);
+
+    public PriorityCallFactory(OkHttpClient client) {
+        this(client, NetworkPriorityScheduler.getInstance());
+    }
+
+    PriorityCallFactory(OkHttpClient client, NetworkPriorityScheduler scheduler) {
+        this.scheduler = scheduler;
+        for (PriorityClass cls : PriorityClass.values()) {
+            clients.put(cls, client.newBuilder()
+                    .dispatcher(scheduler.getDispatcher(cls))
+                    .build());
+        }
+    }
+
+    @NonNull
+    @Override
+    public Call newCall(@NonNull Request request) {
+        PriorityClass cls = classify(request);
+        Call call = clients.get(cls).newCall(request);
+        if (!cls.isDeferrable() || request.cacheControl().onlyIfCached()) {
+            return call;
+        }
+        return new DeferrableCall(call, cls, scheduler);
+    }
+
+    /**
+     * 请求分类：调用方通过 tag 显式指定的优先，其次按域名、路径
+     */
+    static PriorityClass classify(Request request) {
+        PriorityClass tagged = request.tag(PriorityClass.class);
+        if (tagged != null) {
+            return tagged;
+        }
+        HttpUrl url = request.url();
+        String host = url.host();
+        String path = url.encodedPath();
+
+        if (host.equals(LIVE_MEDIA_HOST) || path.endsWith(".mpd") || path.endsWith(".m4s")) {
+            return PriorityClass.MEDIA;
+        }
+        if (host.equals(API_HOST)) {
+            return path.contains("/comments") ? PriorityClass.COMMENTS : PriorityClass.CRITICAL;
+        }
+        // 其余为图片（头像）等
+        return PriorityClass.AVATAR;
+    }
+
+    private static String hostOf(String url) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        return parsed != null ? parsed.host() : "";
+    }
+
+    /**
+     * 可延后的请求：enqueue 经调度器准入后才交给 OkHttp，execute 直接执行
+     */
+    private static class DeferrableCall implements Call {
+        private final Call delegate;
+        private final PriorityClass cls;
+        private final NetworkPriorityScheduler scheduler;
+        private final AtomicBoolean executed = new AtomicBoolean(false);
+        private volatile NetworkPriorityScheduler.DeferredDispatch pending;
+
+        DeferrableCall(Call delegate, PriorityClass cls, NetworkPriorityScheduler scheduler) {
+            this.delegate = delegate;
+            this.cls = cls;
+            this.scheduler = scheduler;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Response execute() throws IOException {
+            markExecuted();
+            return delegate.execute();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback callback) {
+            markExecuted();
+            pending = scheduler.admit(cls, () -> delegate.enqueue(callback));
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+            // 还在延后队列中：立即放行，已取消的请求由 OkHttp 回调 onFailure
+            NetworkPriorityScheduler.DeferredDispatch entry = pending;
+            if (entry != null) {
+                scheduler.dispatchNow(entry);
+            }
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed.get();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return delegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+
+        @NonNull
+        @Override
+        public Call clone() {
+            return new DeferrableCall(delegate.clone(), cls, scheduler);
+        }
+
+        private void markExecuted() {
+            if (!executed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Already Executed");
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.bytedance.tictok_live.utils.player;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.media3.exoplayer.upstream.BandwidthMeter;
+
+/**
+ * 清晰度上限控制
+ *
+ * 带宽充足时解除 SD 上限，交给自适应轨道选择挑选更高清晰度；
+ * 带宽下降或出现卡顿时重新限制为 SD（带滞回和冷却，避免来回切换）。
+ * 同时定期把带宽估计写入历史，供下次启动作为初始估计
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class AdaptiveQualityController implements BandwidthMeter.EventListener {
+    private static final String TAG = "AdaptiveQuality";
+
+    // 高于该带宽解除 SD 上限、低于该带宽恢复 SD 上限（bps）
+    private static final long HD_UPGRADE_BITRATE = 4_000_000;
+    private static final long SD_DOWNGRADE_BITRATE = 2_000_000;
+    // 卡顿后保持 SD 上限的冷却时长
+    private static final long REBUFFER_COOLDOWN_MS = 10_000;
+    // 带宽历史写盘间隔
+    private static final long PERSIST_INTERVAL_MS = 10_000;
+    // 帧率上限
+    private static final int MAX_VIDEO_FRAME_RATE = 30;
+
+    private final DefaultTrackSelector trackSelector;
+    private final BandwidthHistory history;
+    private final int networkType;   // 起播时的网络类型（仅用于日志，写历史时按当时的网络类型）
+
+    private boolean sdCapped = true;
+    private long lastRebufferTime = -1;
+    private long lastPersistTime = 0;
+    private long latestEstimate = -1;
+
+    public AdaptiveQualityController(DefaultTrackSelector trackSelector, BandwidthHistory history, int networkType) {
+        this.trackSelector = trackSelector;
+        this.history = history;
+        this.networkType = networkType;
+    }
+
+    /**
+     * 根据初始带宽估计设置起播清晰度上限
+     */
+    public void applyInitial(long initialEstimate) {
+        latestEstimate = initialEstimate;
+        applySdCap(initialEstimate < HD_UPGRADE_BITRATE);
+        Log.d(TAG, "初始带宽估计：" + initialEstimate + "bps，网络类型：" + networkType + "，SD上限：" + sdCapped);
+    }
+
+    @Override
+    public void onBandwidthSample(int elapsedMs, long bytesTransferred, long bitrateEstimate) {
+        latestEstimate = bitrateEstimate;
+
+        boolean inCooldown = lastRebufferTime > 0
+                && SystemClock.elapsedRealtime() - lastRebufferTime < REBUFFER_COOLDOWN_MS;
+        if (sdCapped && !inCooldown && bitrateEstimate > HD_UPGRADE_BITRATE) {
+            Log.d(TAG, "带宽充足（" + bitrateEstimate + "bps），解除SD上限");
+            applySdCap(false);
+        } else if (!sdCapped && bitrateEstimate < SD_DOWNGRADE_BITRATE) {
+            Log.d(TAG, "带宽不足（" + bitrateEstimate + "bps），恢复SD上限");
+            applySdCap(true);
+        }
+
+        long now = SystemClock.elapsedRealtime();
+        if (now - lastPersistTime >= PERSIST_INTERVAL_MS) {
+            lastPersistTime = now;
+            history.record(history.currentNetworkType(), bitrateEstimate);
+        }
+    }
+
+    /**
+     * 播放中出现卡顿：立即恢复 SD 上限并进入冷却
+     */
+    public void onRebuffer() {
+        lastRebufferTime = SystemClock.elapsedRealtime();
+        if (!sdCapped) {
+            Log.d(TAG, "播放卡顿，恢复SD上限");
+            applySdCap(true);
+        }
+    }
+
+    /**
+     * 写入最新带宽估计（释放播放器时调用）
+     */
+    public void persist() {
+        history.record(history.currentNetworkType(), latestEstimate);
+    }
+
+    /**
+     * 解码失败降档：码率上限压到出错档位以下（本次播放内保持，带宽回升也不解除）
+     * @param failedBitrate 出错时的视频码率，未知时退回 SD 上限
+     * @return 是否成功降档
+     */
+    public boolean stepDown(int failedBitrate) {
+        if (failedBitrate <= 0) {
+            if (sdCapped) return false;
+            applySdCap(true);
+            return true;
+        }
+        int currentMax = trackSelector.getParameters().maxVideoBitrate;
+        if (failedBitrate - 1 >= currentMax) return false;
+        trackSelector.setParameters(trackSelector.buildUponParameters()
+                .setMaxVideoBitrate(failedBitrate - 1));
+        Log.d(TAG, "码率上限降至：" + (failedBitrate - 1) + "bps");
+        return true;
+    }
+
+    public boolean isSdCapped() {
+        return sdCapped;
+    }
+
+    private void applySdCap(boolean capped) {
+        sdCapped = capped;
+        DefaultTrackSelector.Parameters.Builder builder = trackSelector.buildUponParameters()
+                .setMaxVideoFrameRate(MAX_VIDEO_FRAME_RATE);
+        if (capped) {
+            builder.setMaxVideoSizeSd();
+        } else {
+            builder.clearVideoSizeConstraints();
+        }
+        trackSelector.setParameters(builder);
+    }
+}
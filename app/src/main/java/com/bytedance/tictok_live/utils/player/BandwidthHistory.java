@@ -0,0 +1,124 @@
+package com.bytedance.tictok_live.utils.player;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.telephony.TelephonyManager;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.util.NetworkTypeObserver;
+import androidx.media3.common.util.UnstableApi;
+
+/**
+ * 带宽历史（按网络类型持久化）
+ *
+ * 每种网络类型（WiFi / 4G / 5G ...）保存一个平滑后的带宽估计，
+ * 下次启动时作为带宽估计初始值，避免每次从冷启动估计慢慢爬升
+ */
+public class BandwidthHistory {
+
+    private static final String PREFS_NAME = "live_bandwidth_history";
+    private static final String KEY_PREFIX = "bitrate_";
+
+    // 新样本权重（指数平滑）
+    private static final double NEW_SAMPLE_WEIGHT = 0.3;
+
+    private final Context appContext;
+    private final SharedPreferences prefs;
+
+    public BandwidthHistory(Context context) {
+        appContext = context.getApplicationContext();
+        prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * 当前网络类型（C.NETWORK_TYPE_*）
+     * 优先取 NetworkTypeObserver 的结果；冷启动时其首次广播尚未到达（返回 UNKNOWN），改为同步查询 ConnectivityManager
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public int currentNetworkType() {
+        int observed = NetworkTypeObserver.getInstance(appContext).getNetworkType();
+        if (observed != C.NETWORK_TYPE_UNKNOWN) {
+            return observed;
+        }
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return C.NETWORK_TYPE_UNKNOWN;
+        }
+        NetworkInfo info;
+        try {
+            info = connectivityManager.getActiveNetworkInfo();
+        } catch (SecurityException e) {
+            return C.NETWORK_TYPE_UNKNOWN;
+        }
+        if (info == null || !info.isConnected()) {
+            return C.NETWORK_TYPE_OFFLINE;
+        }
+        switch (info.getType()) {
+            case ConnectivityManager.TYPE_WIFI:
+                return C.NETWORK_TYPE_WIFI;
+            case ConnectivityManager.TYPE_ETHERNET:
+                return C.NETWORK_TYPE_ETHERNET;
+            case ConnectivityManager.TYPE_MOBILE:
+            case ConnectivityManager.TYPE_MOBILE_DUN:
+            case ConnectivityManager.TYPE_MOBILE_HIPRI:
+                return mobileNetworkType(info.getSubtype());
+            default:
+                return C.NETWORK_TYPE_OTHER;
+        }
+    }
+
+    // 蜂窝子类型映射（与 NetworkTypeObserver 一致；5G NSA 需显示信息才能区分，这里按 4G 处理，之后由观察者修正）
+    private static int mobileNetworkType(int subtype) {
+        switch (subtype) {
+            case TelephonyManager.NETWORK_TYPE_EDGE:
+            case TelephonyManager.NETWORK_TYPE_GPRS:
+            case TelephonyManager.NETWORK_TYPE_CDMA:
+            case TelephonyManager.NETWORK_TYPE_1xRTT:
+            case TelephonyManager.NETWORK_TYPE_IDEN:
+            case TelephonyManager.NETWORK_TYPE_GSM:
+                return C.NETWORK_TYPE_2G;
+            case TelephonyManager.NETWORK_TYPE_EVDO_0:
+            case TelephonyManager.NETWORK_TYPE_EVDO_A:
+            case TelephonyManager.NETWORK_TYPE_EVDO_B:
+            case TelephonyManager.NETWORK_TYPE_HSDPA:
+            case TelephonyManager.NETWORK_TYPE_HSUPA:
+            case TelephonyManager.NETWORK_TYPE_HSPA:
+            case TelephonyManager.NETWORK_TYPE_HSPAP:
+            case TelephonyManager.NETWORK_TYPE_UMTS:
+            case TelephonyManager.NETWORK_TYPE_EHRPD:
+            case TelephonyManager.NETWORK_TYPE_TD_SCDMA:
+                return C.NETWORK_TYPE_3G;
+            case TelephonyManager.NETWORK_TYPE_LTE:
+                return C.NETWORK_TYPE_4G;
+            case TelephonyManager.NETWORK_TYPE_NR:
+                return C.NETWORK_TYPE_5G_SA;
+            case TelephonyManager.NETWORK_TYPE_IWLAN:
+                return C.NETWORK_TYPE_WIFI;
+            default:
+                return C.NETWORK_TYPE_CELLULAR_UNKNOWN;
+        }
+    }
+
+    /**
+     * 获取某网络类型的历史带宽估计（bps），无记录返回 -1
+     */
+    public long getEstimate(int networkType) {
+        return prefs.getLong(KEY_PREFIX + networkType, -1);
+    }
+
+    /**
+     * 记录带宽估计（与历史值平滑后异步写盘）
+     */
+    public void record(int networkType, long bitrateEstimate) {
+        if (bitrateEstimate <= 0) return;
+        long old = getEstimate(networkType);
+        long merged = old <= 0
+                ? bitrateEstimate
+                : (long) (old * (1 - NEW_SAMPLE_WEIGHT) + bitrateEstimate * NEW_SAMPLE_WEIGHT);
+        prefs.edit().putLong(KEY_PREFIX + networkType, merged).apply();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bytedance.tictok_live.utils.player;
+
+/**
+ * 直播延迟档位：目标直播延迟 + 追帧时允许的播放速度范围
+ */
+public enum LiveLatencyProfile {
+    // 低延迟：贴近直播点，允许较大幅度变速追赶
+    LOW_LATENCY(3000, 0.96f, 1.04f),
+    // 流畅：留足缓冲，变速幅度小，减少卡顿
+    SMOOTH(8000, 0.98f, 1.02f);
+
+    // 所有档位共用的直播延迟上下限（运行时切换档位只改目标值，必须落在该范围内）
+    public static final long MIN_OFFSET_MS = 2000;
+    public static final long MAX_OFFSET_MS = 20000;
+
+    public final long targetOffsetMs;
+    public final float minPlaybackSpeed;
+    public final float maxPlaybackSpeed;
+
+    LiveLatencyProfile(long targetOffsetMs, float minPlaybackSpeed, float maxPlaybackSpeed) {
+        this.targetOffsetMs = targetOffsetMs;
+        this.minPlaybackSpeed = minPlaybackSpeed;
+        this.maxPlaybackSpeed = maxPlaybackSpeed;
+    }
+}
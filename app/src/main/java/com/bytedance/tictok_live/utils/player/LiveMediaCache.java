@@ -0,0 +1,333 @@
+package com.bytedance.tictok_live.utils.player;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.WorkerThread;
+import androidx.media3.common.C;
+import androidx.media3.common.ParserException;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.common.util.Util;
+import androidx.media3.database.StandaloneDatabaseProvider;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.cache.Cache;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.CacheWriter;
+import androidx.media3.datasource.cache.ContentMetadata;
+import androidx.media3.datasource.cache.ContentMetadataMutations;
+import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor;
+import androidx.media3.datasource.cache.SimpleCache;
+import androidx.media3.exoplayer.dash.DashUtil;
+import androidx.media3.exoplayer.dash.manifest.AdaptationSet;
+import androidx.media3.exoplayer.dash.manifest.DashManifest;
+import androidx.media3.exoplayer.dash.manifest.DashManifestParser;
+import androidx.media3.exoplayer.dash.manifest.RangedUri;
+import androidx.media3.exoplayer.dash.manifest.Representation;
+import androidx.media3.exoplayer.dash.manifest.UtcTimingElement;
+import androidx.media3.exoplayer.upstream.ParsingLoadable;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 直播初始化分片、manifest 磁盘缓存（单例）
+ *
+ * 缓存带时效（TTL），过期即删除重新拉取：
+ *  1. init 分片：基本不变，TTL 10 分钟。地址来自 manifest 中 SegmentTemplate@initialization 的解析结果
+ *     （见 {@link #createManifestParser()}），不按文件名猜测
+ *  2. manifest（动态 MPD）：TTL 几秒，只有播放器的首次加载（进房）可以使用，之后的定时刷新总是走网络并回写缓存。
+ *     代价是进房时拿到的 MPD 最多旧 {@link #MANIFEST_TTL_MS}：按模板计算分片的直播流，直播边缘由
+ *     availabilityStartTime 和当前时间推算，不受影响；SegmentTimeline 的直播流起播点最多落后这么久，
+ *     下一次刷新即纠正；MPD 内直接写入的服务器时间（UTCTiming direct）按缓存时长修正（见 {@link CachedManifestParser}）
+ *  3. 媒体分片：永远走网络
+ * 启动页阶段通过 {@link #prefetch} 预先写入，再次进房时首帧无需等待 manifest、init 分片下载
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class LiveMediaCache {
+    private static final String TAG = "LiveMediaCache";
+
+    private static final String CACHE_DIR_NAME = "live_media_cache";
+    // 缓存上限（init 分片都很小，LRU 淘汰）
+    private static final long MAX_CACHE_BYTES = 20L * 1024 * 1024;
+    // 时效：init 分片基本不变
+    public static final long INIT_SEGMENT_TTL_MS = 10 * 60_000;
+    // 时效：manifest 随直播推进变化，只省掉进房时的一次往返
+    public static final long MANIFEST_TTL_MS = 3000;
+    // 写入时间（存放在缓存内容元数据中）
+    private static final String META_KEY_CACHED_AT = "live_cached_at";
+
+    private static volatile LiveMediaCache instance;
+
+    private final SimpleCache cache;
+
+    // 从 manifest 解析出的 init 分片地址（预取和播放器加载 manifest 时登记）
+    private final Set<String> knownInitUris = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // 加载过的 manifest 地址
+    private final Set<String> knownManifestUris = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // manifest 从网络加载完成的时间（解析时记录，判断时效、计算缓存时长）
+    private final Map<String, Long> manifestFetchedAtMs = new ConcurrentHashMap<>();
+    // 本次从缓存返回的 manifest 的缓存时长（加载线程 open 时记录，解析时取出）
+    private final Map<String, Long> cachedManifestAgeMs = new ConcurrentHashMap<>();
+
+    // 是否缓存 manifest（基准测试对比用）
+    private volatile boolean manifestCacheEnabled = true;
+
+    private LiveMediaCache(Context context) {
+        File cacheDir = new File(context.getCacheDir(), CACHE_DIR_NAME);
+        cache = new SimpleCache(
+                cacheDir,
+                new LeastRecentlyUsedCacheEvictor(MAX_CACHE_BYTES),
+                new StandaloneDatabaseProvider(context)
+        );
+    }
+
+    public static LiveMediaCache getInstance(Context ctx) {
+        if (instance == null) {
+            synchronized (LiveMediaCache.class) {
+                if (instance == null) {
+                    instance = new LiveMediaCache(ctx.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 包装网络数据源：init 分片、manifest 走缓存，媒体分片直连（每个播放器单独创建）
+     */
+    public DataSource.Factory createDataSourceFactory(DataSource.Factory upstreamFactory) {
+        return new SelectiveCacheDataSource.Factory(this, upstreamFactory);
+    }
+
+    Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * 开关 manifest 缓存（默认开启，关闭后 manifest 全部直连网络）
+     */
+    public void setManifestCacheEnabled(boolean enabled) {
+        manifestCacheEnabled = enabled;
+        if (!enabled) {
+            // 关闭期间的加载不写缓存，已缓存的一份不再可信
+            manifestFetchedAtMs.clear();
+        }
+    }
+
+    /**
+     * manifest 解析器：照常解析，同时登记 manifest 地址和其中的 init 分片地址（每次刷新 manifest 都会经过）
+     */
+    public ParsingLoadable.Parser<DashManifest> createManifestParser() {
+        DashManifestParser parser = new DashManifestParser();
+        return (uri, inputStream) -> {
+            String key = uri.toString();
+            Long ageMs = cachedManifestAgeMs.remove(key);
+            DashManifest manifest;
+            if (ageMs != null) {
+                manifest = new CachedManifestParser(ageMs).parse(uri, inputStream);
+            } else {
+                manifest = parser.parse(uri, inputStream);
+                if (manifestCacheEnabled) {
+                    manifestFetchedAtMs.put(key, System.currentTimeMillis());
+                }
+            }
+            knownManifestUris.add(key);
+            registerInitSegments(manifest);
+            return manifest;
+        };
+    }
+
+    boolean isInitSegment(Uri uri) {
+        return knownInitUris.contains(uri.toString());
+    }
+
+    boolean isCachedManifest(Uri uri) {
+        return manifestCacheEnabled && knownManifestUris.contains(uri.toString());
+    }
+
+    private void registerInitSegments(DashManifest manifest) {
+        for (int p = 0; p < manifest.getPeriodCount(); p++) {
+            for (AdaptationSet adaptationSet : manifest.getPeriod(p).adaptationSets) {
+                for (Representation representation : adaptationSet.representations) {
+                    Uri uri = resolveInitUri(representation);
+                    if (uri != null) {
+                        knownInitUris.add(uri.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    // SegmentTemplate@initialization（或 SegmentBase Initialization）按第一个 BaseURL 解析出的地址
+    @Nullable
+    private static Uri resolveInitUri(Representation representation) {
+        RangedUri initUri = representation.getInitializationUri();
+        if (initUri == null || representation.baseUrls.isEmpty()) return null;
+        return initUri.resolveUri(representation.baseUrls.get(0).url);
+    }
+
+    /**
+     * 缓存已过期（或没有写入时间）则删除，并记录新的写入时间
+     */
+    synchronized void expireIfStale(String key, long ttlMs) {
+        long cachedAt = cache.getContentMetadata(key).get(META_KEY_CACHED_AT, -1L);
+        if (cachedAt > 0 && System.currentTimeMillis() - cachedAt <= ttlMs) return;
+        invalidate(key);
+    }
+
+    /**
+     * 加载 manifest 前调用：允许且缓存在时效内则保留（记录缓存时长），否则删除，随后的读取从网络拉取并写入
+     */
+    synchronized void prepareManifestLoad(String key, boolean allowCached) {
+        cachedManifestAgeMs.remove(key);
+        Long fetchedAt = manifestFetchedAtMs.get(key);
+        if (allowCached && fetchedAt != null) {
+            long ageMs = System.currentTimeMillis() - fetchedAt;
+            if (ageMs >= 0 && ageMs <= MANIFEST_TTL_MS && isFullyCached(key, 0, C.LENGTH_UNSET)) {
+                cachedManifestAgeMs.put(key, ageMs);
+                return;
+            }
+        }
+        manifestFetchedAtMs.remove(key);
+        invalidate(key);
+    }
+
+    /**
+     * 删除缓存并记录新的写入时间（随后的读取会从网络拉取并写入）
+     * 同时清除记录的内容长度，新内容长度不同（manifest 每次都不同）时不会按旧长度截断
+     */
+    private synchronized void invalidate(String key) {
+        cache.removeResource(key);
+        ContentMetadataMutations mutations = new ContentMetadataMutations();
+        ContentMetadataMutations.removeContentLength(mutations);
+        mutations.set(META_KEY_CACHED_AT, System.currentTimeMillis());
+        try {
+            cache.applyContentMetadataMutations(key, mutations);
+        } catch (Cache.CacheException e) {
+            Log.w(TAG, "记录缓存时间失败：" + key, e);
+        }
+    }
+
+    /**
+     * 拉取 manifest 并预取其中尚未缓存的 init 分片（阻塞，需在子线程调用）
+     *
+     * 在播放器首次就绪后执行：manifest 和播放器正在使用的档位的 init 分片已由播放器写入缓存，
+     * 这里只补齐其余码率档位，再次进房切档时无需等待下载
+     */
+    @WorkerThread
+    public void prefetch(String manifestUrl, DataSource.Factory upstreamFactory) {
+        long start = System.currentTimeMillis();
+        Uri manifestUri = Uri.parse(manifestUrl);
+        CacheDataSource cacheDataSource = new CacheDataSource(cache, upstreamFactory.createDataSource());
+
+        try {
+            // 1. manifest：时效内直接用播放器刚写入的缓存，只用来找 init 分片
+            DataSource manifestSource = upstreamFactory.createDataSource();
+            if (manifestCacheEnabled) {
+                knownManifestUris.add(manifestUrl);
+                prepareManifestLoad(manifestUrl, true);
+                manifestSource = cacheDataSource;
+            }
+            DashManifest manifest = DashUtil.loadManifest(manifestSource, manifestUri);
+            if (manifestCacheEnabled && cachedManifestAgeMs.remove(manifestUrl) == null) {
+                manifestFetchedAtMs.put(manifestUrl, System.currentTimeMillis());
+            }
+            registerInitSegments(manifest);
+
+            // 2. init 分片（所有码率档位，已缓存的跳过）
+            int fetched = 0;
+            int skipped = 0;
+            for (int p = 0; p < manifest.getPeriodCount(); p++) {
+                for (AdaptationSet adaptationSet : manifest.getPeriod(p).adaptationSets) {
+                    for (Representation representation : adaptationSet.representations) {
+                        Boolean result = prefetchInitSegment(cacheDataSource, representation);
+                        if (result == null) continue;
+                        if (result) {
+                            fetched++;
+                        } else {
+                            skipped++;
+                        }
+                    }
+                }
+            }
+            Log.d(TAG, "预取完成：下载 " + fetched + " 个init分片，已缓存跳过 " + skipped + " 个，耗时："
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException e) {
+            Log.w(TAG, "预取失败：" + manifestUrl, e);
+        }
+    }
+
+    /**
+     * @return true 已下载，false 已缓存跳过，null 没有 init 分片
+     */
+    @Nullable
+    private Boolean prefetchInitSegment(CacheDataSource cacheDataSource, Representation representation) throws IOException {
+        Uri uri = resolveInitUri(representation);
+        if (uri == null) return null;
+
+        RangedUri initUri = representation.getInitializationUri();
+        String key = uri.toString();
+        expireIfStale(key, INIT_SEGMENT_TTL_MS);
+        if (isFullyCached(key, initUri.start, initUri.length)) {
+            return false;
+        }
+
+        DataSpec dataSpec = new DataSpec.Builder()
+                .setUri(uri)
+                .setPosition(initUri.start)
+                .setLength(initUri.length)
+                .build();
+        new CacheWriter(cacheDataSource, dataSpec, null, null).cache();
+        return true;
+    }
+
+    // 长度未知（整个文件）时按记录的内容长度判断
+    private boolean isFullyCached(String key, long position, long length) {
+        if (length == C.LENGTH_UNSET) {
+            long contentLength = ContentMetadata.getContentLength(cache.getContentMetadata(key));
+            if (contentLength == C.LENGTH_UNSET) return false;
+            length = contentLength - position;
+        }
+        return length > 0 && cache.isCached(key, position, length);
+    }
+
+    /**
+     * 解析缓存的 manifest：其中直接写入的服务器时间（UTCTiming direct）是拉取时的时间，
+     * 按缓存时长后移，否则播放器按旧时间同步时钟，整场直播的直播边缘都会落后
+     */
+    private static class CachedManifestParser extends DashManifestParser {
+        private static final String UTC_DIRECT_SCHEME_PREFIX = "urn:mpeg:dash:utc:direct:";
+
+        private final long ageMs;
+
+        CachedManifestParser(long ageMs) {
+            this.ageMs = ageMs;
+        }
+
+        @Override
+        protected UtcTimingElement buildUtcTimingElement(String schemeIdUri, String value) {
+            if (schemeIdUri.startsWith(UTC_DIRECT_SCHEME_PREFIX)) {
+                try {
+                    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+                    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+                    value = format.format(new Date(Util.parseXsDateTime(value) + ageMs));
+                } catch (ParserException e) {
+                    Log.w(TAG, "UTCTiming 时间解析失败：" + value, e);
+                }
+            }
+            return super.buildUtcTimingElement(schemeIdUri, value);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.bytedance.tictok_live.utils.player;
+
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+/**
+ * 直播播放专用线程（全局共享，所有播放器实例的加载、解封装、缓冲都在该线程进行）
+ *
+ * 播放器的应用线程仍为主线程（PlayerView 要求），在任意线程构建、在主线程 prepare 后，
+ * 缓冲工作不依赖调用线程是否有 Looper，也不占用主线程
+ */
+public final class LivePlaybackThread {
+    private static final String THREAD_NAME = "LivePlayback";
+
+    private static volatile HandlerThread thread;
+
+    private LivePlaybackThread() {}
+
+    /**
+     * 播放线程 Looper（首次调用时启动线程，随进程存活，不退出）
+     */
+    public static Looper getLooper() {
+        if (thread == null) {
+            synchronized (LivePlaybackThread.class) {
+                if (thread == null) {
+                    // 与 ExoPlayer 内部播放线程保持一致的音频优先级
+                    HandlerThread playbackThread = new HandlerThread(THREAD_NAME, Process.THREAD_PRIORITY_AUDIO);
+                    playbackThread.start();
+                    thread = playbackThread;
+                }
+            }
+        }
+        return thread.getLooper();
+    }
+}
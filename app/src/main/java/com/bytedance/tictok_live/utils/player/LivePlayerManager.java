@@ -6,21 +6,39 @@ import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.OptIn;
+import androidx.media3.common.AudioAttributes;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.PlaybackException;
 import androidx.media3.common.Player;
-import androidx.media3.common.TrackSelectionParameters;
 import androidx.media3.common.util.UnstableApi;
-import androidx.media3.datasource.DefaultHttpDataSource;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
 import androidx.media3.exoplayer.DefaultLoadControl;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.exoplayer.LoadControl;
 import androidx.media3.exoplayer.dash.DashMediaSource;
 import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
 import androidx.media3.ui.PlayerView;
 
 import com.bytedance.tictok_live.constant.BusinessConstant;
+import com.bytedance.tictok_live.utils.metrics.Counter;
+import com.bytedance.tictok_live.utils.metrics.Gauge;
+import com.bytedance.tictok_live.utils.metrics.MetricTimer;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
+import com.bytedance.tictok_live.utils.network.NetworkCore;
+import com.bytedance.tictok_live.utils.network.NetworkPriorityScheduler;
+import com.bytedance.tictok_live.utils.player.qoe.PlaybackQoeCollector;
+import com.bytedance.tictok_live.utils.player.qoe.QoeSession;
 import com.bytedance.tictok_live.utils.preload.LivePreloadManager;
+import com.bytedance.tictok_live.utils.trace.Tracer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
 
 /**
  * 直播管理
@@ -31,8 +49,19 @@ public class LivePlayerManager {
 
     private static volatile LivePlayerManager instance;
 
+    // 指标（所有播放器实例共用）
+    private static final MetricTimer TTFF_METRIC = MetricsRegistry.getInstance().timer("player.ttff");
+    private static final Counter REBUFFER_METRIC = MetricsRegistry.getInstance().counter("player.rebuffer");
+    private static final Counter ERROR_METRIC = MetricsRegistry.getInstance().counter("player.error");
+    private static final Gauge BUFFER_METRIC = MetricsRegistry.getInstance().gauge("player.buffer_ms");
+    private static final Gauge LIVE_OFFSET_METRIC = MetricsRegistry.getInstance().gauge("player.live_offset_ms");
+    private static final Gauge BITRATE_METRIC = MetricsRegistry.getInstance().gauge("player.video_bitrate");
+
     private final Context appContext;
 
+    // 直播源地址（默认单直播间，播放器池中每个房间各自指定）
+    private final String mediaUrl;
+
     // 播放器
     private ExoPlayer exoPlayer;
     private PlayerView playerView;
@@ -42,10 +71,91 @@ public class LivePlayerManager {
     private boolean mediaPrepared = false;       // 是否加载 media source
     private boolean firstFrameSeen = false;      // 首帧是否完成
     private long initStartTime = -1;             // 首帧统计
-
+    private volatile boolean autoPlay = true;    // 首帧就绪后是否自动播放（启动页预加载只缓冲不播放）
+    private volatile boolean takeOverPending = false; // 是否在等待预加载播放器构建完成后接管
+    private boolean audioOnly = false;           // 是否处于纯音频模式（视频轨道已关闭）
+    private final List<Runnable> readyActions = new ArrayList<>(); // 首次就绪时执行的回调（主线程）
+    private boolean frameRenderedOnView = false; // 当前绑定的画面是否已渲染出首帧
+    private final List<Runnable> firstFrameActions = new ArrayList<>(); // 画面首帧上屏时执行的回调（主线程）
+    private Player.Listener playerListener;      // 首帧、卡顿、异常监听（接管预加载时转移到接管方）
+    private int ttffTraceId;                     // 首帧异步区间 id（接管预加载后沿用预加载实例的）
+
+    // 直播延迟档位（目标延迟、变速范围由变速控制按档位改写后生效，运行时切换不替换 MediaItem）
+    private volatile LiveLatencyProfile latencyProfile = LiveLatencyProfile.LOW_LATENCY;
+    private ProfileLivePlaybackSpeedControl liveSpeedControl;
+
+    // 带宽估计与清晰度上限控制（初始估计来自按网络类型持久化的历史）
+    private DefaultBandwidthMeter bandwidthMeter;
+    private AdaptiveQualityController qualityController;
+
+    // 播放质量（QoE）会话：首帧、卡顿、码率切换、丢帧、直播延迟、错误恢复
+    private QoeSession qoeSession;
+
+    // 异常分级恢复（退避重试、降档、熔断）
+    private PlayerErrorRecovery errorRecovery;
+
+    // 缓冲时长上报（供网络调度判断是否给直播流让路）
+    private static final long BUFFER_REPORT_INTERVAL_MS = 500;
+    private final Handler bufferReportHandler = new Handler(Looper.getMainLooper());
+    private boolean bufferReporting = false;
+    private final Runnable bufferReportTask = new Runnable() {
+        @Override
+        public void run() {
+            // 已释放或已被接管（exoPlayer 置空）不再上报
+            if (exoPlayer == null) return;
+            // 只有正在播放（可见）且已出首帧的播放器上报，启动页预加载、已停止的播放器不参与；
+            // 首帧前缓冲必然接近 0，上报会让首屏评论、头像被无谓延后（起播阶段不让路）
+            if (firstFrameSeen && exoPlayer.getPlayWhenReady() && exoPlayer.getPlaybackState() != Player.STATE_IDLE) {
+                long bufferedMs = exoPlayer.getTotalBufferedDuration();
+                long liveOffsetMs = getCurrentLiveOffsetMs();
+                NetworkPriorityScheduler.getInstance().updateBufferedDuration(bufferedMs);
+                BUFFER_METRIC.set(bufferedMs);
+                LIVE_OFFSET_METRIC.set(liveOffsetMs);
+                if (qoeSession != null) {
+                    qoeSession.sampleLiveOffset(liveOffsetMs);
+                    BITRATE_METRIC.set(qoeSession.getCurrentVideoBitrate());
+                }
+            }
+            bufferReportHandler.postDelayed(this, BUFFER_REPORT_INTERVAL_MS);
+        }
+    };
 
     public LivePlayerManager(Context context) {
+        this(context, BusinessConstant.LIVE_DASH_URL);
+    }
+
+    public LivePlayerManager(Context context, String mediaUrl) {
         this.appContext = context.getApplicationContext();
+        this.mediaUrl = mediaUrl;
+        this.errorRecovery = new PlayerErrorRecovery(new PlayerErrorRecovery.RecoveryActions() {
+            @Override
+            public void retryKeepingBuffer() {
+                if (exoPlayer == null) return;
+                // 出错后播放器处于 IDLE，直接 prepare 会从当前位置继续加载
+                exoPlayer.prepare();
+            }
+
+            @Override
+            public void rejoinLiveEdge() {
+                if (exoPlayer == null) return;
+                exoPlayer.seekToDefaultPosition();
+                exoPlayer.prepare();
+            }
+
+            @Override
+            public void resetPlayer() {
+                LivePlayerManager.this.resetPlayer();
+            }
+
+            @Override
+            public boolean stepDownRendition() {
+                if (qualityController == null) return false;
+                Format videoFormat = exoPlayer != null ? exoPlayer.getVideoFormat() : null;
+                int bitrate = videoFormat != null ? videoFormat.bitrate
+                        : (qoeSession != null ? qoeSession.getCurrentVideoBitrate() : Format.NO_VALUE);
+                return qualityController.stepDown(bitrate);
+            }
+        });
     }
 
     public static LivePlayerManager getInstance(Context ctx) {
@@ -68,6 +178,10 @@ public class LivePlayerManager {
         if (coreInitialized) return;
 
         coreInitialized = true;
+        Tracer.begin("player.initPlayer");
+        // 首帧异步区间（id 为实例，接管预加载后由接管方的监听结束）
+        ttffTraceId = System.identityHashCode(this);
+        Tracer.asyncBegin("player.ttff", ttffTraceId);
 
         initStartTime = System.currentTimeMillis();
 
@@ -76,15 +190,23 @@ public class LivePlayerManager {
             exoPlayer.release();
         }
 
-        // 1. 轨道选择
+        // 1. 带宽估计：用当前网络类型的历史带宽作为初始值
+        BandwidthHistory bandwidthHistory = new BandwidthHistory(appContext);
+        int networkType = bandwidthHistory.currentNetworkType();
+        long seededEstimate = bandwidthHistory.getEstimate(networkType);
+        DefaultBandwidthMeter.Builder meterBuilder = new DefaultBandwidthMeter.Builder(appContext);
+        if (seededEstimate > 0) {
+            meterBuilder.setInitialBitrateEstimate(seededEstimate);
+        }
+        bandwidthMeter = meterBuilder.build();
+
+        // 2. 轨道选择：自适应码率，SD 上限按带宽动态解除 / 恢复
         DefaultTrackSelector trackSelector = new DefaultTrackSelector(appContext);
-        TrackSelectionParameters params = new TrackSelectionParameters.Builder(appContext)
-                .setMaxVideoSizeSd()
-                .setMaxVideoFrameRate(30)
-                .build();
-        trackSelector.setParameters(params);
+        qualityController = new AdaptiveQualityController(trackSelector, bandwidthHistory, networkType);
+        qualityController.applyInitial(bandwidthMeter.getBitrateEstimate());
+        bandwidthMeter.addEventListener(new Handler(Looper.getMainLooper()), qualityController);
 
-        // 2. 缓冲策略
+        // 3. 缓冲策略
         LoadControl liveLoadControl = new DefaultLoadControl.Builder()
                 .setBufferDurationsMs(
                         3000,   // minBuffer — 保障流畅
@@ -95,21 +217,40 @@ public class LivePlayerManager {
                 .setPrioritizeTimeOverSizeThresholds(true)
                 .build();
 
-        // 3. 构建播放器
+        // 4. 直播延迟控制：偏离目标延迟时微调播放速度追赶 / 回退
+        // 目标延迟、变速范围取当前档位，切换档位时由播放线程重新下发（见 setLatencyProfile）
+        liveSpeedControl = new ProfileLivePlaybackSpeedControl(latencyProfile);
+
+        // 5. 构建播放器：应用线程固定为主线程（可在子线程构建），加载缓冲在专用播放线程
         ExoPlayer.Builder builder = new ExoPlayer.Builder(appContext)
+                .setLooper(Looper.getMainLooper())
+                .setPlaybackLooper(LivePlaybackThread.getLooper())
                 .setTrackSelector(trackSelector)
-                .setLoadControl(liveLoadControl);
+                .setBandwidthMeter(bandwidthMeter)
+                .setLoadControl(liveLoadControl)
+                .setLivePlaybackSpeedControl(liveSpeedControl)
+                // 申请音频焦点：来电、其它应用播放时自动暂停 / 降低音量；拔出耳机时暂停
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(C.USAGE_MEDIA)
+                        .setContentType(C.AUDIO_CONTENT_TYPE_MOVIE)
+                        .build(), true)
+                .setHandleAudioBecomingNoisy(true);
 
         exoPlayer = builder.build();
 
-        // 4. 监听首帧、异常
+        // 6. 监听首帧、异常
         addPlayerListener();
 
+        // 7. QoE 采集（会话起点与首帧统计起点一致）
+        qoeSession = PlaybackQoeCollector.getInstance().startSession(mediaUrl);
+        exoPlayer.addAnalyticsListener(qoeSession);
+
         if (playerView != null) {
             playerView.setPlayer(exoPlayer);
         }
 
         Log.d(TAG, "核心播放器初始化完成（未prepare），耗时：" + (System.currentTimeMillis() - initStartTime) + "ms");
+        Tracer.end();
     }
 
     /**
@@ -126,26 +267,158 @@ public class LivePlayerManager {
             return;
         }
 
-        DefaultHttpDataSource.Factory dataSourceFactory = new DefaultHttpDataSource.Factory()
-                .setUserAgent("Live-Player")
-                .setConnectTimeoutMs(5000)
-                .setReadTimeoutMs(5000)
-                .setAllowCrossProtocolRedirects(true);
+        Tracer.begin("player.prepare");
+        // init 分片、manifest 走磁盘缓存（再次进房秒开，manifest 只在首次加载时使用几秒内的缓存），直播分片直连网络
+        LiveMediaCache mediaCache = LiveMediaCache.getInstance(appContext);
+        DataSource.Factory dataSourceFactory = mediaCache.createDataSourceFactory(createHttpDataSourceFactory());
 
         DashMediaSource dashMediaSource = new DashMediaSource.Factory(dataSourceFactory)
-                .createMediaSource(MediaItem.fromUri(BusinessConstant.LIVE_DASH_URL));
+                .setManifestParser(mediaCache.createManifestParser())
+                .createMediaSource(buildMediaItem(latencyProfile));
 
         exoPlayer.setMediaSource(dashMediaSource);
         exoPlayer.prepare();
 
         mediaPrepared = true;
+        startBufferReport();
         Log.d(TAG, "prepareIfNeeded(): 直播媒体加载开始");
+        Tracer.end();
+    }
+
+    /**
+     * 直播 MediaItem：延迟上下限覆盖所有档位，档位决定目标延迟和变速范围
+     */
+    private MediaItem buildMediaItem(LiveLatencyProfile profile) {
+        return new MediaItem.Builder()
+                .setUri(mediaUrl)
+                .setLiveConfiguration(new MediaItem.LiveConfiguration.Builder()
+                        .setTargetOffsetMs(profile.targetOffsetMs)
+                        .setMinOffsetMs(LiveLatencyProfile.MIN_OFFSET_MS)
+                        .setMaxOffsetMs(LiveLatencyProfile.MAX_OFFSET_MS)
+                        .setMinPlaybackSpeed(profile.minPlaybackSpeed)
+                        .setMaxPlaybackSpeed(profile.maxPlaybackSpeed)
+                        .build())
+                .build();
+    }
+
+    /**
+     * 媒体网络数据源：走全局网络核心（共享连接池，manifest、分片复用同一连接）
+     */
+    @OptIn(markerClass = UnstableApi.class)
+    public static DataSource.Factory createHttpDataSourceFactory() {
+        OkHttpClient mediaClient = NetworkCore.deriveMediaClient(NetworkCore.getInstance().getOkHttpClient());
+        return new OkHttpDataSource.Factory(mediaClient)
+                .setUserAgent("Live-Player");
+    }
+
+    /**
+     * 开始定时上报缓冲时长（在播放器所在的主线程读取）
+     */
+    private void startBufferReport() {
+        bufferReporting = true;
+        bufferReportHandler.removeCallbacks(bufferReportTask);
+        bufferReportHandler.post(bufferReportTask);
+    }
+
+    /**
+     * 停止上报，恢复网络调度为不让路
+     */
+    private void stopBufferReport() {
+        bufferReportHandler.removeCallbacks(bufferReportTask);
+        // 未上报过的实例（如已被接管）不覆盖正在播放的实例上报的值
+        if (!bufferReporting) return;
+        bufferReporting = false;
+        NetworkPriorityScheduler.getInstance().updateBufferedDuration(NetworkPriorityScheduler.BUFFER_UNKNOWN);
+    }
+
+    /**
+     * 运行时切换直播延迟档位（低延迟 / 流畅，需在主线程调用）
+     * 不替换 MediaItem（DASH 源不支持原地更新，替换会重建媒体源并重新缓冲）：
+     * 改由变速控制在播放线程下次取速度时改写目标延迟和变速范围，播放器逐步变速收敛到新目标
+     */
+    public void setLatencyProfile(LiveLatencyProfile profile) {
+        if (profile == null || profile == latencyProfile) return;
+        latencyProfile = profile;
+        if (liveSpeedControl != null) {
+            liveSpeedControl.setProfile(profile);
+        }
+        Log.d(TAG, "切换直播延迟档位：" + profile + "，目标延迟：" + profile.targetOffsetMs + "ms");
+    }
+
+    public LiveLatencyProfile getLatencyProfile() {
+        return latencyProfile;
+    }
+
+    /**
+     * 当前直播延迟（ms），未知返回 C.TIME_UNSET（需在主线程调用）
+     */
+    public long getCurrentLiveOffsetMs() {
+        if (exoPlayer == null || !exoPlayer.isCurrentMediaItemLive()) return C.TIME_UNSET;
+        return exoPlayer.getCurrentLiveOffset();
+    }
+
+    /**
+     * 当前延迟偏离目标延迟的值（ms），正数表示落后于目标，未知返回 C.TIME_UNSET（需在主线程调用）
+     */
+    public long getLiveOffsetDriftMs() {
+        long currentOffsetMs = getCurrentLiveOffsetMs();
+        if (currentOffsetMs == C.TIME_UNSET) return C.TIME_UNSET;
+        // 目标延迟以当前档位为准（窗口里的直播配置仍是 prepare 时 MediaItem 的值，切换档位后不再更新）
+        return currentOffsetMs - latencyProfile.targetOffsetMs;
+    }
+
+    /**
+     * 首次就绪（可出首帧）后执行，已就绪则立即执行（需在主线程调用）
+     */
+    public void runWhenReady(Runnable action) {
+        if (firstFrameSeen) {
+            action.run();
+        } else {
+            readyActions.add(action);
+        }
+    }
+
+    /**
+     * 绑定的画面渲染出首帧（进房可见）后执行，已渲染则立即执行（需在主线程调用）
+     * 启动页预加载阶段没有画面，就绪不代表已上屏，进房场景以此为准
+     */
+    public void runOnFirstFrameRendered(Runnable action) {
+        if (frameRenderedOnView) {
+            action.run();
+        } else {
+            firstFrameActions.add(action);
+        }
+    }
+
+    /**
+     * 当前播放会话的 QoE 指标，播放器未初始化返回 null（需在主线程读取）
+     */
+    public QoeSession getQoeSession() {
+        return qoeSession;
+    }
+
+    /**
+     * 异常恢复状态（熔断后可调用其 retryManually 手动重试）
+     */
+    public PlayerErrorRecovery getErrorRecovery() {
+        return errorRecovery;
+    }
+
+    /**
+     * 监听异常恢复状态（如熔断后提示用户）
+     */
+    public void setRecoveryListener(PlayerErrorRecovery.Listener listener) {
+        errorRecovery.setListener(listener);
     }
 
     /**
      * UI 绑定播放器
      */
     public synchronized  void attachPlayerView(PlayerView view){
+        // 换了新画面需重新等待首帧上屏
+        if (this.playerView != view) {
+            frameRenderedOnView = false;
+        }
         this.playerView = view;
         if (exoPlayer != null){
             view.setPlayer(exoPlayer);
@@ -161,66 +434,70 @@ public class LivePlayerManager {
             playerView.setPlayer(null);
             playerView = null;
         }
+        frameRenderedOnView = false;
     }
 
     /**
      * 添加监听（首帧、其它异常）
      */
     private void addPlayerListener() {
-        exoPlayer.addListener(new Player.Listener() {
+        playerListener = new Player.Listener() {
 
             @Override
             public void onPlaybackStateChanged(int state) {
+                if (state == Player.STATE_BUFFERING) {
+                    Tracer.instant("player.buffering");
+                } else if (state == Player.STATE_READY) {
+                    Tracer.instant("player.ready");
+                }
+                // 首帧之后再次缓冲视为卡顿，恢复 SD 上限
+                if (firstFrameSeen && state == Player.STATE_BUFFERING) {
+                    REBUFFER_METRIC.inc();
+                    if (qualityController != null) {
+                        qualityController.onRebuffer();
+                    }
+                }
+                if (state == Player.STATE_READY) {
+                    errorRecovery.onPlaybackReady();
+                }
                 if (!firstFrameSeen && state == Player.STATE_READY) {
                     firstFrameSeen = true;
                     int ttffMs = (int) (System.currentTimeMillis() - initStartTime);
                     Log.d(TAG, "首帧渲染时间 TTFF = " + ttffMs + " ms");
+                    TTFF_METRIC.record(ttffMs);
+                    Tracer.asyncEnd("player.ttff", ttffTraceId);
+                    for (Runnable action : new ArrayList<>(readyActions)) {
+                        action.run();
+                    }
+                    readyActions.clear();
 
                     // 播放器自动播放
-                    if (!exoPlayer.isPlaying()) {
+                    if (autoPlay && !exoPlayer.isPlaying()) {
                         exoPlayer.play();
                     }
                 }
             }
 
             @Override
-            public void onPlayerError(PlaybackException error) {
-                handlePlayerError(error);
+            public void onRenderedFirstFrame() {
+                // 只统计渲染到已绑定画面上的首帧
+                if (playerView == null || frameRenderedOnView) return;
+                frameRenderedOnView = true;
+                Tracer.instant("player.first_frame_rendered");
+                for (Runnable action : new ArrayList<>(firstFrameActions)) {
+                    action.run();
+                }
+                firstFrameActions.clear();
             }
-        });
-    }
 
-    /**
-     * 直播异常分类处理
-     */
-    private void handlePlayerError(PlaybackException error) {
-        int code = error.errorCode;
-
-        // 直播窗口越界 —— 最常见
-        if (code == PlaybackException.ERROR_CODE_BEHIND_LIVE_WINDOW) {
-            Log.e(TAG, "BEHIND_LIVE_WINDOW，重置播放器追赶直播");
-            resetPlayer();
-            return;
-        }
-
-        // 网络问题
-        if (code == PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED ||
-            code == PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_TIMEOUT) {
-            Log.e(TAG, "网络异常，稍后重试：" + error);
-            retryWithDelay();
-            return;
-        }
-
-        // 解码器问题
-        if (code == PlaybackException.ERROR_CODE_DECODING_FAILED) {
-            Log.e(TAG, "解码器崩溃，重置播放器");
-            resetPlayer();
-            return;
-        }
-
-        // 未知错误 —— 最后兜底
-        Log.e(TAG, "未知异常：" + error);
-        resetPlayer();
+            @Override
+            public void onPlayerError(PlaybackException error) {
+                ERROR_METRIC.inc();
+                Tracer.instant("player.error");
+                errorRecovery.onPlayerError(error);
+            }
+        };
+        exoPlayer.addListener(playerListener);
     }
 
     /**
@@ -235,20 +512,14 @@ public class LivePlayerManager {
             exoPlayer.stop();
             exoPlayer.seekToDefaultPosition();  // 跳转到最新直播点
             exoPlayer.prepare();
-            exoPlayer.play();
+            if (autoPlay) {
+                exoPlayer.play();
+            }
         } catch (Exception e) {
             Log.e(TAG, "resetPlayer() 出错", e);
         }
     }
 
-    /**
-     * 延迟 1 秒重试
-     */
-    private void retryWithDelay() {
-        Handler handler = new Handler(Looper.getMainLooper());
-        handler.postDelayed(this::resetPlayer, 1000);
-    }
-
     /**
      * 暂停
      */
@@ -267,20 +538,79 @@ public class LivePlayerManager {
         }
     }
 
+    /**
+     * 进入纯音频模式（切后台时调用）：关闭视频轨道，不再下载、解码视频，只继续播放声音，
+     * 保持贴近直播点，回到前台无需重新加载
+     */
+    public void enterAudioOnlyMode() {
+        if (exoPlayer == null || audioOnly) return;
+        audioOnly = true;
+        setVideoTrackDisabled(true);
+        resume();
+        Log.d(TAG, "进入纯音频模式");
+    }
+
+    /**
+     * 退出纯音频模式（回到前台时调用）：恢复视频轨道
+     */
+    public void exitAudioOnlyMode() {
+        if (exoPlayer == null || !audioOnly) return;
+        audioOnly = false;
+        setVideoTrackDisabled(false);
+        Log.d(TAG, "退出纯音频模式，恢复视频");
+    }
+
+    public boolean isAudioOnly() {
+        return audioOnly;
+    }
+
+    // 在现有参数上修改（保留清晰度上限等设置）
+    private void setVideoTrackDisabled(boolean disabled) {
+        exoPlayer.setTrackSelectionParameters(exoPlayer.getTrackSelectionParameters()
+                .buildUpon()
+                .setTrackTypeDisabled(C.TRACK_TYPE_VIDEO, disabled)
+                .build());
+    }
+
     /**
      * 完整释放资源
      */
     public void release() {
+        takeOverPending = false;
+        releasePlayer();
+        detachPlayerView();
+        firstFrameActions.clear();
+        Log.d(TAG, "播放器资源释放完成");
+    }
+
+    /**
+     * 释放播放器及其核心资源、重置状态（保留 UI 绑定）
+     */
+    private void releasePlayer() {
+        stopBufferReport();
+        errorRecovery.cancel();
         if (exoPlayer != null) {
             exoPlayer.release();
             exoPlayer = null;
         }
-        detachPlayerView();
+        playerListener = null;
+        if (qoeSession != null) {
+            PlaybackQoeCollector.getInstance().endSession(qoeSession);
+            qoeSession = null;
+        }
+        if (qualityController != null) {
+            qualityController.persist();
+            bandwidthMeter.removeEventListener(qualityController);
+            qualityController = null;
+            bandwidthMeter = null;
+        }
+        liveSpeedControl = null;
         coreInitialized = false;
         mediaPrepared = false;
         firstFrameSeen = false;
+        readyActions.clear();
+        audioOnly = false;
         initStartTime = -1;
-        Log.d(TAG, "播放器资源释放完成");
     }
 
 
@@ -304,6 +634,30 @@ public class LivePlayerManager {
     public void initPlayerWithPreload(PlayerView playerView) {
         this.playerView = playerView;
 
+        // 预加载播放器仍在构建（启动页超时提前退出）：等待构建完成再接管，避免重复创建
+        LivePreloadManager preloadManager = LivePreloadManager.getInstance();
+        if (preloadManager.isPreloadStarted() && !preloadManager.isPlayerInited()) {
+            Log.d(TAG, "预加载播放器构建中，等待完成后接管");
+            takeOverPending = true;
+            preloadManager.getPlayerInitFuture().observe(player -> {
+                // 等待期间已释放（页面退出），不再接管
+                if (!takeOverPending) return;
+                takeOverPending = false;
+                takeOverPreload(playerView);
+            });
+            return;
+        }
+        takeOverPreload(playerView);
+    }
+
+    /**
+     * 是否在等待接管预加载播放器（期间播放器为空，但不应另建播放器）
+     */
+    public boolean isTakeOverPending() {
+        return takeOverPending;
+    }
+
+    private void takeOverPreload(PlayerView playerView) {
         // 1. 获取预加载管理器，尝试复用预加载实例
         LivePreloadManager preloadManager = LivePreloadManager.getInstance();
         LivePlayerManager preloadPlayer = preloadManager.getPreloadPlayer();
@@ -311,14 +665,18 @@ public class LivePlayerManager {
         if (preloadPlayer != null && !preloadPlayer.isPlayerNull()){
             // 场景1：复用预加载的播放器实例
             Log.d(TAG, "复用预加载的播放器实例");
-            // 接管预加载的实例的核心资源
-            this.exoPlayer = preloadPlayer.getExoPlayer();
-            this.coreInitialized = preloadPlayer.coreInitialized;
-            this.mediaPrepared = preloadPlayer.mediaPrepared;
+            // 当前实例已自建播放器（如等待期间被兜底创建）时先释放，避免被覆盖后泄漏
+            if (exoPlayer != null) {
+                Log.w(TAG, "接管前释放当前实例已有的播放器");
+                releasePlayer();
+            }
+            adoptPlayer(preloadPlayer);
 
-            // 绑定控件 + 继续加载 + 恢复播放
+            // 启动页已完成 prepare 和缓冲，这里只绑定画面并开始播放；
+            // 预加载的 prepare 尚未执行时在此补上；缓冲上报改由当前实例负责
             attachPlayerView(playerView);
             prepareIfNeeded();
+            startBufferReport();
             resume();
         }else {
             // 场景2：预加载失败，异步兜底初始化
@@ -336,7 +694,71 @@ public class LivePlayerManager {
         }
     }
 
-    private ExoPlayer getExoPlayer() {
+    /**
+     * 接管预加载实例的播放器及其核心资源：监听、缓冲上报、异常恢复都改由当前实例负责，
+     * 预加载实例停止上报并置空引用（不释放播放器），之后不再影响已接管的播放器
+     */
+    private void adoptPlayer(LivePlayerManager source) {
+        // 1. 预加载实例停止上报、取消恢复，移除其监听
+        source.stopBufferReport();
+        source.errorRecovery.cancel();
+        ExoPlayer player = source.exoPlayer;
+        if (source.playerListener != null) {
+            player.removeListener(source.playerListener);
+        }
+
+        // 2. 转移核心资源与状态
+        this.exoPlayer = player;
+        this.bandwidthMeter = source.bandwidthMeter;
+        this.qualityController = source.qualityController;
+        this.liveSpeedControl = source.liveSpeedControl;
+        this.qoeSession = source.qoeSession;
+        this.coreInitialized = source.coreInitialized;
+        this.mediaPrepared = source.mediaPrepared;
+        this.firstFrameSeen = source.firstFrameSeen;
+        this.initStartTime = source.initStartTime;
+        this.ttffTraceId = source.ttffTraceId;
+        // 尚未就绪时登记的回调（如启动任务等待就绪）随监听一起转移
+        readyActions.addAll(source.readyActions);
+
+        // 3. 预加载实例置空引用，其后续的释放、上报都不再触及已接管的播放器
+        source.exoPlayer = null;
+        source.playerListener = null;
+        source.bandwidthMeter = null;
+        source.qualityController = null;
+        source.liveSpeedControl = null;
+        source.qoeSession = null;
+        source.readyActions.clear();
+
+        // 4. 变速控制改用当前实例的档位；监听、恢复动作绑定到当前实例；接管时已处于出错状态则交给当前实例的恢复状态机
+        if (liveSpeedControl != null) {
+            liveSpeedControl.setProfile(latencyProfile);
+        }
+        addPlayerListener();
+        PlaybackException pendingError = exoPlayer.getPlayerError();
+        if (pendingError != null) {
+            errorRecovery.onPlayerError(pendingError);
+        }
+    }
+
+    /**
+     * 设置首帧就绪后是否自动播放
+     */
+    public void setAutoPlay(boolean autoPlay) {
+        this.autoPlay = autoPlay;
+    }
+
+    public String getMediaUrl() {
+        return mediaUrl;
+    }
+
+    // 供播放器池转移画面、跳回直播点
+    ExoPlayer getExoPlayer() {
         return exoPlayer;
     }
+
+    // 供播放器池判断控件当前归属
+    synchronized PlayerView getPlayerView() {
+        return playerView;
+    }
 }
@@ -0,0 +1,227 @@
+package com.bytedance.tictok_live.utils.player;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.ui.PlayerView;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多直播间播放器池（单例，仅在主线程使用）
+ *
+ * 为当前房间和相邻房间保持已 prepare 的播放器，上下滑切换房间时直接切换画面，无需释放重建：
+ *  1. 只有可见房间播放（解码、渲染），其余房间暂停，只保留已缓冲的数据
+ *  2. 超出数量上限或内存预算时，按 LRU 淘汰最久未使用的非可见房间
+ *  3. 画面通过 PlayerView.switchTargetView 在控件间转移，避免黑屏
+ *  4. 一个控件同一时刻只属于一个房间：绑定前先从池中原先的持有者解绑（列表复用控件时不会两个播放器抢同一画面）
+ * 供多房间信息流使用，单直播间页面仍直接使用 {@link LivePlayerManager}
+ */
+public class LivePlayerPool {
+    private static final String TAG = "LivePlayerPool";
+
+    // 默认最多保留的播放器数量（当前 + 上下相邻房间）
+    private static final int DEFAULT_MAX_PLAYERS = 3;
+    // 默认内存预算
+    private static final long DEFAULT_MEMORY_BUDGET_BYTES = 64L * 1024 * 1024;
+    // 单个播放器的估算占用（解码器、缓冲区、渲染表面）
+    private static final long ESTIMATED_PLAYER_BYTES = 20L * 1024 * 1024;
+    // 后台房间切回前台时，落后直播点超过该值则直接跳到最新直播点
+    private static final long MAX_RESUME_LIVE_OFFSET_MS = 10_000;
+
+    private static volatile LivePlayerPool instance;
+
+    private final Context appContext;
+
+    // 房间地址 -> 播放器，accessOrder = true 即 LRU 顺序
+    private final LinkedHashMap<String, LivePlayerManager> players = new LinkedHashMap<>(8, 0.75f, true);
+
+    private int maxPlayers = DEFAULT_MAX_PLAYERS;
+    private long memoryBudgetBytes = DEFAULT_MEMORY_BUDGET_BYTES;
+
+    // 当前可见房间及其控件
+    private String visibleRoomUrl;
+    private PlayerView visiblePlayerView;
+
+    private LivePlayerPool(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    public static LivePlayerPool getInstance(Context ctx) {
+        if (instance == null) {
+            synchronized (LivePlayerPool.class) {
+                if (instance == null) {
+                    instance = new LivePlayerPool(ctx.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 设置最大播放器数量
+     */
+    @MainThread
+    public void setMaxPlayers(int maxPlayers) {
+        this.maxPlayers = Math.max(1, maxPlayers);
+        trimToBudget();
+    }
+
+    /**
+     * 设置内存预算
+     */
+    @MainThread
+    public void setMemoryBudgetBytes(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        trimToBudget();
+    }
+
+    /**
+     * 切换到某个房间：复用或新建播放器，把画面转移到目标控件并开始播放
+     * @param roomUrl 直播源地址
+     * @param playerView 目标控件
+     */
+    @MainThread
+    public LivePlayerManager switchTo(String roomUrl, PlayerView playerView) {
+        LivePlayerManager target = obtain(roomUrl);
+
+        // 1. 旧的可见房间转入后台：暂停，保留缓冲，并解除控件绑定
+        LivePlayerManager previous = visibleRoomUrl != null ? players.get(visibleRoomUrl) : null;
+        if (previous != null && previous != target) {
+            moveToBackground(previous);
+            previous.detachPlayerView();
+        }
+
+        // 2. 画面转移到目标控件（同一房间换控件时直接转移画面，避免黑屏）
+        ExoPlayer player = target.getExoPlayer();
+        if (previous == target && visiblePlayerView != null && visiblePlayerView != playerView) {
+            PlayerView.switchTargetView(player, visiblePlayerView, playerView);
+        }
+        handOverView(playerView, target);
+        target.attachPlayerView(playerView);
+        visibleRoomUrl = roomUrl;
+        visiblePlayerView = playerView;
+
+        // 3. 开始播放，后台期间落后直播点太多则直接跳到最新
+        target.setAutoPlay(true);
+        long liveOffsetMs = target.getCurrentLiveOffsetMs();
+        if (liveOffsetMs != C.TIME_UNSET && liveOffsetMs > MAX_RESUME_LIVE_OFFSET_MS) {
+            player.seekToDefaultPosition();
+        }
+        target.resume();
+
+        trimToBudget();
+        Log.d(TAG, "切换到房间：" + roomUrl + "，池中播放器数：" + players.size());
+        return target;
+    }
+
+    /**
+     * 预备相邻房间：创建并 prepare，但不播放
+     */
+    @MainThread
+    public void prepareAdjacent(List<String> roomUrls) {
+        for (String roomUrl : roomUrls) {
+            if (roomUrl.equals(visibleRoomUrl)) continue;
+            LivePlayerManager manager = players.get(roomUrl);
+            if (manager == null) {
+                manager = obtain(roomUrl);
+                moveToBackground(manager);
+            }
+        }
+        trimToBudget();
+    }
+
+    /**
+     * 获取某房间的播放器（不存在返回 null，会刷新 LRU 顺序）
+     */
+    @Nullable
+    @MainThread
+    public LivePlayerManager get(String roomUrl) {
+        return players.get(roomUrl);
+    }
+
+    /**
+     * 释放某房间的播放器
+     */
+    @MainThread
+    public void release(String roomUrl) {
+        LivePlayerManager manager = players.remove(roomUrl);
+        if (manager == null) return;
+        if (roomUrl.equals(visibleRoomUrl)) {
+            visibleRoomUrl = null;
+            visiblePlayerView = null;
+        }
+        manager.release();
+        Log.d(TAG, "释放房间播放器：" + roomUrl);
+    }
+
+    /**
+     * 释放全部播放器
+     */
+    @MainThread
+    public void releaseAll() {
+        for (LivePlayerManager manager : new ArrayList<>(players.values())) {
+            manager.release();
+        }
+        players.clear();
+        visibleRoomUrl = null;
+        visiblePlayerView = null;
+        Log.d(TAG, "播放器池已全部释放");
+    }
+
+    /**
+     * 池中播放器的估算内存占用
+     */
+    public long getEstimatedMemoryBytes() {
+        return players.size() * ESTIMATED_PLAYER_BYTES;
+    }
+
+    // 取出或新建房间播放器（新建的立即开始 prepare 缓冲）
+    private LivePlayerManager obtain(String roomUrl) {
+        LivePlayerManager manager = players.get(roomUrl);
+        if (manager == null || manager.isPlayerNull()) {
+            manager = new LivePlayerManager(appContext, roomUrl);
+            manager.setAutoPlay(false);
+            manager.initPlayer();
+            manager.prepareIfNeeded();
+            players.put(roomUrl, manager);
+            Log.d(TAG, "新建房间播放器：" + roomUrl);
+        }
+        return manager;
+    }
+
+    // 控件交给 owner 前，让池中其它仍绑定该控件的播放器解绑
+    private void handOverView(PlayerView playerView, LivePlayerManager owner) {
+        for (LivePlayerManager manager : players.values()) {
+            if (manager != owner && manager.getPlayerView() == playerView) {
+                manager.detachPlayerView();
+            }
+        }
+    }
+
+    // 转入后台：暂停解码渲染，保留已缓冲的数据
+    private void moveToBackground(LivePlayerManager manager) {
+        manager.setAutoPlay(false);
+        manager.pause();
+    }
+
+    // 超出数量上限或内存预算时，按 LRU 顺序淘汰非可见房间
+    private void trimToBudget() {
+        Iterator<Map.Entry<String, LivePlayerManager>> iterator = players.entrySet().iterator();
+        while ((players.size() > maxPlayers || getEstimatedMemoryBytes() > memoryBudgetBytes) && iterator.hasNext()) {
+            Map.Entry<String, LivePlayerManager> eldest = iterator.next();
+            if (eldest.getKey().equals(visibleRoomUrl)) continue;
+            iterator.remove();
+            eldest.getValue().release();
+            Log.d(TAG, "LRU 淘汰房间播放器：" + eldest.getKey());
+        }
+    }
+}
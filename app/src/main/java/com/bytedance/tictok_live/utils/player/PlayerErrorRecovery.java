@@ -0,0 +1,293 @@
+package com.bytedance.tictok_live.utils.player;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.Nullable;
+import androidx.media3.common.PlaybackException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 播放器异常分级恢复（状态机，仅在主线程使用）
+ *
+ *  1. 网络类异常：指数退避 + 随机抖动重试，只重新 prepare，不 stop、不 seek，保留已缓冲数据
+ *  2. 落后直播窗口：立即跳回最新直播点重新加载
+ *  3. 解码异常：连续失败达到阈值后降低一档清晰度，再重置播放器
+ *  4. 其它异常：退避后重置播放器
+ *  熔断：时间窗口内失败次数过多进入 FAILED 终态，不再自动重试，由上层提示用户并决定是否 {@link #retryManually()}
+ *
+ * 具体的恢复动作由 {@link RecoveryActions} 提供，状态机本身不直接操作播放器
+ */
+public class PlayerErrorRecovery {
+    private static final String TAG = "PlayerErrorRecovery";
+
+    // 退避：基准、上限（第 n 次重试约为 base * 2^n，取其 [1/2, 1] 之间的随机值）
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 8000;
+    // 连续解码失败达到该次数时降档
+    private static final int DECODER_STEP_DOWN_THRESHOLD = 2;
+    // 熔断：窗口内失败次数上限
+    private static final int CIRCUIT_MAX_FAILURES = 6;
+    private static final long CIRCUIT_WINDOW_MS = 60_000;
+
+    public enum State {
+        HEALTHY,     // 正常播放
+        RECOVERING,  // 恢复中（等待重试或等待重新就绪）
+        FAILED       // 熔断，不再自动恢复
+    }
+
+    /**
+     * 恢复动作（由播放器管理类实现，在主线程回调）
+     */
+    public interface RecoveryActions {
+        // 保留缓冲重新加载
+        void retryKeepingBuffer();
+
+        // 跳到最新直播点重新加载
+        void rejoinLiveEdge();
+
+        // 完整重置播放器
+        void resetPlayer();
+
+        // 降低一档清晰度，已无法再降返回 false
+        boolean stepDownRendition();
+    }
+
+    /**
+     * 延迟执行与时钟（默认主线程 Handler + SystemClock，单元测试中替换为手动推进的实现）
+     */
+    interface Scheduler {
+        long now();
+
+        void postDelayed(Runnable task, long delayMs);
+
+        void cancelAll();
+    }
+
+    private static class MainThreadScheduler implements Scheduler {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public long now() {
+            return SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            handler.postDelayed(task, delayMs);
+        }
+
+        @Override
+        public void cancelAll() {
+            handler.removeCallbacksAndMessages(null);
+        }
+    }
+
+    /**
+     * 状态变化监听（主线程回调）
+     */
+    public interface Listener {
+        void onRecoveryStateChanged(State state, @Nullable PlaybackException lastError);
+    }
+
+    private final RecoveryActions actions;
+    private final Scheduler scheduler;
+
+    private State state = State.HEALTHY;
+    private Listener listener;
+    private PlaybackException lastError;
+
+    // 本轮恢复已重试次数（决定退避时长）
+    private int attempt = 0;
+    // 连续解码失败次数
+    private int consecutiveDecoderFailures = 0;
+    // 窗口内的失败时间点（熔断判断）
+    private final ArrayDeque<Long> failureTimes = new ArrayDeque<>();
+
+    // 恢复耗时统计：本轮首次出错时间、最近一次、累计
+    private long episodeStartMs = -1;
+    private long lastTimeToRecoverMs = -1;
+    private long totalTimeToRecoverMs = 0;
+    private int recoveredCount = 0;
+
+    public PlayerErrorRecovery(RecoveryActions actions) {
+        this(actions, new MainThreadScheduler());
+    }
+
+    PlayerErrorRecovery(RecoveryActions actions, Scheduler scheduler) {
+        this.actions = actions;
+        this.scheduler = scheduler;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Nullable
+    public Listener getListener() {
+        return listener;
+    }
+
+    /**
+     * 播放器报错
+     */
+    @MainThread
+    public void onPlayerError(PlaybackException error) {
+        lastError = error;
+        if (state == State.FAILED) return;
+
+        long now = scheduler.now();
+        if (episodeStartMs < 0) {
+            episodeStartMs = now;
+        }
+
+        // 熔断判断
+        failureTimes.addLast(now);
+        while (!failureTimes.isEmpty() && now - failureTimes.peekFirst() > CIRCUIT_WINDOW_MS) {
+            failureTimes.removeFirst();
+        }
+        if (failureTimes.size() >= CIRCUIT_MAX_FAILURES) {
+            Log.e(TAG, CIRCUIT_WINDOW_MS / 1000 + "s 内失败 " + failureTimes.size() + " 次，熔断停止自动恢复：" + error);
+            scheduler.cancelAll();
+            setState(State.FAILED);
+            return;
+        }
+
+        setState(State.RECOVERING);
+        scheduler.cancelAll();
+
+        int code = error.errorCode;
+        // 1. 落后直播窗口：无需等待，直接回到直播点
+        if (code == PlaybackException.ERROR_CODE_BEHIND_LIVE_WINDOW) {
+            Log.w(TAG, "BEHIND_LIVE_WINDOW，跳回最新直播点");
+            consecutiveDecoderFailures = 0;
+            attempt++;
+            actions.rejoinLiveEdge();
+            return;
+        }
+
+        long delayMs = nextBackoffMs();
+        attempt++;
+
+        // 2. 网络、IO 类（2xxx）：保留缓冲退避重试
+        if (isTransientNetworkError(code)) {
+            consecutiveDecoderFailures = 0;
+            Log.w(TAG, "网络异常，" + delayMs + "ms 后第 " + attempt + " 次重试：" + error.getErrorCodeName());
+            scheduler.postDelayed(actions::retryKeepingBuffer, delayMs);
+            return;
+        }
+
+        // 3. 解码类（4xxx）：连续失败则先降档
+        if (isDecoderError(code)) {
+            consecutiveDecoderFailures++;
+            if (consecutiveDecoderFailures >= DECODER_STEP_DOWN_THRESHOLD) {
+                boolean stepped = actions.stepDownRendition();
+                Log.w(TAG, "解码连续失败 " + consecutiveDecoderFailures + " 次，降低清晰度：" + (stepped ? "成功" : "已是最低档"));
+                consecutiveDecoderFailures = 0;
+            }
+            Log.w(TAG, "解码异常，" + delayMs + "ms 后重置播放器：" + error.getErrorCodeName());
+            scheduler.postDelayed(actions::resetPlayer, delayMs);
+            return;
+        }
+
+        // 4. 其它：退避后重置
+        Log.e(TAG, "未知异常，" + delayMs + "ms 后重置播放器：" + error);
+        scheduler.postDelayed(actions::resetPlayer, delayMs);
+    }
+
+    /**
+     * 播放器就绪：结束本轮恢复并记录恢复耗时；解码失败的连续计数随之清零
+     */
+    @MainThread
+    public void onPlaybackReady() {
+        consecutiveDecoderFailures = 0;
+        if (episodeStartMs >= 0) {
+            lastTimeToRecoverMs = scheduler.now() - episodeStartMs;
+            totalTimeToRecoverMs += lastTimeToRecoverMs;
+            recoveredCount++;
+            episodeStartMs = -1;
+            Log.d(TAG, "恢复成功，耗时：" + lastTimeToRecoverMs + "ms，重试次数：" + attempt);
+        }
+        attempt = 0;
+        if (state == State.RECOVERING) {
+            setState(State.HEALTHY);
+        }
+    }
+
+    /**
+     * 熔断后手动重试（如用户点击重试、页面回到前台）
+     */
+    @MainThread
+    public void retryManually() {
+        if (state != State.FAILED) return;
+        failureTimes.clear();
+        attempt = 0;
+        consecutiveDecoderFailures = 0;
+        setState(State.RECOVERING);
+        actions.resetPlayer();
+    }
+
+    /**
+     * 取消待执行的重试，状态复位（释放播放器时调用）
+     */
+    @MainThread
+    public void cancel() {
+        scheduler.cancelAll();
+        failureTimes.clear();
+        attempt = 0;
+        consecutiveDecoderFailures = 0;
+        episodeStartMs = -1;
+        state = State.HEALTHY;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    @Nullable
+    public PlaybackException getLastError() {
+        return lastError;
+    }
+
+    // 最近一次恢复耗时（首次出错到重新就绪），没有返回 -1
+    public long getLastTimeToRecoverMs() {
+        return lastTimeToRecoverMs;
+    }
+
+    // 平均恢复耗时，没有返回 -1
+    public long getAverageTimeToRecoverMs() {
+        return recoveredCount == 0 ? -1 : totalTimeToRecoverMs / recoveredCount;
+    }
+
+    public int getRecoveredCount() {
+        return recoveredCount;
+    }
+
+    private long nextBackoffMs() {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt, 10));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private void setState(State newState) {
+        if (state == newState) return;
+        state = newState;
+        if (listener != null) {
+            listener.onRecoveryStateChanged(newState, lastError);
+        }
+    }
+
+    // 2xxx：IO 类（网络连接、超时、HTTP 状态等），以及通用超时
+    private static boolean isTransientNetworkError(int code) {
+        return (code >= 2000 && code < 3000) || code == PlaybackException.ERROR_CODE_TIMEOUT;
+    }
+
+    // 4xxx：解码类
+    private static boolean isDecoderError(int code) {
+        return code >= 4000 && code < 5000;
+    }
+}
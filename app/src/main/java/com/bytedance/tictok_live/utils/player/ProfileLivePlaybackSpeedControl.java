@@ -0,0 +1,88 @@
+package com.bytedance.tictok_live.utils.player;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DefaultLivePlaybackSpeedControl;
+import androidx.media3.exoplayer.LivePlaybackSpeedControl;
+
+/**
+ * 按直播延迟档位变速追帧：包装 DefaultLivePlaybackSpeedControl，把播放器下发的直播配置
+ * 改写为当前档位的目标延迟和变速范围（延迟上下限保留 MediaItem / manifest 的值）
+ *
+ * 档位可在主线程随时切换，播放线程下次取速度时重新下发配置，不替换 MediaItem、不重新缓冲
+ * 除 {@link #setProfile} 外的方法都由播放器在播放线程调用
+ */
+@OptIn(markerClass = UnstableApi.class)
+class ProfileLivePlaybackSpeedControl implements LivePlaybackSpeedControl {
+
+    private final DefaultLivePlaybackSpeedControl delegate;
+
+    // 主线程写、播放线程读
+    private volatile LiveLatencyProfile profile;
+
+    // 以下仅在播放线程访问
+    private MediaItem.LiveConfiguration mediaConfiguration; // 播放器下发的原始配置（未下发时为 null）
+    private LiveLatencyProfile appliedProfile;              // 已下发给 delegate 的档位
+
+    ProfileLivePlaybackSpeedControl(LiveLatencyProfile profile) {
+        this.profile = profile;
+        // 兜底变速范围：直播配置未指定变速范围时使用（档位切换后由改写的配置覆盖）
+        this.delegate = new DefaultLivePlaybackSpeedControl.Builder()
+                .setFallbackMinPlaybackSpeed(profile.minPlaybackSpeed)
+                .setFallbackMaxPlaybackSpeed(profile.maxPlaybackSpeed)
+                .build();
+    }
+
+    /**
+     * 切换档位（任意线程），播放线程下次取速度时生效
+     */
+    void setProfile(LiveLatencyProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public void setLiveConfiguration(MediaItem.LiveConfiguration liveConfiguration) {
+        mediaConfiguration = liveConfiguration;
+        apply(profile);
+    }
+
+    @Override
+    public void setTargetLiveOffsetOverrideUs(long liveOffsetUs) {
+        delegate.setTargetLiveOffsetOverrideUs(liveOffsetUs);
+    }
+
+    @Override
+    public void notifyRebuffer() {
+        delegate.notifyRebuffer();
+    }
+
+    @Override
+    public float getAdjustedPlaybackSpeed(long liveOffsetUs, long bufferedDurationUs) {
+        applyIfChanged();
+        return delegate.getAdjustedPlaybackSpeed(liveOffsetUs, bufferedDurationUs);
+    }
+
+    @Override
+    public long getTargetLiveOffsetUs() {
+        applyIfChanged();
+        return delegate.getTargetLiveOffsetUs();
+    }
+
+    private void applyIfChanged() {
+        LiveLatencyProfile current = profile;
+        if (current != appliedProfile && mediaConfiguration != null) {
+            apply(current);
+        }
+    }
+
+    // 下发改写后的配置（delegate 会重置变速状态，从当前延迟开始向新目标收敛）
+    private void apply(LiveLatencyProfile current) {
+        appliedProfile = current;
+        delegate.setLiveConfiguration(mediaConfiguration.buildUpon()
+                .setTargetOffsetMs(current.targetOffsetMs)
+                .setMinPlaybackSpeed(current.minPlaybackSpeed)
+                .setMaxPlaybackSpeed(current.maxPlaybackSpeed)
+                .build());
+    }
+}
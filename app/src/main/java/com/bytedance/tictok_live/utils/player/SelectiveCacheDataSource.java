@@ -0,0 +1,115 @@
+package com.bytedance.tictok_live.utils.player;
+
+import android.net.Uri;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+import androidx.media3.datasource.cache.CacheDataSource;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按请求类型选择数据源：init 分片、manifest 走缓存，媒体分片直连网络
+ *
+ * 同一个 Factory（一个播放器）只有第一次加载 manifest 可以使用时效内的缓存；
+ * 之后的刷新先使缓存失效再经缓存链路拉取，保证直播 manifest 实时，同时给下次进房留下最新的一份
+ */
+@OptIn(markerClass = UnstableApi.class)
+class SelectiveCacheDataSource implements DataSource {
+
+    private final LiveMediaCache mediaCache;
+    private final DataSource directSource;
+    private final CacheDataSource cachedSource;
+    // 所属播放器是否已加载过 manifest
+    private final AtomicBoolean manifestLoaded;
+
+    // 本次 open 选中的数据源
+    @Nullable
+    private DataSource currentSource;
+
+    private SelectiveCacheDataSource(LiveMediaCache mediaCache, DataSource.Factory upstreamFactory,
+                                     AtomicBoolean manifestLoaded) {
+        this.mediaCache = mediaCache;
+        this.manifestLoaded = manifestLoaded;
+        this.directSource = upstreamFactory.createDataSource();
+        this.cachedSource = new CacheDataSource(mediaCache.getCache(), upstreamFactory.createDataSource());
+    }
+
+    @Override
+    public void addTransferListener(TransferListener transferListener) {
+        // 两条链路都要上报传输数据（带宽估计）
+        directSource.addTransferListener(transferListener);
+        cachedSource.addTransferListener(transferListener);
+    }
+
+    @Override
+    public long open(DataSpec dataSpec) throws IOException {
+        Uri uri = dataSpec.uri;
+
+        if (mediaCache.isInitSegment(uri)) {
+            mediaCache.expireIfStale(uri.toString(), LiveMediaCache.INIT_SEGMENT_TTL_MS);
+            currentSource = cachedSource;
+        } else if (mediaCache.isCachedManifest(uri)) {
+            // 首次加载（进房）可用时效内的缓存，之后的刷新总是从网络拉取最新
+            mediaCache.prepareManifestLoad(uri.toString(), manifestLoaded.compareAndSet(false, true));
+            currentSource = cachedSource;
+        } else {
+            currentSource = directSource;
+        }
+        return currentSource.open(dataSpec);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (currentSource == null) {
+            throw new IOException("数据源未打开");
+        }
+        return currentSource.read(buffer, offset, length);
+    }
+
+    @Nullable
+    @Override
+    public Uri getUri() {
+        return currentSource != null ? currentSource.getUri() : null;
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        return currentSource != null ? currentSource.getResponseHeaders() : Collections.emptyMap();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (currentSource != null) {
+            try {
+                currentSource.close();
+            } finally {
+                currentSource = null;
+            }
+        }
+    }
+
+    static class Factory implements DataSource.Factory {
+        private final LiveMediaCache mediaCache;
+        private final DataSource.Factory upstreamFactory;
+        private final AtomicBoolean manifestLoaded = new AtomicBoolean(false);
+
+        Factory(LiveMediaCache mediaCache, DataSource.Factory upstreamFactory) {
+            this.mediaCache = mediaCache;
+            this.upstreamFactory = upstreamFactory;
+        }
+
+        @Override
+        public DataSource createDataSource() {
+            return new SelectiveCacheDataSource(mediaCache, upstreamFactory, manifestLoaded);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.bytedance.tictok_live.utils.player.qoe;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 播放 QoE 采集（单例）
+ *
+ * 每次播放（一个播放器实例）对应一个 {@link QoeSession}，结束后归档到最近会话列表，
+ * 可选追加一行紧凑记录到磁盘日志，便于对比不同播放器调优方案
+ */
+public class PlaybackQoeCollector {
+    private static final String TAG = "PlaybackQoe";
+
+    // 磁盘日志：CSV 格式，超过上限后轮转为 .1
+    private static final String LOG_FILE_NAME = "qoe_sessions.csv";
+    private static final long MAX_LOG_BYTES = 256 * 1024;
+    static final String LOG_HEADER = "startTime,durationMs,ttffMs,rebufferCount,rebufferMs,"
+            + "bitrateSwitches,droppedFrames,errors,recoveries,avgRecoveryMs,avgLiveOffsetMs";
+
+    // 最近会话保留数量
+    private static final int MAX_RECENT_SESSIONS = 20;
+
+    private static volatile PlaybackQoeCollector instance;
+
+    private final LinkedList<QoeSession> recentSessions = new LinkedList<>();
+    private QoeSession currentSession;
+
+    // 磁盘日志（单线程写，避免阻塞主线程）
+    private volatile File logFile;
+    private final ExecutorService logExecutor = Executors.newSingleThreadExecutor();
+
+    private PlaybackQoeCollector() {}
+
+    public static PlaybackQoeCollector getInstance() {
+        if (instance == null) {
+            synchronized (PlaybackQoeCollector.class) {
+                if (instance == null) {
+                    instance = new PlaybackQoeCollector();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 开启磁盘日志（默认关闭）
+     */
+    public void enableDiskLog(Context context) {
+        logFile = new File(context.getApplicationContext().getFilesDir(), LOG_FILE_NAME);
+    }
+
+    public void disableDiskLog() {
+        logFile = null;
+    }
+
+    /**
+     * 开始新会话（调用方需把返回的会话注册为播放器的 AnalyticsListener）
+     */
+    public synchronized QoeSession startSession(String mediaUrl) {
+        currentSession = new QoeSession(mediaUrl);
+        return currentSession;
+    }
+
+    /**
+     * 结束会话：归档并写入磁盘日志（重复调用无影响）
+     */
+    public synchronized void endSession(QoeSession session) {
+        if (session == null || session.isEnded()) return;
+        session.end();
+        if (session == currentSession) {
+            currentSession = null;
+        }
+
+        recentSessions.addLast(session);
+        if (recentSessions.size() > MAX_RECENT_SESSIONS) {
+            recentSessions.removeFirst();
+        }
+        Log.d(TAG, "播放会话结束：" + session);
+
+        File file = logFile;
+        if (file != null) {
+            String line = session.toLogLine();
+            logExecutor.execute(() -> appendLogLine(file, line));
+        }
+    }
+
+    /**
+     * 当前进行中的会话，没有返回 null
+     */
+    public synchronized QoeSession getCurrentSession() {
+        return currentSession;
+    }
+
+    /**
+     * 最近结束的会话（按时间顺序）
+     */
+    public synchronized List<QoeSession> getRecentSessions() {
+        return new ArrayList<>(recentSessions);
+    }
+
+    private static void appendLogLine(File file, String line) {
+        try {
+            if (file.exists() && file.length() > MAX_LOG_BYTES) {
+                File rotated = new File(file.getPath() + ".1");
+                if (rotated.exists() && !rotated.delete()) {
+                    Log.w(TAG, "删除旧QoE日志失败");
+                }
+                if (!file.renameTo(rotated)) {
+                    Log.w(TAG, "QoE日志轮转失败");
+                }
+            }
+            boolean newFile = !file.exists();
+            try (FileWriter writer = new FileWriter(file, true)) {
+                if (newFile) {
+                    writer.write(LOG_HEADER);
+                    writer.write('\n');
+                }
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "写入QoE日志失败", e);
+        }
+    }
+}
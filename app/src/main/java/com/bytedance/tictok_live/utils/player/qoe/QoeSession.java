@@ -0,0 +1,270 @@
+package com.bytedance.tictok_live.utils.player.qoe;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.Format;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+import androidx.media3.exoplayer.source.MediaLoadData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单次播放会话的 QoE 指标（事件回调与查询都在播放器所在的主线程）
+ *
+ * 统计：首帧耗时、卡顿次数与总时长、码率切换、丢帧、直播延迟变化、错误与恢复
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class QoeSession implements AnalyticsListener {
+
+    // 直播延迟采样上限（环形覆盖）
+    private static final int MAX_LIVE_OFFSET_SAMPLES = 300;
+    // 事件记录上限
+    private static final int MAX_EVENTS = 50;
+
+    private final String mediaUrl;
+    private final long startWallTimeMs;
+    private final long startElapsedMs;
+    private long endElapsedMs = -1;
+
+    // 首帧
+    private long ttffMs = -1;
+
+    // 卡顿（首帧之后再次进入缓冲）
+    private int rebufferCount = 0;
+    private long rebufferTotalMs = 0;
+    private long rebufferStartMs = -1;
+
+    // 码率
+    private int currentVideoBitrate = Format.NO_VALUE;
+    private int bitrateSwitchCount = 0;
+
+    // 丢帧
+    private long droppedVideoFrames = 0;
+
+    // 错误与恢复
+    private int errorCount = 0;
+    private int recoveryCount = 0;
+    private long errorStartMs = -1;
+    private long totalRecoveryMs = 0;
+    private final List<String> events = new ArrayList<>();
+
+    // 直播延迟采样（会话内时间 ms -> 延迟 ms）
+    private final long[] offsetSampleTimes = new long[MAX_LIVE_OFFSET_SAMPLES];
+    private final long[] offsetSampleValues = new long[MAX_LIVE_OFFSET_SAMPLES];
+    private int offsetSampleCount = 0;
+    private long offsetSampleSum = 0;
+    private long offsetSampleTotal = 0;
+
+    QoeSession(String mediaUrl) {
+        this.mediaUrl = mediaUrl;
+        this.startWallTimeMs = System.currentTimeMillis();
+        this.startElapsedMs = SystemClock.elapsedRealtime();
+    }
+
+    private long sessionTimeMs() {
+        return SystemClock.elapsedRealtime() - startElapsedMs;
+    }
+
+    @Override
+    public void onRenderedFirstFrame(@NonNull EventTime eventTime, @NonNull Object output, long renderTimeMs) {
+        if (ttffMs < 0) {
+            ttffMs = sessionTimeMs();
+            addEvent("FIRST_FRAME");
+        }
+    }
+
+    @Override
+    public void onPlaybackStateChanged(@NonNull EventTime eventTime, int state) {
+        long now = SystemClock.elapsedRealtime();
+        if (state == Player.STATE_BUFFERING && ttffMs >= 0 && rebufferStartMs < 0) {
+            rebufferCount++;
+            rebufferStartMs = now;
+        } else if (state == Player.STATE_READY) {
+            if (rebufferStartMs >= 0) {
+                rebufferTotalMs += now - rebufferStartMs;
+                rebufferStartMs = -1;
+            }
+            if (errorStartMs >= 0) {
+                long recoverMs = now - errorStartMs;
+                recoveryCount++;
+                totalRecoveryMs += recoverMs;
+                errorStartMs = -1;
+                addEvent("RECOVERED(" + recoverMs + "ms)");
+            }
+        }
+    }
+
+    @Override
+    public void onDownstreamFormatChanged(@NonNull EventTime eventTime, @NonNull MediaLoadData mediaLoadData) {
+        if (mediaLoadData.trackType != C.TRACK_TYPE_VIDEO || mediaLoadData.trackFormat == null) return;
+        int bitrate = mediaLoadData.trackFormat.bitrate;
+        if (currentVideoBitrate != Format.NO_VALUE && bitrate != currentVideoBitrate) {
+            bitrateSwitchCount++;
+            addEvent("BITRATE(" + currentVideoBitrate + "->" + bitrate + ")");
+        }
+        currentVideoBitrate = bitrate;
+    }
+
+    @Override
+    public void onDroppedVideoFrames(@NonNull EventTime eventTime, int droppedFrames, long elapsedMs) {
+        droppedVideoFrames += droppedFrames;
+    }
+
+    @Override
+    public void onPlayerError(@NonNull EventTime eventTime, @NonNull PlaybackException error) {
+        errorCount++;
+        if (errorStartMs < 0) {
+            errorStartMs = SystemClock.elapsedRealtime();
+        }
+        addEvent("ERROR(" + error.getErrorCodeName() + ")");
+    }
+
+    /**
+     * 记录一次直播延迟采样
+     */
+    public void sampleLiveOffset(long liveOffsetMs) {
+        if (liveOffsetMs == C.TIME_UNSET) return;
+        int index = offsetSampleCount % MAX_LIVE_OFFSET_SAMPLES;
+        offsetSampleTimes[index] = sessionTimeMs();
+        offsetSampleValues[index] = liveOffsetMs;
+        offsetSampleCount++;
+        offsetSampleSum += liveOffsetMs;
+        offsetSampleTotal++;
+    }
+
+    void end() {
+        if (endElapsedMs < 0) {
+            // 结束时仍在卡顿，计入卡顿时长
+            if (rebufferStartMs >= 0) {
+                rebufferTotalMs += SystemClock.elapsedRealtime() - rebufferStartMs;
+                rebufferStartMs = -1;
+            }
+            endElapsedMs = SystemClock.elapsedRealtime();
+        }
+    }
+
+    private void addEvent(String event) {
+        if (events.size() >= MAX_EVENTS) {
+            events.remove(0);
+        }
+        events.add(sessionTimeMs() + "ms " + event);
+    }
+
+    public String getMediaUrl() {
+        return mediaUrl;
+    }
+
+    public long getStartWallTimeMs() {
+        return startWallTimeMs;
+    }
+
+    public boolean isEnded() {
+        return endElapsedMs >= 0;
+    }
+
+    public long getDurationMs() {
+        return (endElapsedMs >= 0 ? endElapsedMs : SystemClock.elapsedRealtime()) - startElapsedMs;
+    }
+
+    // 首帧耗时，未出首帧返回 -1
+    public long getTtffMs() {
+        return ttffMs;
+    }
+
+    public int getRebufferCount() {
+        return rebufferCount;
+    }
+
+    public long getRebufferTotalMs() {
+        return rebufferTotalMs + (rebufferStartMs >= 0 ? SystemClock.elapsedRealtime() - rebufferStartMs : 0);
+    }
+
+    // 卡顿时长占播放时长（首帧之后）的比例
+    public double getRebufferRatio() {
+        long playedMs = getDurationMs() - Math.max(ttffMs, 0);
+        return playedMs <= 0 ? 0 : (double) getRebufferTotalMs() / playedMs;
+    }
+
+    public int getCurrentVideoBitrate() {
+        return currentVideoBitrate;
+    }
+
+    public int getBitrateSwitchCount() {
+        return bitrateSwitchCount;
+    }
+
+    public long getDroppedVideoFrames() {
+        return droppedVideoFrames;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public int getRecoveryCount() {
+        return recoveryCount;
+    }
+
+    // 平均恢复耗时，无恢复返回 -1
+    public long getAverageRecoveryMs() {
+        return recoveryCount == 0 ? -1 : totalRecoveryMs / recoveryCount;
+    }
+
+    // 平均直播延迟，无采样返回 C.TIME_UNSET
+    public long getAverageLiveOffsetMs() {
+        return offsetSampleTotal == 0 ? C.TIME_UNSET : offsetSampleSum / offsetSampleTotal;
+    }
+
+    /**
+     * 直播延迟采样（按时间顺序），每项为 {会话内时间 ms, 延迟 ms}
+     */
+    public List<long[]> getLiveOffsetSamples() {
+        int size = Math.min(offsetSampleCount, MAX_LIVE_OFFSET_SAMPLES);
+        int first = offsetSampleCount - size;
+        List<long[]> samples = new ArrayList<>(size);
+        for (int i = first; i < offsetSampleCount; i++) {
+            int index = i % MAX_LIVE_OFFSET_SAMPLES;
+            samples.add(new long[]{offsetSampleTimes[index], offsetSampleValues[index]});
+        }
+        return samples;
+    }
+
+    public List<String> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * 紧凑的一行记录（用于磁盘日志），字段顺序见 {@link PlaybackQoeCollector#LOG_HEADER}
+     */
+    String toLogLine() {
+        return startWallTimeMs
+                + "," + getDurationMs()
+                + "," + ttffMs
+                + "," + rebufferCount
+                + "," + getRebufferTotalMs()
+                + "," + bitrateSwitchCount
+                + "," + droppedVideoFrames
+                + "," + errorCount
+                + "," + recoveryCount
+                + "," + getAverageRecoveryMs()
+                + "," + (offsetSampleTotal == 0 ? -1 : getAverageLiveOffsetMs());
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "QoeSession{ttff=" + ttffMs + "ms"
+                + ", rebuffer=" + rebufferCount + "/" + getRebufferTotalMs() + "ms"
+                + ", switches=" + bitrateSwitchCount
+                + ", dropped=" + droppedVideoFrames
+                + ", errors=" + errorCount + ", recovered=" + recoveryCount
+                + ", avgOffset=" + getAverageLiveOffsetMs() + "ms}";
+    }
+}
@@ -1,14 +1,32 @@
 package com.bytedance.tictok_live.utils.preload;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
 import android.util.Log;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.FutureTarget;
+import com.bytedance.tictok_live.constant.BusinessConstant;
 import com.bytedance.tictok_live.context.App;
+import com.bytedance.tictok_live.model.Comment;
 import com.bytedance.tictok_live.model.HostInfo;
 import com.bytedance.tictok_live.repository.LiveRepository;
+import com.bytedance.tictok_live.utils.player.LiveMediaCache;
 import com.bytedance.tictok_live.utils.player.LivePlayerManager;
+import com.bytedance.tictok_live.utils.startup.AppInitializer;
+import com.bytedance.tictok_live.utils.startup.StartupFuture;
+import com.bytedance.tictok_live.utils.startup.StartupScheduler;
+import com.bytedance.tictok_live.utils.startup.StartupTask;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -16,26 +34,47 @@ import retrofit2.Response;
 
 /**
  * 预加载管理:管理直播播放的基础资源
+ *
+ * 启动阶段的任务按依赖图调度（{@link StartupScheduler}），每个任务返回完成 future：
+ *  host_info（关键）、player_init -> player_prepare（关键）-> media_prefetch、
+ *  websocket_connect、first_comments、(host_info, first_comments) -> avatar_warmup
  */
 public class LivePreloadManager {
     public static final String TAG = "LivePreloadManager";
 
+    // 启动任务名
+    public static final String TASK_HOST_INFO = "host_info";
+    public static final String TASK_PLAYER_INIT = "player_init";
+    public static final String TASK_PLAYER_PREPARE = "player_prepare";
+    public static final String TASK_MEDIA_PREFETCH = "media_prefetch";
+    public static final String TASK_WEBSOCKET_CONNECT = "websocket_connect";
+    public static final String TASK_FIRST_COMMENTS = "first_comments";
+    public static final String TASK_AVATAR_WARMUP = "avatar_warmup";
+
+    // 头像预热单张等待上限
+    private static final long AVATAR_WARMUP_TIMEOUT_MS = 3000;
+    // 头像控件尺寸（与布局 iv_host_avatar、iv_comment_avatar 一致，尺寸、变换相同才能命中内存缓存）
+    private static final int AVATAR_SIZE_DP = 28;
+    // 首屏可见的评论头像数量上限（列表定位在末尾，预热最后 N 条）
+    private static final int MAX_WARMUP_COMMENT_AVATARS = 12;
+
     private static volatile LivePreloadManager instance;
 
-    // 线程池
-    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    // 启动任务调度（每次 startPreload 新建）
+    private volatile StartupScheduler scheduler;
+    private StartupFuture<HostInfo> hostInfoFuture;
+    private StartupFuture<LivePlayerManager> playerInitFuture;
+    private StartupFuture<LivePlayerManager> playerPrepareFuture;
+    private StartupFuture<List<Comment>> commentsFuture;
 
     private LiveRepository liveRepository;
-    private LivePlayerManager preloadPlayer;
-
+    private volatile LivePlayerManager preloadPlayer;
 
-    // 内存缓存
-    private volatile HostInfo cachedHostInfo = null;
+    // prepare 需在播放器的应用线程（主线程）调用
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     // 预加载状态
     private volatile boolean preloadStarted = false;
-    private volatile boolean hostInfoLoaded = false;    // 主播信息加载完成标记
-    private volatile boolean playerInited = false;      // 播放器初始化完成标记
 
 
     private LivePreloadManager() {
@@ -56,62 +95,176 @@ public class LivePreloadManager {
     /**
      * 启动预加载
      */
-    public void startPreload(){
+    public synchronized void startPreload(){
         if (preloadStarted) return;
 
         // 初始化状态
         preloadStarted = true;
-        hostInfoLoaded = false;
-        playerInited = false;
-
-        // 并发请求主播信息
-        executor.submit(() ->{
-            liveRepository.getHostInfo(new Callback<HostInfo>() {
-                @Override
-                public void onResponse(Call<HostInfo> call, Response<HostInfo> response) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        HostInfo info = response.body();
-                        cachedHostInfo = info;
-                        Log.d(TAG, "主播信息预加载成功：" + info.toString());
-                    } else {
-                        Log.w(TAG, "主播信息请求成功但无数据，code：" + response.code());
+        StartupScheduler newScheduler = new StartupScheduler();
+
+        // 1. 主播信息（关键）
+        hostInfoFuture = newScheduler.register(new StartupTask<>(TASK_HOST_INFO, StartupTask.PRIORITY_HIGH, true,
+                future -> liveRepository.getHostInfo(new Callback<HostInfo>() {
+                    @Override
+                    public void onResponse(Call<HostInfo> call, Response<HostInfo> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            HostInfo info = response.body();
+                            Log.d(TAG, "主播信息预加载成功：" + info.toString());
+                            future.complete(info);
+                        } else {
+                            Log.w(TAG, "主播信息请求成功但无数据，code：" + response.code());
+                            future.complete(null);
+                        }
                     }
-                    // 无论成功失败都标记完成
-                    hostInfoLoaded = true;
-                }
 
-                @Override
-                public void onFailure(Call<HostInfo> call, Throwable t) {
-                    Log.e(TAG, "主播信息请求失败", t);
-                    hostInfoLoaded = true;
-                }
-            });
-        });
+                    @Override
+                    public void onFailure(Call<HostInfo> call, Throwable t) {
+                        Log.e(TAG, "主播信息请求失败", t);
+                        future.fail(t);
+                    }
+                })));
+
+        // 2. 构建播放器（子线程），启动页阶段只缓冲不出声，进房接管时再播放
+        playerInitFuture = newScheduler.register(new StartupTask<>(TASK_PLAYER_INIT, StartupTask.PRIORITY_HIGH, false,
+                future -> {
+                    LivePlayerManager player = new LivePlayerManager(App.getAppContext());
+                    player.setAutoPlay(false);
+                    player.initPlayer();
+                    preloadPlayer = player;
+                    Log.d(TAG, "直播播放器预加载完成");
+                    future.complete(player);
+                }));
+
+        // 3. prepare（主线程调用，缓冲在专用播放线程进行），首次就绪即完成（关键）
+        playerPrepareFuture = newScheduler.register(new StartupTask<>(TASK_PLAYER_PREPARE, StartupTask.PRIORITY_HIGH, true,
+                future -> {
+                    LivePlayerManager player = playerInitFuture.getNow(null);
+                    if (player == null) {
+                        future.complete(null);
+                        return;
+                    }
+                    mainHandler.post(() -> {
+                        if (preloadPlayer != player || player.isPlayerNull()) {
+                            future.complete(null);
+                            return;
+                        }
+                        player.prepareIfNeeded();
+                        Log.d(TAG, "直播播放器开始后台缓冲");
+                        player.runWhenReady(() -> future.complete(player));
+                    });
+                }, TASK_PLAYER_INIT));
+
+        // 4. 按 manifest 预取 init 分片到磁盘缓存（供再次进房秒开；等首帧就绪后再做，不与起播争带宽，
+        //    播放器已缓存的 manifest、init 分片直接复用，只补齐其余码率档位）
+        newScheduler.register(new StartupTask<Void>(TASK_MEDIA_PREFETCH, StartupTask.PRIORITY_LOW, false,
+                future -> {
+                    LiveMediaCache.getInstance(App.getAppContext())
+                            .prefetch(BusinessConstant.LIVE_DASH_URL, LivePlayerManager.createHttpDataSourceFactory());
+                    future.complete(null);
+                }, TASK_PLAYER_PREPARE));
+
+        // 5. WebSocket 建连（由应用初始化的 websocket 任务发起，这里只等待），连接成功即完成
+        newScheduler.register(new StartupTask<Boolean>(TASK_WEBSOCKET_CONNECT, StartupTask.PRIORITY_NORMAL, false,
+                future -> AppInitializer.getInstance().getWebSocket().get()
+                        .whenConnected(() -> future.complete(true))));
+
+        // 6. 首屏评论
+        commentsFuture = newScheduler.register(new StartupTask<>(TASK_FIRST_COMMENTS, StartupTask.PRIORITY_NORMAL, false,
+                future -> liveRepository.getInitComments(new Callback<List<Comment>>() {
+                    @Override
+                    public void onResponse(Call<List<Comment>> call, Response<List<Comment>> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            // 与页面相同的过滤规则，交给 ViewModel 直接展示
+                            List<Comment> validComments = Collections.unmodifiableList(
+                                    LiveRepository.filterValidComments(response.body()));
+                            Log.d(TAG, "首屏评论预加载成功，有效数量：" + validComments.size());
+                            future.complete(validComments);
+                        } else {
+                            Log.w(TAG, "首屏评论请求成功但无数据，code：" + response.code());
+                            future.complete(null);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<List<Comment>> call, Throwable t) {
+                        Log.e(TAG, "首屏评论请求失败", t);
+                        future.fail(t);
+                    }
+                })));
+
+        // 7. 主播、首屏评论头像预热到内存缓存（依赖主播信息、首屏评论）
+        newScheduler.register(new StartupTask<Void>(TASK_AVATAR_WARMUP, StartupTask.PRIORITY_LOW, false,
+                future -> {
+                    Set<String> urls = new LinkedHashSet<>();
+                    HostInfo info = hostInfoFuture.getNow(null);
+                    if (info != null && !TextUtils.isEmpty(info.getAvatar())) {
+                        urls.add(info.getAvatar());
+                    }
+                    List<Comment> comments = commentsFuture.getNow(null);
+                    if (comments != null) {
+                        int from = Math.max(0, comments.size() - MAX_WARMUP_COMMENT_AVATARS);
+                        for (Comment comment : comments.subList(from, comments.size())) {
+                            if (!TextUtils.isEmpty(comment.getAvatar())) {
+                                urls.add(comment.getAvatar());
+                            }
+                        }
+                    }
+                    warmUpAvatars(urls);
+                    future.complete(null);
+                }, TASK_HOST_INFO, TASK_FIRST_COMMENTS));
+
+        scheduler = newScheduler;
+        newScheduler.start();
+    }
+
+    // 按控件尺寸 + 圆形裁剪解码头像，释放后留在 Glide 内存缓存，首次绑定直接命中（阻塞，在调度工作线程执行）
+    private void warmUpAvatars(Set<String> urls) {
+        if (urls.isEmpty()) return;
+        Context context = App.getAppContext();
+        int sizePx = Math.round(AVATAR_SIZE_DP * context.getResources().getDisplayMetrics().density);
+        AppInitializer.getInstance().getGlide().get();
+        RequestManager requestManager = Glide.with(context);
 
-        // 并发请求加载直播流播放器
-        executor.submit(() -> {
+        // 先全部提交并行加载，再逐个等待
+        List<FutureTarget<?>> targets = new ArrayList<>();
+        for (String url : urls) {
+            targets.add(requestManager.load(url).circleCrop().submit(sizePx, sizePx));
+        }
+        int warmed = 0;
+        for (FutureTarget<?> target : targets) {
             try {
-                preloadPlayer = new LivePlayerManager(App.getAppContext());
-                preloadPlayer.initPlayer();
-                Log.d(TAG, "直播播放器预加载完成");
-                playerInited = true; // 初始化完成标记
+                target.get(AVATAR_WARMUP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                warmed++;
             } catch (Exception e) {
-                Log.e(TAG, "播放器预加载失败", e);
-                playerInited = true; // 失败也标记，避免阻塞
+                Log.w(TAG, "头像预热失败", e);
+            } finally {
+                requestManager.clear(target);
             }
+        }
+        Log.d(TAG, "头像预热完成：" + warmed + "/" + targets.size());
+    }
+
+    /**
+     * 关键任务（主播信息、播放器就绪）完成或超时后在主线程回调，并输出各任务耗时
+     */
+    public void awaitCritical(long timeoutMs, Runnable onReady) {
+        StartupScheduler current = scheduler;
+        if (current == null) {
+            onReady.run();
+            return;
+        }
+        current.awaitCritical(timeoutMs, () -> {
+            current.dumpTimings();
+            onReady.run();
         });
     }
 
     /**
      * 资源释放
      */
-    public void release(){
+    public synchronized void release(){
         preloadStarted = false;
-        hostInfoLoaded = false;
-        playerInited = false;
-
-        // 清空缓存
-        cachedHostInfo = null;
+        mainHandler.removeCallbacksAndMessages(null);
 
         // 释放播放器
         if (preloadPlayer != null) {
@@ -119,14 +272,41 @@ public class LivePreloadManager {
             preloadPlayer = null;
         }
 
-        executor.shutdown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
         Log.d(TAG, "预加载资源已全部释放");
 
     }
 
     // 外部查询缓存
     public HostInfo getCachedHostInfo() {
-        return cachedHostInfo;
+        return hostInfoFuture != null ? hostInfoFuture.getNow(null) : null;
+    }
+
+    // 首屏评论（已过滤），未完成或失败返回 null
+    public List<Comment> getCachedComments() {
+        return commentsFuture != null ? commentsFuture.getNow(null) : null;
+    }
+
+    public StartupFuture<HostInfo> getHostInfoFuture() {
+        return hostInfoFuture;
+    }
+
+    public StartupFuture<LivePlayerManager> getPlayerInitFuture() {
+        return playerInitFuture;
+    }
+
+    public StartupFuture<List<Comment>> getCommentsFuture() {
+        return commentsFuture;
+    }
+
+    /**
+     * 启动任务调度（用于查询各任务耗时），未开始返回 null
+     */
+    public StartupScheduler getScheduler() {
+        return scheduler;
     }
 
     public LivePlayerManager getPreloadPlayer() {
@@ -134,11 +314,15 @@ public class LivePreloadManager {
     }
 
     public boolean isHostInfoLoaded() {
-        return hostInfoLoaded;
+        return hostInfoFuture != null && hostInfoFuture.isDone();
     }
 
     public boolean isPlayerInited() {
-        return playerInited;
+        return playerInitFuture != null && playerInitFuture.isDone();
+    }
+
+    public boolean isPlayerPrepared() {
+        return playerPrepareFuture != null && playerPrepareFuture.isDone();
     }
 
     public boolean isPreloadStarted() {
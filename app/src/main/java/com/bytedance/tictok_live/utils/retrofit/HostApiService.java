@@ -9,6 +9,7 @@ import retrofit2.Call;
 import retrofit2.http.Field;
 import retrofit2.http.FormUrlEncoded;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.POST;
 
 /**
@@ -23,6 +24,14 @@ public interface HostApiService {
     @GET("hosts/5")
     Call<HostInfo> getHostInfo();
 
+    /**
+     * 获取主播信息（指定缓存策略，如只读缓存）
+     * @param cacheControl Cache-Control 请求头
+     * @return 主播信息实体
+     */
+    @GET("hosts/5")
+    Call<HostInfo> getHostInfo(@Header("Cache-Control") String cacheControl);
+
     /**
      * 获取公屏评论
      * @return 评论实体列表
@@ -30,6 +39,14 @@ public interface HostApiService {
     @GET("comments")
     Call<List<Comment>> getComments();
 
+    /**
+     * 获取公屏评论（指定缓存策略，如只读缓存）
+     * @param cacheControl Cache-Control 请求头
+     * @return 评论实体列表
+     */
+    @GET("comments")
+    Call<List<Comment>> getComments(@Header("Cache-Control") String cacheControl);
+
     /**
      * 发送评论
      * @return 评论实体
@@ -0,0 +1,59 @@
+package com.bytedance.tictok_live.utils.retrofit;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+
+/**
+ * HTTP 磁盘缓存配置（需在首次创建 Retrofit 之前设置缓存大小）
+ */
+public class HttpCacheConfig {
+    // 私有化构造方法，避免被实例化
+    private HttpCacheConfig() {}
+
+    // 缓存目录名（位于应用 cacheDir 下）
+    public static final String CACHE_DIR_NAME = "http_cache";
+
+    // 磁盘缓存大小（默认 10MB）
+    private static volatile long cacheSizeBytes = 10L * 1024 * 1024;
+
+    // 各接口允许读取的最大过期时长（秒）：超过则不使用缓存，直接等网络
+    private static volatile int hostInfoMaxStaleSeconds = 24 * 60 * 60; // 主播信息：1天
+    private static volatile int commentsMaxStaleSeconds = 10 * 60;      // 公屏评论：10分钟
+
+    public static long getCacheSizeBytes() {
+        return cacheSizeBytes;
+    }
+
+    public static void setCacheSizeBytes(long sizeBytes) {
+        cacheSizeBytes = sizeBytes;
+    }
+
+    public static int getHostInfoMaxStaleSeconds() {
+        return hostInfoMaxStaleSeconds;
+    }
+
+    public static void setHostInfoMaxStaleSeconds(int seconds) {
+        hostInfoMaxStaleSeconds = seconds;
+    }
+
+    public static int getCommentsMaxStaleSeconds() {
+        return commentsMaxStaleSeconds;
+    }
+
+    public static void setCommentsMaxStaleSeconds(int seconds) {
+        commentsMaxStaleSeconds = seconds;
+    }
+
+    /**
+     * 构建只读缓存的请求头（不走网络，缓存缺失时 OkHttp 返回 504）
+     * @param maxStaleSeconds 允许的最大过期时长
+     */
+    public static String onlyIfCached(int maxStaleSeconds) {
+        return new CacheControl.Builder()
+                .onlyIfCached()
+                .maxStale(maxStaleSeconds, TimeUnit.SECONDS)
+                .build()
+                .toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.bytedance.tictok_live.utils.retrofit;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 缓存策略网络拦截器
+ *
+ * 服务端接口没有下发可用的缓存头，这里把 GET 成功响应统一改写为 max-age=0：
+ *  1. 响应可以落盘（去掉 no-store / Pragma）
+ *  2. 缓存立即过期，下次正常请求会带 If-None-Match / If-Modified-Since 做条件请求，未变化时服务端返回 304
+ *  3. only-if-cached + max-stale 的请求仍可直接读到过期缓存，实现先展示缓存、后台再校验
+ */
+public class HttpCacheInterceptor implements Interceptor {
+
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    private static final String HEADER_PRAGMA = "Pragma";
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        // 只处理 GET 成功响应
+        if (!"GET".equals(request.method()) || !response.isSuccessful()) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader(HEADER_PRAGMA)
+                .header(HEADER_CACHE_CONTROL, "max-age=0")
+                .build();
+    }
+}
@@ -5,9 +5,14 @@ import androidx.media3.common.util.Log;
 import androidx.media3.common.util.UnstableApi;
 
 import com.bytedance.tictok_live.constant.BusinessConstant;
+import com.bytedance.tictok_live.context.App;
+import com.bytedance.tictok_live.utils.network.NetworkCore;
+import com.bytedance.tictok_live.utils.network.PriorityCallFactory;
+import com.bytedance.tictok_live.utils.retrofit.json.LiveGson;
 
-import java.util.concurrent.TimeUnit;
+import java.io.File;
 
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -31,19 +36,24 @@ public class RetrofitClient {
                             message -> Log.d(HTTP_LOG_TAG, message)
                     );
 
-                    // 2. 构建 OkHttpClient
-                    OkHttpClient okHttpClient = new OkHttpClient.Builder()
+                    // 2. 磁盘缓存（支持 ETag / If-None-Match 条件请求）
+                    Cache cache = new Cache(
+                            new File(App.getAppContext().getCacheDir(), HttpCacheConfig.CACHE_DIR_NAME),
+                            HttpCacheConfig.getCacheSizeBytes()
+                    );
+
+                    // 3. 基于全局网络核心派生 OkHttpClient（共享连接池、调度器）
+                    OkHttpClient okHttpClient = NetworkCore.getInstance().getOkHttpClient().newBuilder()
+                            .cache(cache)
                             .addInterceptor(loggingInterceptor)
-                            .connectTimeout(10, TimeUnit.SECONDS)
-                            .readTimeout(10, TimeUnit.SECONDS)
-                            .writeTimeout(10, TimeUnit.SECONDS)
+                            .addNetworkInterceptor(new HttpCacheInterceptor())
                             .build();
 
-                    // 3. 初始化Retrofit
+                    // 4. 初始化Retrofit（请求经优先级调度准入后再交给 OkHttp）
                     retrofit = new Retrofit.Builder()
                             .baseUrl(BusinessConstant.BASE_URL)
-                            .client(okHttpClient)
-                            .addConverterFactory(GsonConverterFactory.create())
+                            .callFactory(new PriorityCallFactory(okHttpClient))
+                            .addConverterFactory(GsonConverterFactory.create(LiveGson.create())) // 手写解析器，避免反射
                             .build();
                 }
             }
@@ -0,0 +1,57 @@
+package com.bytedance.tictok_live.utils.retrofit.json;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 评论列表 JSON 流式解析（复用单条评论解析，跳过 Gson 集合工厂）
+ *
+ * 与反射解析的唯一差异：数组中的 null 元素会被丢弃（列表里不会出现 null 评论）
+ */
+public class CommentListTypeAdapter extends TypeAdapter<List<Comment>> {
+
+    private final CommentTypeAdapter commentAdapter;
+
+    public CommentListTypeAdapter(CommentTypeAdapter commentAdapter) {
+        this.commentAdapter = commentAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, List<Comment> comments) throws IOException {
+        if (comments == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (Comment comment : comments) {
+            commentAdapter.write(out, comment);
+        }
+        out.endArray();
+    }
+
+    @Override
+    public List<Comment> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<Comment> comments = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            Comment comment = commentAdapter.read(in);
+            if (comment != null) {
+                comments.add(comment);
+            }
+        }
+        in.endArray();
+        return comments;
+    }
+}
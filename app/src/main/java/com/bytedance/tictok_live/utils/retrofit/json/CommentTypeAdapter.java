@@ -0,0 +1,66 @@
+package com.bytedance.tictok_live.utils.retrofit.json;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * 评论 JSON 流式解析（手写，避免 Gson 反射）
+ */
+public class CommentTypeAdapter extends TypeAdapter<Comment> {
+
+    @Override
+    public void write(JsonWriter out, Comment comment) throws IOException {
+        if (comment == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("createdAt").value(comment.getCreatedAt());
+        out.name("name").value(comment.getName());
+        out.name("avatar").value(comment.getAvatar());
+        out.name("comment").value(comment.getComment());
+        out.name("id").value(comment.getId());
+        out.endObject();
+    }
+
+    @Override
+    public Comment read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Comment comment = new Comment();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "createdAt":
+                    comment.setCreatedAt(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "name":
+                    comment.setName(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "avatar":
+                    comment.setAvatar(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "comment":
+                    comment.setComment(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "id":
+                    comment.setId(JsonReaders.nextStringOrNull(in));
+                    break;
+                default:
+                    // 未知字段跳过
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return comment;
+    }
+}
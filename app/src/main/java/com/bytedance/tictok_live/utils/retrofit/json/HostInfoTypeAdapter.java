@@ -0,0 +1,70 @@
+package com.bytedance.tictok_live.utils.retrofit.json;
+
+import com.bytedance.tictok_live.model.HostInfo;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * 主播信息 JSON 流式解析（手写，避免 Gson 反射）
+ */
+public class HostInfoTypeAdapter extends TypeAdapter<HostInfo> {
+
+    @Override
+    public void write(JsonWriter out, HostInfo hostInfo) throws IOException {
+        if (hostInfo == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("createdAt").value(hostInfo.getCreatedAt());
+        out.name("name").value(hostInfo.getName());
+        out.name("avatar").value(hostInfo.getAvatar());
+        out.name("roomName").value(hostInfo.getRoomName());
+        out.name("followerNum").value(hostInfo.getFollowerNum());
+        out.name("id").value(hostInfo.getId());
+        out.endObject();
+    }
+
+    @Override
+    public HostInfo read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        HostInfo hostInfo = new HostInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "createdAt":
+                    hostInfo.setCreatedAt(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "name":
+                    hostInfo.setName(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "avatar":
+                    hostInfo.setAvatar(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "roomName":
+                    hostInfo.setRoomName(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "followerNum":
+                    hostInfo.setFollowerNum(JsonReaders.nextIntOrZero(in));
+                    break;
+                case "id":
+                    hostInfo.setId(JsonReaders.nextStringOrNull(in));
+                    break;
+                default:
+                    // 未知字段跳过
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return hostInfo;
+    }
+}
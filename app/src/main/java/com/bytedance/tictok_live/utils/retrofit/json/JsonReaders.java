@@ -0,0 +1,42 @@
+package com.bytedance.tictok_live.utils.retrofit.json;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * JsonReader 读取工具：兼容 null、数字/字符串混用（容错范围与 Gson 反射解析一致）
+ */
+final class JsonReaders {
+    // 私有化构造方法，避免被实例化
+    private JsonReaders() {}
+
+    // 读取字符串（null 返回 null，数字、布尔转字符串）
+    static String nextStringOrNull(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(in.nextBoolean());
+        }
+        // 字符串、数字均可用 nextString 读取
+        return in.nextString();
+    }
+
+    // 读取整数（null 返回 0；与 Gson 反射解析 int 字段一致：数字字符串可读，小数、非数字抛 JsonSyntaxException）
+    static int nextIntOrZero(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bytedance.tictok_live.utils.retrofit.json;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.bytedance.tictok_live.model.HostInfo;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.List;
+
+/**
+ * 业务 Gson：注册手写流式解析器，Comment、HostInfo、List<Comment> 不再走反射
+ */
+public class LiveGson {
+    // 私有化构造方法，避免被实例化
+    private LiveGson() {}
+
+    public static Gson create() {
+        CommentTypeAdapter commentAdapter = new CommentTypeAdapter();
+        return new GsonBuilder()
+                .registerTypeAdapter(Comment.class, commentAdapter)
+                .registerTypeAdapter(HostInfo.class, new HostInfoTypeAdapter())
+                .registerTypeAdapter(new TypeToken<List<Comment>>() {}.getType(), new CommentListTypeAdapter(commentAdapter))
+                .create();
+    }
+}
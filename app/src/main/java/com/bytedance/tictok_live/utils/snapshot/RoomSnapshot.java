@@ -0,0 +1,53 @@
+package com.bytedance.tictok_live.utils.snapshot;
+
+import androidx.annotation.Nullable;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.bytedance.tictok_live.model.HostInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 直播间状态快照（不可变）：主播信息、最近 N 条评论、在线人数
+ */
+public class RoomSnapshot {
+    // 快照保留的评论条数
+    public static final int MAX_COMMENTS = 30;
+
+    @Nullable
+    private final HostInfo hostInfo;
+    private final List<Comment> comments;
+    private final int onlineCount;
+    private final long savedAtMs;
+
+    public RoomSnapshot(@Nullable HostInfo hostInfo, @Nullable List<Comment> comments, int onlineCount, long savedAtMs) {
+        this.hostInfo = hostInfo;
+        List<Comment> recent = new ArrayList<>();
+        if (comments != null) {
+            int from = Math.max(0, comments.size() - MAX_COMMENTS);
+            recent.addAll(comments.subList(from, comments.size()));
+        }
+        this.comments = Collections.unmodifiableList(recent);
+        this.onlineCount = onlineCount;
+        this.savedAtMs = savedAtMs;
+    }
+
+    @Nullable
+    public HostInfo getHostInfo() {
+        return hostInfo;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public int getOnlineCount() {
+        return onlineCount;
+    }
+
+    public long getSavedAtMs() {
+        return savedAtMs;
+    }
+}
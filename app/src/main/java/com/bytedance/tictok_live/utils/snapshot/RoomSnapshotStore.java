@@ -0,0 +1,318 @@
+package com.bytedance.tictok_live.utils.snapshot;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.bytedance.tictok_live.model.HostInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * 直播间快照存储（单例）
+ *
+ * 离开直播间时异步写入紧凑二进制文件（先写临时文件再重命名，不会读到半个文件），
+ * 冷启动时通过内存映射读取，页面在网络返回前即可展示上次的内容。
+ *
+ * 文件格式（大端）：
+ *  magic(4) version(2) savedAt(8) onlineCount(4)
+ *  hasHost(1) [createdAt name avatar roomName followerNum(4) id]
+ *  commentCount(4) [createdAt name avatar comment id] * N
+ *  crc32(8，覆盖前面所有字节)
+ *  字符串：长度(4，-1 为 null) + UTF-8 字节
+ */
+public class RoomSnapshotStore {
+    private static final String TAG = "RoomSnapshotStore";
+
+    private static final String FILE_NAME = "room_snapshot.bin";
+    private static final int MAGIC = 0x4C525331; // "LRS1"
+    private static final short VERSION = 1;
+    // 文件大小上限（超过视为损坏，避免映射异常大的文件）
+    private static final long MAX_FILE_BYTES = 512 * 1024;
+
+    private static volatile RoomSnapshotStore instance;
+
+    private final File file;
+    private final File tmpFile;
+    // 单线程写，保证多次保存按顺序落盘
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+
+    // 已读取的快照（启动阶段预读后供页面直接使用）
+    private volatile RoomSnapshot loaded;
+    private volatile boolean loadAttempted = false;
+    private volatile long lastReadCostNs = -1;
+
+    private RoomSnapshotStore(Context context) {
+        File dir = context.getFilesDir();
+        file = new File(dir, FILE_NAME);
+        tmpFile = new File(dir, FILE_NAME + ".tmp");
+    }
+
+    public static RoomSnapshotStore getInstance(Context ctx) {
+        if (instance == null) {
+            synchronized (RoomSnapshotStore.class) {
+                if (instance == null) {
+                    instance = new RoomSnapshotStore(ctx.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 异步保存（调用方线程只做序列化前的数据拷贝，编码、写盘都在写线程）
+     */
+    public void saveAsync(RoomSnapshot snapshot) {
+        loaded = snapshot;
+        writeExecutor.execute(() -> {
+            long start = SystemClock.elapsedRealtime();
+            try {
+                byte[] data = encode(snapshot);
+                try (FileOutputStream out = new FileOutputStream(tmpFile)) {
+                    out.write(data);
+                    out.getFD().sync();
+                }
+                if (!tmpFile.renameTo(file)) {
+                    throw new IOException("重命名快照文件失败");
+                }
+                Log.d(TAG, "快照已保存：" + data.length + " 字节，评论 " + snapshot.getComments().size()
+                        + " 条，耗时：" + (SystemClock.elapsedRealtime() - start) + "ms");
+            } catch (IOException e) {
+                Log.w(TAG, "快照保存失败", e);
+            }
+        });
+    }
+
+    /**
+     * 后台预读（启动页调用），页面打开时 {@link #peek()} 直接命中
+     */
+    public void preloadAsync() {
+        writeExecutor.execute(this::peek);
+    }
+
+    /**
+     * 获取快照：已读取过直接返回，否则同步内存映射读取（文件很小，主线程可接受）
+     * @return 没有快照或文件损坏返回 null
+     */
+    @Nullable
+    public RoomSnapshot peek() {
+        if (loadAttempted) return loaded;
+        synchronized (this) {
+            if (!loadAttempted) {
+                long start = SystemClock.elapsedRealtimeNanos();
+                RoomSnapshot snapshot = readMapped(file);
+                lastReadCostNs = SystemClock.elapsedRealtimeNanos() - start;
+                if (loaded == null) {
+                    loaded = snapshot;
+                }
+                loadAttempted = true;
+                Log.d(TAG, "快照读取" + (snapshot != null ? "成功" : "（无快照）")
+                        + "，耗时：" + lastReadCostNs / 1000 + "us");
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 最近一次读取耗时（ns），未读取返回 -1
+     */
+    public long getLastReadCostNs() {
+        return lastReadCostNs;
+    }
+
+    /**
+     * 读取耗时基准（基准测试用）：把 snapshot 写入 dir 下的独立文件（不影响正式快照），
+     * 内存映射与普通流读取交替各执行 iterations 次，返回平均耗时（ns）{映射, 流}
+     */
+    @WorkerThread
+    public static long[] benchmarkRead(File dir, RoomSnapshot snapshot, int iterations) throws IOException {
+        File benchFile = new File(dir, FILE_NAME + ".bench");
+        try (FileOutputStream out = new FileOutputStream(benchFile)) {
+            out.write(encode(snapshot));
+        }
+        try {
+            long mappedTotal = 0;
+            long streamTotal = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = SystemClock.elapsedRealtimeNanos();
+                RoomSnapshot mapped = readMapped(benchFile);
+                mappedTotal += SystemClock.elapsedRealtimeNanos() - start;
+
+                start = SystemClock.elapsedRealtimeNanos();
+                RoomSnapshot streamed = readStream(benchFile);
+                streamTotal += SystemClock.elapsedRealtimeNanos() - start;
+
+                if (mapped == null || streamed == null) {
+                    throw new IOException("基准快照读取失败");
+                }
+            }
+            long[] result = {mappedTotal / Math.max(1, iterations), streamTotal / Math.max(1, iterations)};
+            Log.d(TAG, "快照读取基准（" + benchFile.length() + " 字节，" + iterations + " 次）：内存映射 "
+                    + result[0] / 1000 + "us，流读取 " + result[1] / 1000 + "us");
+            return result;
+        } finally {
+            benchFile.delete();
+        }
+    }
+
+    @Nullable
+    private static RoomSnapshot readMapped(File file) {
+        if (!file.isFile() || file.length() > MAX_FILE_BYTES) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "快照读取失败（内存映射）", e);
+            return null;
+        }
+    }
+
+    // 普通流读取（仅用于与内存映射对比）
+    @Nullable
+    private static RoomSnapshot readStream(File file) {
+        if (!file.isFile() || file.length() > MAX_FILE_BYTES) return null;
+        try (FileInputStream in = new FileInputStream(file)) {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            int read;
+            while (offset < data.length && (read = in.read(data, offset, data.length - offset)) != -1) {
+                offset += read;
+            }
+            return decode(ByteBuffer.wrap(data, 0, offset));
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "快照读取失败（流）", e);
+            return null;
+        }
+    }
+
+    // 编码、解码不依赖文件，包内可见供单元测试直接调用
+    static byte[] encode(RoomSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(snapshot.getSavedAtMs());
+        out.writeInt(snapshot.getOnlineCount());
+
+        HostInfo host = snapshot.getHostInfo();
+        out.writeBoolean(host != null);
+        if (host != null) {
+            writeString(out, host.getCreatedAt());
+            writeString(out, host.getName());
+            writeString(out, host.getAvatar());
+            writeString(out, host.getRoomName());
+            out.writeInt(host.getFollowerNum());
+            writeString(out, host.getId());
+        }
+
+        List<Comment> comments = snapshot.getComments();
+        out.writeInt(comments.size());
+        for (Comment comment : comments) {
+            writeString(out, comment.getCreatedAt());
+            writeString(out, comment.getName());
+            writeString(out, comment.getAvatar());
+            writeString(out, comment.getComment());
+            writeString(out, comment.getId());
+        }
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Nullable
+    static RoomSnapshot decode(ByteBuffer buffer) {
+        int length = buffer.remaining();
+        if (length < 8) return null;
+
+        // 校验 CRC（覆盖除末尾 8 字节外的全部内容；CRC32.update(ByteBuffer) 需要 API 26，分块拷贝）
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.limit(body.position() + length - 8);
+        byte[] chunk = new byte[Math.min(4096, Math.max(1, body.remaining()))];
+        while (body.hasRemaining()) {
+            int n = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+        }
+        long expectedCrc = buffer.getLong(buffer.position() + length - 8);
+        if (crc.getValue() != expectedCrc) {
+            Log.w(TAG, "快照校验失败，忽略");
+            return null;
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) return null;
+        long savedAt = buffer.getLong();
+        int onlineCount = buffer.getInt();
+
+        HostInfo host = null;
+        if (buffer.get() != 0) {
+            host = new HostInfo();
+            host.setCreatedAt(readString(buffer));
+            host.setName(readString(buffer));
+            host.setAvatar(readString(buffer));
+            host.setRoomName(readString(buffer));
+            host.setFollowerNum(buffer.getInt());
+            host.setId(readString(buffer));
+        }
+
+        int count = buffer.getInt();
+        if (count < 0 || count > RoomSnapshot.MAX_COMMENTS) return null;
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Comment comment = new Comment();
+            comment.setCreatedAt(readString(buffer));
+            comment.setName(readString(buffer));
+            comment.setAvatar(readString(buffer));
+            comment.setComment(readString(buffer));
+            comment.setId(readString(buffer));
+            comments.add(comment);
+        }
+        return new RoomSnapshot(host, comments, onlineCount, savedAt);
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        if (length > buffer.remaining()) {
+            throw new IllegalStateException("快照字符串长度非法：" + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,176 @@
+package com.bytedance.tictok_live.utils.startup;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.integration.okhttp3.OkHttpUrlLoader;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bytedance.tictok_live.utils.network.NetworkCore;
+import com.bytedance.tictok_live.utils.network.PriorityCallFactory;
+import com.bytedance.tictok_live.utils.player.LiveMediaCache;
+import com.bytedance.tictok_live.utils.player.LivePlaybackThread;
+import com.bytedance.tictok_live.utils.player.LivePlayerManager;
+import com.bytedance.tictok_live.utils.retrofit.RetrofitClient;
+import com.bytedance.tictok_live.utils.websocket.WebSocketManager;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit2.Retrofit;
+
+/**
+ * 应用级初始化（单例）：进程启动时在后台线程按依赖顺序初始化各单例，使用方通过 {@link LazyHandle} 延迟获取
+ *
+ *  network_core -> retrofit（Gson、HTTP 缓存）
+ *  network_core -> websocket（建立连接）
+ *  network_core -> glide（图片请求接入全局网络核心）
+ *  player_stack（播放线程、媒体缓存、播放器管理类）
+ *
+ * 主线程上的耗时（{@link #start} 本身、句柄未就绪时的同步初始化）单独统计，见 {@link #dumpReport()}
+ */
+public class AppInitializer {
+    private static final String TAG = "AppInitializer";
+
+    public static final String TASK_NETWORK_CORE = "network_core";
+    public static final String TASK_RETROFIT = "retrofit";
+    public static final String TASK_WEBSOCKET = "websocket";
+    public static final String TASK_GLIDE = "glide";
+    public static final String TASK_PLAYER_STACK = "player_stack";
+
+    private static volatile AppInitializer instance;
+
+    private final StartupScheduler scheduler = new StartupScheduler();
+    private final List<LazyHandle<?>> handles = new ArrayList<>();
+
+    private Context appContext;
+    private LazyHandle<NetworkCore> networkCore;
+    private LazyHandle<Retrofit> retrofit;
+    private LazyHandle<WebSocketManager> webSocket;
+    private LazyHandle<Glide> glide;
+    private LazyHandle<LivePlayerManager> playerManager;
+
+    private volatile boolean started = false;
+    private long startCostNs = -1;
+
+    // Glide 组件替换只做一次
+    private boolean glideNetworkReplaced = false;
+
+    private AppInitializer() {
+    }
+
+    public static AppInitializer getInstance() {
+        if (instance == null) {
+            synchronized (AppInitializer.class) {
+                if (instance == null) {
+                    instance = new AppInitializer();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 注册并启动后台初始化（Application.onCreate 调用，只记录任务，不做实际初始化）
+     */
+    @MainThread
+    public synchronized void start(Context context) {
+        if (started) return;
+        started = true;
+        long begin = SystemClock.elapsedRealtimeNanos();
+        appContext = context.getApplicationContext();
+
+        networkCore = register(TASK_NETWORK_CORE, StartupTask.PRIORITY_HIGH, NetworkCore::getInstance);
+        retrofit = register(TASK_RETROFIT, StartupTask.PRIORITY_HIGH, RetrofitClient::getInstance, TASK_NETWORK_CORE);
+        webSocket = register(TASK_WEBSOCKET, StartupTask.PRIORITY_HIGH, () -> {
+            WebSocketManager manager = WebSocketManager.getInstance();
+            manager.connect();
+            return manager;
+        }, TASK_NETWORK_CORE);
+        glide = register(TASK_GLIDE, StartupTask.PRIORITY_NORMAL, this::initGlide, TASK_NETWORK_CORE);
+        playerManager = register(TASK_PLAYER_STACK, StartupTask.PRIORITY_NORMAL, () -> {
+            LivePlaybackThread.getLooper();
+            LiveMediaCache.getInstance(appContext);
+            return LivePlayerManager.getInstance(appContext);
+        });
+
+        scheduler.start();
+        startCostNs = SystemClock.elapsedRealtimeNanos() - begin;
+        Log.d(TAG, "应用初始化已调度，主线程耗时：" + startCostNs / 1000 + "us");
+    }
+
+    private <T> LazyHandle<T> register(String name, int priority, LazyHandle.Initializer<T> initializer,
+                                       String... dependencies) {
+        LazyHandle<T> handle = new LazyHandle<>(name, initializer);
+        handles.add(handle);
+        scheduler.register(new StartupTask<Void>(name, priority, false, future -> {
+            handle.initInBackground();
+            future.complete(null);
+        }, dependencies));
+        return handle;
+    }
+
+    /**
+     * Glide 图片请求走全局网络核心（共享连接池，并纳入优先级调度）
+     */
+    private synchronized Glide initGlide() {
+        Glide glideInstance = Glide.get(appContext);
+        if (!glideNetworkReplaced) {
+            glideInstance.getRegistry().replace(
+                    GlideUrl.class,
+                    InputStream.class,
+                    new OkHttpUrlLoader.Factory(new PriorityCallFactory(NetworkCore.getInstance().getOkHttpClient()))
+            );
+            glideNetworkReplaced = true;
+        }
+        return glideInstance;
+    }
+
+    public LazyHandle<NetworkCore> getNetworkCore() {
+        return networkCore;
+    }
+
+    public LazyHandle<Retrofit> getRetrofit() {
+        return retrofit;
+    }
+
+    public LazyHandle<WebSocketManager> getWebSocket() {
+        return webSocket;
+    }
+
+    /**
+     * 使用 Glide 前需先 get()，保证网络组件已替换
+     */
+    public LazyHandle<Glide> getGlide() {
+        return glide;
+    }
+
+    public LazyHandle<LivePlayerManager> getPlayerManager() {
+        return playerManager;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * 输出后台执行耗时与主线程耗时汇总日志
+     */
+    public void dumpReport() {
+        if (!started) return;
+        scheduler.dumpTimings();
+        StringBuilder sb = new StringBuilder("应用初始化主线程耗时：start=")
+                .append(startCostNs / 1000).append("us");
+        for (LazyHandle<?> handle : handles) {
+            sb.append("\n  ").append(handle.getName())
+                    .append(handle.isReady() ? "" : "（未就绪）")
+                    .append(" 主线程未命中=").append(handle.getMainThreadMisses())
+                    .append(" 主线程耗时=").append(handle.getMainThreadCostNs() / 1000).append("us");
+        }
+        Log.d(TAG, sb.toString());
+    }
+}
@@ -0,0 +1,89 @@
+package com.bytedance.tictok_live.utils.startup;
+
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 延迟解析的单例句柄
+ *
+ * 初始化由 {@link AppInitializer} 在后台线程提前执行；调用 {@link #get()} 时若后台已完成直接返回，
+ * 否则在当前线程同步执行初始化（初始化方法需幂等，单例的双重检查锁会让调用方等待后台那一次完成）。
+ * 在主线程上的等待耗时会被累计，用于评估哪些初始化仍落在了主线程
+ */
+public class LazyHandle<T> {
+    private static final String TAG = "LazyHandle";
+
+    /**
+     * 初始化方法（需幂等、线程安全）
+     */
+    public interface Initializer<T> {
+        T create() throws Exception;
+    }
+
+    private final String name;
+    private final Initializer<T> initializer;
+    private final StartupFuture<T> future = new StartupFuture<>();
+
+    // 主线程上未命中（需同步初始化或等待后台）的次数、累计耗时
+    private final AtomicInteger mainThreadMisses = new AtomicInteger();
+    private final AtomicLong mainThreadCostNs = new AtomicLong();
+
+    LazyHandle(String name, Initializer<T> initializer) {
+        this.name = name;
+        this.initializer = initializer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取实例：后台已就绪直接返回，否则同步初始化
+     */
+    public T get() {
+        if (future.isSuccessful()) {
+            return future.getNow(null);
+        }
+        boolean onMain = Looper.myLooper() == Looper.getMainLooper();
+        long start = SystemClock.elapsedRealtimeNanos();
+        try {
+            T value = initializer.create();
+            future.complete(value);
+            return value;
+        } catch (Exception e) {
+            throw new IllegalStateException("初始化失败：" + name, e);
+        } finally {
+            if (onMain) {
+                long costNs = SystemClock.elapsedRealtimeNanos() - start;
+                mainThreadMisses.incrementAndGet();
+                mainThreadCostNs.addAndGet(costNs);
+                Log.w(TAG, name + " 未在后台就绪，主线程同步初始化耗时：" + costNs / 1000 + "us");
+            }
+        }
+    }
+
+    /**
+     * 是否已初始化完成
+     */
+    public boolean isReady() {
+        return future.isSuccessful();
+    }
+
+    // 在后台执行初始化（由 AppInitializer 调度）
+    void initInBackground() throws Exception {
+        if (future.isSuccessful()) return;
+        future.complete(initializer.create());
+    }
+
+    public int getMainThreadMisses() {
+        return mainThreadMisses.get();
+    }
+
+    public long getMainThreadCostNs() {
+        return mainThreadCostNs.get();
+    }
+}
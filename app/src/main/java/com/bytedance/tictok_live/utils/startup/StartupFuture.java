@@ -0,0 +1,120 @@
+package com.bytedance.tictok_live.utils.startup;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动任务完成结果（minSdk 23 无 CompletableFuture，只实现启动流程需要的部分）
+ *
+ * 只能完成一次；失败时结果为 null。回调在主线程执行
+ */
+public class StartupFuture<T> {
+
+    public interface Callback<T> {
+        // 成功为结果，失败为 null
+        void onComplete(@Nullable T result);
+    }
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final List<Callback<T>> callbacks = new ArrayList<>();
+    private final List<Runnable> internalListeners = new ArrayList<>();
+
+    private volatile boolean done = false;
+    private volatile T result;
+    private volatile Throwable error;
+
+    public boolean complete(@Nullable T value) {
+        return finish(value, null);
+    }
+
+    public boolean fail(Throwable t) {
+        return finish(null, t);
+    }
+
+    private boolean finish(T value, Throwable t) {
+        List<Callback<T>> pending;
+        List<Runnable> listeners;
+        synchronized (this) {
+            if (done) return false;
+            result = value;
+            error = t;
+            done = true;
+            pending = new ArrayList<>(callbacks);
+            listeners = new ArrayList<>(internalListeners);
+            callbacks.clear();
+            internalListeners.clear();
+        }
+        latch.countDown();
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+        for (Callback<T> callback : pending) {
+            MAIN_HANDLER.post(() -> callback.onComplete(value));
+        }
+        return true;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isSuccessful() {
+        return done && error == null;
+    }
+
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * 已完成返回结果，否则返回默认值（不阻塞）
+     */
+    public T getNow(T fallback) {
+        return done ? result : fallback;
+    }
+
+    /**
+     * 阻塞等待（不可在主线程调用），超时返回默认值
+     */
+    public T await(long timeout, TimeUnit unit, T fallback) throws InterruptedException {
+        return latch.await(timeout, unit) ? result : fallback;
+    }
+
+    /**
+     * 完成后在主线程回调；已完成且当前在主线程时立即回调（保证接管流程同步执行）
+     */
+    public void observe(Callback<T> callback) {
+        synchronized (this) {
+            if (!done) {
+                callbacks.add(callback);
+                return;
+            }
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            callback.onComplete(result);
+        } else {
+            MAIN_HANDLER.post(() -> callback.onComplete(result));
+        }
+    }
+
+    // 调度器内部使用：完成时在完成线程上同步回调
+    void addInternalListener(Runnable listener) {
+        synchronized (this) {
+            if (!done) {
+                internalListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+}
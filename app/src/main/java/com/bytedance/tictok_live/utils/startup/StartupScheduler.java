@@ -0,0 +1,308 @@
+package com.bytedance.tictok_live.utils.startup;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动任务调度（依赖图）
+ *
+ *  1. 注册任务时声明依赖和优先级，得到完成 future
+ *  2. 依赖全部完成（无论成败）后任务进入优先级队列，由工作线程按优先级执行
+ *  3. {@link #awaitCritical} 在关键任务全部完成或超时后回调（启动页据此退出）
+ *  4. 记录每个任务的等待、执行耗时
+ */
+public class StartupScheduler {
+    private static final String TAG = "StartupScheduler";
+
+    private static final int WORKER_COUNT = 3;
+    private static final long WORKER_KEEP_ALIVE_S = 10;
+
+    /**
+     * 单个任务耗时（elapsedRealtime，未发生为 -1）
+     */
+    public static class TaskTiming {
+        public final String name;
+        public final boolean critical;
+        volatile long readyAtMs = -1;   // 依赖满足、进入队列
+        volatile long startAtMs = -1;   // 开始执行
+        volatile long endAtMs = -1;     // future 完成
+        volatile boolean success;
+
+        TaskTiming(String name, boolean critical) {
+            this.name = name;
+            this.critical = critical;
+        }
+
+        // 从调度开始到依赖满足的等待时长
+        public long getWaitMs(long schedulerStartMs) {
+            return readyAtMs < 0 ? -1 : readyAtMs - schedulerStartMs;
+        }
+
+        // 排队时长（依赖满足到开始执行）
+        public long getQueueMs() {
+            return startAtMs < 0 ? -1 : startAtMs - readyAtMs;
+        }
+
+        // 执行时长（开始执行到完成，含异步等待）
+        public long getRunMs() {
+            return endAtMs < 0 ? -1 : endAtMs - startAtMs;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+    }
+
+    private final Map<String, StartupTask<?>> tasks = new LinkedHashMap<>();
+    private final Map<String, StartupFuture<?>> futures = new LinkedHashMap<>();
+    private final Map<String, TaskTiming> timings = new LinkedHashMap<>();
+    // 任务名 -> 未完成的依赖数
+    private final Map<String, AtomicInteger> pendingDependencies = new LinkedHashMap<>();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicLong sequence = new AtomicLong();
+    private ThreadPoolExecutor executor;
+
+    private volatile boolean started = false;
+    private long startAtMs;
+
+    /**
+     * 注册任务（需在 start 之前）
+     */
+    public synchronized <T> StartupFuture<T> register(StartupTask<T> task) {
+        if (started) {
+            throw new IllegalStateException("调度已开始，不能再注册任务：" + task.name);
+        }
+        if (tasks.containsKey(task.name)) {
+            throw new IllegalArgumentException("重复的启动任务：" + task.name);
+        }
+        StartupFuture<T> future = new StartupFuture<>();
+        tasks.put(task.name, task);
+        futures.put(task.name, future);
+        timings.put(task.name, new TaskTiming(task.name, task.critical));
+        return future;
+    }
+
+    /**
+     * 开始调度（校验依赖存在且无环）
+     */
+    public synchronized void start() {
+        if (started) return;
+        validateGraph();
+        started = true;
+        startAtMs = SystemClock.elapsedRealtime();
+
+        executor = new ThreadPoolExecutor(WORKER_COUNT, WORKER_COUNT, WORKER_KEEP_ALIVE_S, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Startup-" + sequence.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        List<StartupTask<?>> roots = new ArrayList<>();
+        for (StartupTask<?> task : tasks.values()) {
+            pendingDependencies.put(task.name, new AtomicInteger(task.dependencies.size()));
+        }
+        for (StartupTask<?> task : tasks.values()) {
+            if (task.dependencies.isEmpty()) {
+                roots.add(task);
+            }
+            // 依赖完成时递减计数，归零即入队
+            for (String dependency : task.dependencies) {
+                futures.get(dependency).addInternalListener(() -> {
+                    if (pendingDependencies.get(task.name).decrementAndGet() == 0) {
+                        enqueue(task);
+                    }
+                });
+            }
+        }
+        for (StartupTask<?> task : roots) {
+            enqueue(task);
+        }
+        Log.d(TAG, "启动任务调度开始，任务数：" + tasks.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void enqueue(StartupTask<T> task) {
+        if (executor.isShutdown()) return;
+        TaskTiming timing = timings.get(task.name);
+        timing.readyAtMs = SystemClock.elapsedRealtime();
+        StartupFuture<T> future = (StartupFuture<T>) futures.get(task.name);
+        future.addInternalListener(() -> {
+            timing.endAtMs = SystemClock.elapsedRealtime();
+            timing.success = future.isSuccessful();
+            Log.d(TAG, "启动任务完成：" + task.name + (timing.success ? "" : "（失败）")
+                    + "，排队：" + timing.getQueueMs() + "ms，执行：" + timing.getRunMs() + "ms");
+        });
+        executor.execute(new PrioritizedRunnable(task.priority, sequence.incrementAndGet(), () -> {
+            timing.startAtMs = SystemClock.elapsedRealtime();
+            try {
+                task.body.run(future);
+            } catch (Exception e) {
+                Log.e(TAG, "启动任务异常：" + task.name, e);
+                future.fail(e);
+            }
+        }));
+    }
+
+    private void validateGraph() {
+        for (StartupTask<?> task : tasks.values()) {
+            for (String dependency : task.dependencies) {
+                if (!tasks.containsKey(dependency)) {
+                    throw new IllegalStateException("启动任务 " + task.name + " 依赖不存在：" + dependency);
+                }
+            }
+        }
+        Set<String> visited = new HashSet<>();
+        for (String name : tasks.keySet()) {
+            checkCycle(name, visited, new HashSet<>());
+        }
+    }
+
+    private void checkCycle(String name, Set<String> visited, Set<String> path) {
+        if (path.contains(name)) {
+            throw new IllegalStateException("启动任务存在循环依赖：" + path + " -> " + name);
+        }
+        if (!visited.add(name)) return;
+        path.add(name);
+        for (String dependency : tasks.get(name).dependencies) {
+            checkCycle(dependency, visited, path);
+        }
+        path.remove(name);
+    }
+
+    /**
+     * 关键任务全部完成或超时后在主线程回调一次
+     */
+    @MainThread
+    public void awaitCritical(long timeoutMs, Runnable onReady) {
+        List<StartupFuture<?>> critical = new ArrayList<>();
+        synchronized (this) {
+            for (StartupTask<?> task : tasks.values()) {
+                if (task.critical) {
+                    critical.add(futures.get(task.name));
+                }
+            }
+        }
+
+        final boolean[] fired = {false};
+        final long waitStart = SystemClock.elapsedRealtime();
+        Runnable fireOnce = () -> {
+            if (fired[0]) return;
+            fired[0] = true;
+            mainHandler.removeCallbacksAndMessages(onReady);
+            Log.d(TAG, "关键任务就绪，等待：" + (SystemClock.elapsedRealtime() - waitStart) + "ms");
+            onReady.run();
+        };
+
+        AtomicInteger remaining = new AtomicInteger(critical.size());
+        if (critical.isEmpty()) {
+            fireOnce.run();
+            return;
+        }
+        for (StartupFuture<?> future : critical) {
+            future.observe(result -> {
+                if (remaining.decrementAndGet() == 0) {
+                    fireOnce.run();
+                }
+            });
+        }
+        // 超时兜底（token 为 onReady，便于完成时移除）
+        mainHandler.postAtTime(() -> {
+            if (!fired[0]) {
+                Log.w(TAG, "关键任务等待超时（" + timeoutMs + "ms），未完成：" + remaining.get());
+            }
+            fireOnce.run();
+        }, onReady, SystemClock.uptimeMillis() + timeoutMs);
+    }
+
+    /**
+     * 获取任务的完成 future（任务不存在返回 null）
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> StartupFuture<T> getFuture(String name) {
+        return (StartupFuture<T>) futures.get(name);
+    }
+
+    /**
+     * 各任务耗时（按注册顺序）
+     */
+    public synchronized List<TaskTiming> getTimings() {
+        return new ArrayList<>(timings.values());
+    }
+
+    public long getStartAtMs() {
+        return startAtMs;
+    }
+
+    /**
+     * 输出耗时汇总日志
+     */
+    public void dumpTimings() {
+        StringBuilder sb = new StringBuilder("启动任务耗时：");
+        for (TaskTiming timing : getTimings()) {
+            sb.append("\n  ").append(timing.name)
+                    .append(timing.critical ? "（关键）" : "")
+                    .append(" 等待依赖=").append(timing.getWaitMs(startAtMs)).append("ms")
+                    .append(" 排队=").append(timing.getQueueMs()).append("ms")
+                    .append(" 执行=").append(timing.getRunMs()).append("ms")
+                    .append(timing.endAtMs < 0 ? " 未完成" : (timing.success ? "" : " 失败"));
+        }
+        Log.d(TAG, sb.toString());
+    }
+
+    /**
+     * 停止工作线程（已完成的 future 仍可读取）
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 优先级队列元素：优先级高的先执行，同优先级按入队顺序
+     */
+    private static class PrioritizedRunnable implements Runnable, Comparable<PrioritizedRunnable> {
+        private final int priority;
+        private final long order;
+        private final Runnable delegate;
+
+        PrioritizedRunnable(int priority, long order, Runnable delegate) {
+            this.priority = priority;
+            this.order = order;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+
+        @Override
+        public int compareTo(@NonNull PrioritizedRunnable other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bytedance.tictok_live.utils.startup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 启动任务：名称 + 依赖 + 优先级 + 是否关键（关键任务全部完成启动页才可退出）
+ *
+ * 任务体在调度器的工作线程执行，可同步完成，也可把 future 交给异步回调稍后完成
+ */
+public class StartupTask<T> {
+
+    // 优先级：依赖都已满足的任务中，优先级高的先执行
+    public static final int PRIORITY_HIGH = 2;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_LOW = 0;
+
+    public interface Body<T> {
+        void run(StartupFuture<T> future) throws Exception;
+    }
+
+    final String name;
+    final int priority;
+    final boolean critical;
+    final List<String> dependencies;
+    final Body<T> body;
+
+    public StartupTask(String name, int priority, boolean critical, Body<T> body, String... dependencies) {
+        this.name = name;
+        this.priority = priority;
+        this.critical = critical;
+        this.body = body;
+        this.dependencies = dependencies.length == 0
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(Arrays.asList(dependencies));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isCritical() {
+        return critical;
+    }
+}
@@ -0,0 +1,247 @@
+package com.bytedance.tictok_live.utils.trace;
+
+import android.content.Context;
+import android.os.Process;
+import android.util.Log;
+
+import com.bytedance.tictok_live.constant.BusinessConstant;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 轻量打点追踪：输出 Chrome trace-event JSON（可用 chrome://tracing、Perfetto 打开）
+ *
+ *  1. 同步区间 {@link #begin}/{@link #end}（同一线程内成对调用），异步区间 {@link #asyncBegin}/{@link #asyncEnd}（可跨线程，按 id 配对）
+ *  2. 每个线程写自己的环形缓冲（定长数组，记录时无锁、无分配），写满后覆盖最旧的事件
+ *  3. {@link #dumpAsync} 在后台线程把所有线程的缓冲写成 JSON 文件，只保留最近 {@link #MAX_DUMP_FILES} 个
+ *  4. 线程结束后缓冲仍保留到下一次导出，导出后回收；未导出前最多保留 {@link #MAX_DEAD_BUFFERS} 个，多出的丢弃最早的
+ *
+ * 开关为编译期常量 {@link #ENABLED}，关闭时各方法首行即返回，调用点可被内联消除；事件名请使用字符串常量
+ */
+public final class Tracer {
+    private static final String TAG = "Tracer";
+
+    public static final boolean ENABLED = BusinessConstant.TRACE_ENABLED;
+
+    // 单线程缓冲容量（事件数，2 的幂）
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final String DUMP_FILE_PREFIX = "trace_";
+    private static final String DUMP_FILE_SUFFIX = ".json";
+    // 保留的导出文件数
+    private static final int MAX_DUMP_FILES = 5;
+    // 已结束线程的缓冲上限（单个缓冲约 200KB，线程池反复建线程时避免无限增长）
+    private static final int MAX_DEAD_BUFFERS = 4;
+
+    // 事件类型（Chrome trace-event 的 ph 字段）
+    private static final char PHASE_BEGIN = 'B';
+    private static final char PHASE_END = 'E';
+    private static final char PHASE_ASYNC_BEGIN = 'b';
+    private static final char PHASE_ASYNC_END = 'e';
+    private static final char PHASE_INSTANT = 'i';
+
+    private static final CopyOnWriteArrayList<ThreadBuffer> BUFFERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<ThreadBuffer> LOCAL_BUFFER = new ThreadLocal<ThreadBuffer>() {
+        @Override
+        protected ThreadBuffer initialValue() {
+            ThreadBuffer buffer = new ThreadBuffer(Process.myTid(), Thread.currentThread());
+            trimDeadBuffers();
+            BUFFERS.add(buffer);
+            return buffer;
+        }
+    };
+    private static final ExecutorService DUMP_EXECUTOR = ENABLED ? Executors.newSingleThreadExecutor() : null;
+
+    private Tracer() {}
+
+    /**
+     * 同步区间开始（需在同一线程调用 {@link #end}）
+     */
+    public static void begin(String name) {
+        if (!ENABLED) return;
+        LOCAL_BUFFER.get().add(PHASE_BEGIN, name, 0);
+    }
+
+    /**
+     * 结束当前线程最近一次 begin 的区间
+     */
+    public static void end() {
+        if (!ENABLED) return;
+        LOCAL_BUFFER.get().add(PHASE_END, null, 0);
+    }
+
+    /**
+     * 异步区间开始（id 在同名区间内唯一，可在任意线程结束）
+     */
+    public static void asyncBegin(String name, long id) {
+        if (!ENABLED) return;
+        LOCAL_BUFFER.get().add(PHASE_ASYNC_BEGIN, name, id);
+    }
+
+    public static void asyncEnd(String name, long id) {
+        if (!ENABLED) return;
+        LOCAL_BUFFER.get().add(PHASE_ASYNC_END, name, id);
+    }
+
+    /**
+     * 瞬时事件
+     */
+    public static void instant(String name) {
+        if (!ENABLED) return;
+        LOCAL_BUFFER.get().add(PHASE_INSTANT, name, 0);
+    }
+
+    /**
+     * 在后台线程把全部缓冲写入 files/trace_时间戳.json
+     */
+    public static void dumpAsync(Context context) {
+        if (!ENABLED) return;
+        File dir = context.getApplicationContext().getFilesDir();
+        File file = new File(dir, DUMP_FILE_PREFIX + System.currentTimeMillis() + DUMP_FILE_SUFFIX);
+        DUMP_EXECUTOR.execute(() -> {
+            dump(file);
+            deleteOldDumps(dir);
+        });
+    }
+
+    private static void dump(File file) {
+        int pid = Process.myPid();
+        int events = 0;
+        try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            boolean first = true;
+            for (ThreadBuffer buffer : BUFFERS) {
+                // 线程名元数据
+                if (!first) writer.write(",\n");
+                first = false;
+                writer.write("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":" + pid + ",\"tid\":" + buffer.tid
+                        + ",\"args\":{\"name\":\"" + escape(buffer.threadName) + "\"}}");
+                events += buffer.writeTo(writer, pid);
+                // 线程已结束：数据已导出，回收缓冲
+                if (!buffer.isAlive()) {
+                    BUFFERS.remove(buffer);
+                }
+            }
+            writer.write("\n]}\n");
+            Log.d(TAG, "追踪已写入：" + file.getAbsolutePath() + "，事件数：" + events);
+        } catch (IOException e) {
+            Log.w(TAG, "追踪写入失败", e);
+        }
+    }
+
+    /**
+     * 已结束线程的缓冲超过上限时，从最早的开始丢弃
+     */
+    private static void trimDeadBuffers() {
+        int dead = 0;
+        for (ThreadBuffer buffer : BUFFERS) {
+            if (!buffer.isAlive()) dead++;
+        }
+        for (ThreadBuffer buffer : BUFFERS) {
+            if (dead < MAX_DEAD_BUFFERS) break;
+            if (!buffer.isAlive() && BUFFERS.remove(buffer)) {
+                dead--;
+            }
+        }
+    }
+
+    /**
+     * 只保留最近的 {@link #MAX_DUMP_FILES} 个导出文件（文件名含时间戳，按名称排序即按时间排序）
+     */
+    private static void deleteOldDumps(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(DUMP_FILE_PREFIX) && name.endsWith(DUMP_FILE_SUFFIX));
+        if (files == null || files.length <= MAX_DUMP_FILES) return;
+        Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+        for (int i = 0; i < files.length - MAX_DUMP_FILES; i++) {
+            if (!files[i].delete()) {
+                Log.w(TAG, "删除旧追踪文件失败：" + files[i].getName());
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * 单线程环形缓冲（只由所属线程写入；导出时读取，允许读到正在覆盖的最旧事件）
+     */
+    private static final class ThreadBuffer {
+        final int tid;
+        final String threadName;
+        // 弱引用所属线程，用于判断线程是否已结束
+        private final WeakReference<Thread> owner;
+        private final long[] timestampsNs = new long[BUFFER_CAPACITY];
+        private final char[] phases = new char[BUFFER_CAPACITY];
+        private final String[] names = new String[BUFFER_CAPACITY];
+        private final long[] ids = new long[BUFFER_CAPACITY];
+        // 已写入事件总数（写完字段后再递增，导出线程据此读取）
+        private volatile long written = 0;
+
+        ThreadBuffer(int tid, Thread thread) {
+            this.tid = tid;
+            this.threadName = thread.getName();
+            this.owner = new WeakReference<>(thread);
+        }
+
+        boolean isAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        void add(char phase, String name, long id) {
+            long count = written;
+            int index = (int) (count & (BUFFER_CAPACITY - 1));
+            timestampsNs[index] = System.nanoTime();
+            phases[index] = phase;
+            names[index] = name;
+            ids[index] = id;
+            written = count + 1;
+        }
+
+        int writeTo(Writer writer, int pid) throws IOException {
+            long end = written;
+            long start = Math.max(0, end - BUFFER_CAPACITY);
+            // 环形覆盖后开头可能是孤立的 E，跳过
+            int depth = 0;
+            int count = 0;
+            StringBuilder sb = new StringBuilder(128);
+            for (long i = start; i < end; i++) {
+                int index = (int) (i & (BUFFER_CAPACITY - 1));
+                char phase = phases[index];
+                if (phase == PHASE_BEGIN) {
+                    depth++;
+                } else if (phase == PHASE_END) {
+                    if (depth == 0) continue;
+                    depth--;
+                }
+                sb.setLength(0);
+                sb.append(",\n{\"ph\":\"").append(phase)
+                        .append("\",\"pid\":").append(pid)
+                        .append(",\"tid\":").append(tid)
+                        .append(",\"ts\":").append(timestampsNs[index] / 1000);
+                if (phase != PHASE_END) {
+                    sb.append(",\"name\":\"").append(escape(names[index])).append('"');
+                }
+                if (phase == PHASE_ASYNC_BEGIN || phase == PHASE_ASYNC_END) {
+                    sb.append(",\"cat\":\"async\",\"id\":").append(ids[index]);
+                } else if (phase == PHASE_INSTANT) {
+                    sb.append(",\"s\":\"t\"");
+                }
+                sb.append('}');
+                writer.write(sb.toString());
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -4,16 +4,26 @@ import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
 import android.os.Message;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.bytedance.tictok_live.utils.metrics.Counter;
+import com.bytedance.tictok_live.utils.metrics.Gauge;
+import com.bytedance.tictok_live.utils.metrics.MetricTimer;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
+import com.bytedance.tictok_live.utils.network.NetworkCore;
+import com.bytedance.tictok_live.utils.network.NetworkTimingCollector;
+import com.bytedance.tictok_live.utils.trace.Tracer;
+
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -32,10 +42,23 @@ public class WebSocketManager {
     // 单例（volatile 保证可见性）
     private static volatile WebSocketManager instance;
 
-    // 核心对象（全局复用 OkHttpClient）
+    // 指标
+    private static final MetricTimer HANDSHAKE_METRIC = MetricsRegistry.getInstance().timer("ws.handshake");
+    private static final Counter MESSAGE_METRIC = MetricsRegistry.getInstance().counter("ws.message");
+    private static final Counter FAILURE_METRIC = MetricsRegistry.getInstance().counter("ws.failure");
+    private static final Counter RECONNECT_METRIC = MetricsRegistry.getInstance().counter("ws.reconnect");
+    private static final MetricTimer RTT_METRIC = MetricsRegistry.getInstance().timer("ws.rtt");
+    private static final Gauge LAST_RTT_METRIC = MetricsRegistry.getInstance().gauge("ws.rtt_ms");
+
+    // 核心对象（复用全局网络核心的连接池、调度器）
     private final OkHttpClient okHttpClient;
+    private final String url;
     private WebSocket webSocket;
+    // 连接代次：每次发起连接、主动断开都递增，旧连接迟到的回调（如 close 后的 onClosed）不再影响当前状态
+    private final AtomicInteger connectGeneration = new AtomicInteger(0);
     private OnMessageReceivedListener messageListener;
+    // 连接成功时执行一次的回调
+    private final CopyOnWriteArrayList<Runnable> connectedActions = new CopyOnWriteArrayList<>();
 
     // 状态标记（原子类保证线程安全）
     public final AtomicBoolean isConnected = new AtomicBoolean(false);
@@ -56,15 +79,24 @@ public class WebSocketManager {
     private Timer heartbeatTimer;
     private Handler heartbeatDelayHandler; // 用于取消心跳失败检查的延迟任务
     private static final int MSG_HEARTBEAT_FAIL = 1001; // 心跳失败检查消息
+    private volatile long lastPingSentMs = -1; // 最近一次发送心跳的时间（计算往返时延）
+    private static final AtomicLong TRACE_SEQUENCE = new AtomicLong(); // 异步追踪区间 id
 
     private WebSocketManager() {
-        // 全局复用 OkHttpClient
-        okHttpClient = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(10, TimeUnit.SECONDS)
-                .writeTimeout(10, TimeUnit.SECONDS)
-                .retryOnConnectionFailure(false) // 关闭OkHttp自带重试，用自定义重连
-                .build();
+        this(WEB_SOCKET_URL, NetworkCore.getInstance().getOkHttpClient());
+    }
+
+    // 包内可见：单元测试指定本地地址和 client
+    WebSocketManager(String url, OkHttpClient baseClient) {
+        this.url = url;
+        // 基于全局网络核心派生 OkHttpClient（共享连接池、调度器、DNS；关闭OkHttp自带重试，用自定义重连）
+        okHttpClient = NetworkCore.deriveWebSocketClient(baseClient);
+
+        // 发送队列积压字节数（快照时读取）
+        MetricsRegistry.getInstance().gauge("ws.queue_bytes", () -> {
+            WebSocket current = webSocket;
+            return current == null ? 0 : current.queueSize();
+        });
 
         // 心跳延迟任务的 Handler（独立线程，避免主线程阻塞）
         HandlerThread heartbeatThread = new HandlerThread("WebSocketHeartbeat");
@@ -101,26 +133,38 @@ public class WebSocketManager {
 
     // 连接WebSocket
     public void connect() {
-        // 1. 避免重复连接/重连
-        if (isConnected.get() || isReconnecting.get()) {
+        // 1. 避免重复连接/重连：多线程同时调用时只有抢到标记的一方发起连接
+        if (isConnected.get() || !isReconnecting.compareAndSet(false, true)) {
             Log.d(TAG, "WebSocket已连接/正在重连，无需重复连接");
             return;
         }
-
-        // 标记正在重连（原子操作，线程安全）
-        isReconnecting.set(true);
+        // 抢到标记前恰好连接成功（回调已清除标记），不再重复发起
+        if (isConnected.get()) {
+            isReconnecting.set(false);
+            return;
+        }
 
         // 2. 构建 WebSocket 请求
         Request request = new Request.Builder()
-                .url(WEB_SOCKET_URL)
+                .url(url)
                 .build();
+        final int generation = connectGeneration.incrementAndGet();
 
-        // 3. 建立连接
+        // 3. 建立连接（OkHttp 的 WebSocket 不回调 EventListener，握手耗时手动上报）
+        final long handshakeStart = SystemClock.elapsedRealtime();
         webSocket = okHttpClient.newWebSocket(request, new WebSocketListener() {
             @Override
             public void onOpen(@NonNull WebSocket webSocket, @NonNull Response response) {
                 super.onOpen(webSocket, response);
-                Log.d(TAG, "WebSocket连接成功");
+                if (isStale(generation, webSocket)) return;
+                long handshakeMs = SystemClock.elapsedRealtime() - handshakeStart;
+                Log.d(TAG, "WebSocket连接成功，握手耗时：" + handshakeMs + "ms");
+                HANDSHAKE_METRIC.record(handshakeMs);
+                NetworkTimingCollector.getInstance().record(
+                        NetworkTimingCollector.endpointKey(request.url()),
+                        NetworkTimingCollector.Phase.TOTAL,
+                        handshakeMs
+                );
                 // 重置状态（原子操作）
                 isConnected.set(true);
                 isReconnecting.set(false);
@@ -130,32 +174,55 @@ public class WebSocketManager {
                 stopReconnectTimer();
                 // 启动心跳
                 startHeartbeat();
+                // 执行等待连接的回调
+                for (Runnable action : connectedActions) {
+                    if (connectedActions.remove(action)) {
+                        action.run();
+                    }
+                }
             }
 
             @Override
             public void onMessage(@NonNull WebSocket webSocket, @NonNull String text) {
                 super.onMessage(webSocket, text);
-                // 暂停中忽略消息
-                if (isWebSocketPaused.get()) {
-                    Log.d(TAG, "WS已暂停，忽略消息");
-                    return;
-                }
-
-                Log.d(TAG, "收到WebSocket消息：" + text);
+                Tracer.begin("ws.onMessage");
+                try {
+                    // 暂停中忽略消息
+                    if (isWebSocketPaused.get()) {
+                        Log.d(TAG, "WS已暂停，忽略消息");
+                        return;
+                    }
 
-                // 心跳响应：重置失败次数 + 取消未执行的失败检查任务(由于服务器收什么发什么,所以这里需要使用ping来作为心跳响应)
-                if ("ping".equals(text)) {
-                    heartbeatFailCount.set(0);
-                    heartbeatDelayHandler.removeMessages(MSG_HEARTBEAT_FAIL);
-                    return;
-                }
+                    Log.d(TAG, "收到WebSocket消息：" + text);
+                    MESSAGE_METRIC.inc();
+
+                    // 心跳响应：重置失败次数 + 取消未执行的失败检查任务(由于服务器收什么发什么,所以这里需要使用ping来作为心跳响应)
+                    if ("ping".equals(text)) {
+                        long sentMs = lastPingSentMs;
+                        if (sentMs > 0) {
+                            long rttMs = SystemClock.elapsedRealtime() - sentMs;
+                            RTT_METRIC.record(rttMs);
+                            LAST_RTT_METRIC.set(rttMs);
+                            lastPingSentMs = -1;
+                        }
+                        heartbeatFailCount.set(0);
+                        heartbeatDelayHandler.removeMessages(MSG_HEARTBEAT_FAIL);
+                        return;
+                    }
 
-                // 回调消息（做空指针判断）
-                if (messageListener != null) {
-                    // 确保回调在主线程（避免子线程更新UI）
-                    new Handler(Looper.getMainLooper()).post(() -> {
-                        messageListener.onMessageReceived(text);
-                    });
+                    // 回调消息（做空指针判断）
+                    if (messageListener != null) {
+                        // 确保回调在主线程（避免子线程更新UI）
+                        long traceId = TRACE_SEQUENCE.incrementAndGet();
+                        Tracer.asyncBegin("ws.dispatchToMain", traceId);
+                        new Handler(Looper.getMainLooper()).post(() -> {
+                            Tracer.asyncEnd("ws.dispatchToMain", traceId);
+                            messageListener.onMessageReceived(text);
+                        });
+                    }
+            
+                } finally {
+                    Tracer.end();
                 }
             }
 
@@ -163,30 +230,43 @@ public class WebSocketManager {
             public void onClosed(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
                 super.onClosed(webSocket, code, reason);
                 Log.d(TAG, "WebSocket连接关闭：code=" + code + ", reason=" + reason);
+                if (isStale(generation, webSocket)) return;
                 // 重置状态
                 isConnected.set(false);
                 isReconnecting.set(false);
                 stopHeartbeat();
-                // 关闭连接时取消OkHttp的请求
-                okHttpClient.dispatcher().cancelAll();
             }
 
             @Override
             public void onFailure(@NonNull WebSocket webSocket, @NonNull Throwable t, @Nullable Response response) {
                 super.onFailure(webSocket, t, response);
                 Log.e(TAG, "WebSocket连接失败", t);
+                if (isStale(generation, webSocket)) {
+                    webSocket.cancel();
+                    return;
+                }
+                FAILURE_METRIC.inc();
                 // 重置状态
                 isConnected.set(false);
                 isReconnecting.set(false);
                 stopHeartbeat();
                 // 触发重连
                 startReconnect();
-                // 关闭连接时取消OkHttp的请求
-                okHttpClient.dispatcher().cancelAll();
+                // 只取消当前 WebSocket（调度器为全局共享，不能 cancelAll 影响 REST、媒体请求）
+                webSocket.cancel();
             }
         });
     }
 
+    /**
+     * 回调是否来自已被替换或主动断开的旧连接（此时只需自行关闭，不改动当前状态）
+     */
+    private boolean isStale(int generation, WebSocket socket) {
+        if (generation == connectGeneration.get()) return false;
+        Log.d(TAG, "忽略旧连接的回调：" + socket);
+        return true;
+    }
+
     /**
      * 重连（指数退避，线程安全）
      */
@@ -208,6 +288,7 @@ public class WebSocketManager {
         reconnectDelay = Math.min(reconnectDelay, MAX_RECONNECT_DELAY);
         // 重连次数+1（原子操作）
         currentReconnectCount.incrementAndGet();
+        RECONNECT_METRIC.inc();
 
         Log.d(TAG, "WS准备重连，第" + currentReconnectCount.get() + "次，间隔：" + reconnectDelay + "ms");
         reconnectTimer = new Timer("WebSocketReconnectTimer");
@@ -249,6 +330,7 @@ public class WebSocketManager {
                 if (webSocket != null && isConnected.get()) {
                     try {
                         // 发送ping（OkHttp的WebSocket.send是线程安全的）
+                        lastPingSentMs = SystemClock.elapsedRealtime();
                         webSocket.send("ping");
                         Log.d(TAG, "发送心跳：ping");
 
@@ -278,8 +360,11 @@ public class WebSocketManager {
             heartbeatTimer.purge();
             heartbeatTimer = null;
         }
-        // 取消未执行的失败检查任务
-        heartbeatDelayHandler.removeMessages(MSG_HEARTBEAT_FAIL);
+        // 取消未执行的失败检查任务（release 之后 Handler 已置空）
+        Handler handler = heartbeatDelayHandler;
+        if (handler != null) {
+            handler.removeMessages(MSG_HEARTBEAT_FAIL);
+        }
         // 重置失败次数
         heartbeatFailCount.set(0);
     }
@@ -320,13 +405,35 @@ public class WebSocketManager {
         isConnected.set(false);
         isReconnecting.set(false);
         currentReconnectCount.set(0);
-        // 关闭WebSocket
+        connectGeneration.incrementAndGet();
+        // 关闭WebSocket（调度器为全局共享，只关闭自身连接，不取消其它请求）
         if (webSocket != null) {
             webSocket.close(1000, "主动关闭连接");
             webSocket = null;
         }
-        // 取消OkHttp的所有请求
-        okHttpClient.dispatcher().cancelAll();
+    }
+
+    /**
+     * 离开直播间：断开连接并移除消息监听（监听持有页面）；单例与心跳线程保留，再次进房直接 {@link #connect()}
+     */
+    public void leaveRoom() {
+        disconnect();
+        messageListener = null;
+    }
+
+    /**
+     * 连接成功后执行一次（已连接则立即执行；在 OkHttp 回调线程执行）
+     */
+    public void whenConnected(Runnable action) {
+        if (isConnected.get()) {
+            action.run();
+            return;
+        }
+        connectedActions.add(action);
+        // 注册期间刚好连上
+        if (isConnected.get() && connectedActions.remove(action)) {
+            action.run();
+        }
     }
 
     /**
@@ -354,7 +461,7 @@ public class WebSocketManager {
     }
 
     /**
-     * 释放资源（建议在Application退出时调用）
+     * 释放资源（仅在进程退出时调用；释放后的实例不可再用，离开直播间请用 {@link #leaveRoom()}）
      */
     public void release() {
         disconnect();
@@ -9,6 +9,7 @@ import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
@@ -19,10 +20,17 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bytedance.tictok_live.R;
+import com.bytedance.tictok_live.constant.BusinessConstant;
 import com.bytedance.tictok_live.model.Comment;
 import com.bytedance.tictok_live.recycler.CommentAdapter;
 import com.bytedance.tictok_live.utils.monitor.FluencyMonitor;
+import com.bytedance.tictok_live.utils.monitor.MainThreadStallDetector;
+import com.bytedance.tictok_live.utils.monitor.PerfHudView;
+import com.bytedance.tictok_live.utils.player.LiveLatencyProfile;
 import com.bytedance.tictok_live.utils.player.LivePlayerManager;
+import com.bytedance.tictok_live.utils.player.PlayerErrorRecovery;
+import com.bytedance.tictok_live.utils.startup.AppInitializer;
+import com.bytedance.tictok_live.utils.trace.Tracer;
 import com.bytedance.tictok_live.viewModel.LiveViewModel;
 
 import java.util.ArrayList;
@@ -47,6 +55,7 @@ public class LiveActivity extends AppCompatActivity {
     private RecyclerView rvComments;
     private EditText etSendComment;
     private TextView tvOnline;
+    private PerfHudView perfHud;
 
     // 对象
     private CommentAdapter commentAdapter;
@@ -71,12 +80,17 @@ public class LiveActivity extends AppCompatActivity {
         initView();
 
         // 2. 播放直播流
-        livePlayerManager = LivePlayerManager.getInstance(this);
+        livePlayerManager = AppInitializer.getInstance().getPlayerManager().get();
         livePlayerManager.initPlayerWithPreload(playerView);
+        listenPlayerRecovery();
 
         // 3.启动流畅性监控
         fluencyMonitor = new FluencyMonitor();
+        fluencyMonitor.setRefreshRate(getWindowManager().getDefaultDisplay().getRefreshRate());
+        fluencyMonitor.setScene(FluencyMonitor.Scene.ENTERING);
         fluencyMonitor.start();
+        // 直播画面首帧上屏（进房完成）后进入稳定观看场景
+        livePlayerManager.runOnFirstFrameRendered(() -> fluencyMonitor.setScene(FluencyMonitor.Scene.STEADY));
 
         // 3. 获取 ViewModel 实例（由 ViewModelProvider 管理，页面重建不重新创建）
         liveViewModel = new ViewModelProvider(this).get(LiveViewModel.class);
@@ -84,12 +98,16 @@ public class LiveActivity extends AppCompatActivity {
         // 4. 观察 ViewModel 的数据，自动更新 UI (无需手动调用)
         observeViewModelData();
 
-        // 5. 加载主播信息和评论
+        // 5. 先展示上次的快照，再加载主播信息和评论（到达后按差异覆盖）
+        if (savedInstanceState == null) {
+            liveViewModel.restoreSnapshot();
+        }
         liveViewModel.loadHostInfoWithPre();
-        liveViewModel.loadInitComments();
+        liveViewModel.loadInitCommentsWithPre();
 
         // 6. 监听关闭在线人数控件
         listenCloseOnline();
+        listenTogglePerfHud();
 
         // 7. 监听回车发送评论
         listenEnterSendComment();
@@ -107,6 +125,10 @@ public class LiveActivity extends AppCompatActivity {
         tvCloseOnline = findViewById(R.id.tv_close_online);
         etSendComment = findViewById(R.id.et_send_comment);
         tvOnline = findViewById(R.id.tv_online);
+        perfHud = findViewById(R.id.perf_hud);
+
+        // 头像加载前确保 Glide 已接入全局网络核心（通常已在后台完成）
+        AppInitializer.getInstance().getGlide().get();
 
         // RecyclerView 相关
         rvComments = findViewById(R.id.rv_comments);
@@ -149,16 +171,21 @@ public class LiveActivity extends AppCompatActivity {
                 Log.d(TAG, "首次加载");
                 commentAdapter.setData(newComments);
             }
-            // 场景2：新增单条评论（局部刷新）
-            else if (newCount == lastCommentCount + 1) {
+            // 场景2：新增单条评论（局部刷新，前面的内容未变）
+            else if (newCount == lastCommentCount + 1 && commentAdapter.isLastComment(newComments.get(newCount - 2))) {
                 Log.d(TAG, "局部刷新");
                 Comment newComment = newComments.get(newCount - 1);
                 commentAdapter.addComment(newComment);
             }
-            // 场景3：其它情况（列表重置....）
+            // 场景3：其它情况（快照被网络数据覆盖、列表重置....），按差异刷新
             else {
                 Log.d(TAG,"其它情况");
-                commentAdapter.setData(newComments);
+                commentAdapter.submitDiff(newComments);
+            }
+
+            // 评论刷新频率用于判断评论密集场景
+            if (newCount > lastCommentCount) {
+                fluencyMonitor.onCommentsUpdated();
             }
 
             // 更新上次长度
@@ -174,6 +201,17 @@ public class LiveActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * 监听播放器异常恢复：熔断后提示用户（回到前台时会自动再试一次）
+     */
+    private void listenPlayerRecovery() {
+        livePlayerManager.setRecoveryListener((state, lastError) -> {
+            if (state == PlayerErrorRecovery.State.FAILED) {
+                Toast.makeText(this, "直播加载失败，请检查网络后重试", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
     /**
      * 监听在线人数关闭控件
      */
@@ -187,6 +225,24 @@ public class LiveActivity extends AppCompatActivity {
 
     }
 
+    /**
+     * 长按主播头像切换性能浮层，浮层展开时点击浮层切换直播延迟档位
+     */
+    private void listenTogglePerfHud() {
+        if (!BusinessConstant.PERF_HUD_ENABLED) return;
+        perfHud.setFluencyMonitor(fluencyMonitor);
+        ivHostAvatar.setOnLongClickListener(v -> {
+            perfHud.toggle();
+            return true;
+        });
+        perfHud.setOnClickListener(v -> {
+            LiveLatencyProfile next = livePlayerManager.getLatencyProfile() == LiveLatencyProfile.LOW_LATENCY
+                    ? LiveLatencyProfile.SMOOTH : LiveLatencyProfile.LOW_LATENCY;
+            livePlayerManager.setLatencyProfile(next);
+            Toast.makeText(this, "直播延迟档位：" + next, Toast.LENGTH_SHORT).show();
+        });
+    }
+
     /**
      * 监听回车发送评论
      */
@@ -224,14 +280,19 @@ public class LiveActivity extends AppCompatActivity {
         playerView.setKeepScreenOn(true);
         fluencyMonitor.start();
 
+        // 熔断后回到前台，手动重试一次
+        livePlayerManager.getErrorRecovery().retryManually();
+
         // 情况 1：只是临时切入后台，回到前台后恢复播放
         if (isTempBackground) {
+            livePlayerManager.exitAudioOnlyMode();
             livePlayerManager.resume();
             isTempBackground = false;
             return;
         }
 
-        // 情况 2：如果之前播放器已经被销毁，需要重新初始化
+        // 情况 2：如果之前播放器已经被销毁，需要重新初始化（等待接管预加载播放器期间不另建）
+        if (livePlayerManager.isTakeOverPending()) return;
         if (livePlayerManager.isPlayerNull()) {
             livePlayerManager.initPlayer();
             return;
@@ -250,7 +311,11 @@ public class LiveActivity extends AppCompatActivity {
     protected void onPause() {
         super.onPause();
         Log.d(TAG, "进入onPause");
+        fluencyMonitor.dumpStats();
         fluencyMonitor.stop();
+        // 离开前台时落盘主线程卡顿聚合
+        MainThreadStallDetector.getInstance().dumpToFileAsync();
+        Tracer.dumpAsync(this);
 
         livePlayerManager.pause();
         playerView.setKeepScreenOn(false);
@@ -267,10 +332,18 @@ public class LiveActivity extends AppCompatActivity {
         // 区分「临时后台」和「彻底销毁/配置变更」
         boolean activityStillExists = !isFinishing() && !isChangingConfigurations();
 
+        // 离开直播间（切后台或退出）保存快照，下次进房先展示
+        liveViewModel.saveSnapshot();
+
         if (activityStillExists) {
             // 情况 1：普通后台切换（Activity 未真正销毁）
             isTempBackground = true;
-            livePlayerManager.pause();
+            if (BusinessConstant.BACKGROUND_AUDIO_ENABLED) {
+                // 只保留声音继续播放，回到前台直接恢复画面
+                livePlayerManager.enterAudioOnlyMode();
+            } else {
+                livePlayerManager.pause();
+            }
         } else {
             // 情况 2：彻底销毁或配置变化 → 完全释放资源
             livePlayerManager.release();
@@ -286,7 +359,8 @@ public class LiveActivity extends AppCompatActivity {
     protected void onDestroy() {
         Log.d(TAG, "进入onDestroy");
         super.onDestroy();
-        // 释放播放器
+        // 释放播放器（监听持有 Activity，一并清除）
+        livePlayerManager.setRecoveryListener(null);
         livePlayerManager.release();
         // 释放连接
         liveViewModel.releaseWebSocket();
@@ -10,7 +10,10 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bytedance.tictok_live.R;
+import com.bytedance.tictok_live.utils.network.NetworkPreconnector;
 import com.bytedance.tictok_live.utils.preload.LivePreloadManager;
+import com.bytedance.tictok_live.utils.snapshot.RoomSnapshotStore;
+import com.bytedance.tictok_live.utils.startup.AppInitializer;
 
 /**
  * 直播启动页：负责预加载核心资源，提升 LiveActivity 启动体验
@@ -18,7 +21,8 @@ import com.bytedance.tictok_live.utils.preload.LivePreloadManager;
 public class SplashActivity extends AppCompatActivity {
     private static final String TAG = "SplashActivity";
 
-    private static final long SPLASH_MS = 2000L;
+    // 关键启动任务（主播信息、播放器就绪）的最长等待时间，完成即提前跳转
+    private static final long SPLASH_TIMEOUT_MS = 3000L;
 
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private boolean hasNavigated = false;
@@ -31,19 +35,28 @@ public class SplashActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
+        // 预热进房所需域名的连接（DNS + TCP + TLS）
+        NetworkPreconnector.getInstance().preconnectAll();
+
+        // 后台预读上次的直播间快照，进房时直接命中
+        RoomSnapshotStore.getInstance(this).preloadAsync();
+
         Log.d(TAG,"开始预加载");
 
         livePreloadManager = LivePreloadManager.getInstance();
         livePreloadManager.startPreload();
 
-        // 2s 后跳转
-        mainHandler.postDelayed(this::navigateToLive, SPLASH_MS);
+        // 关键任务完成（或超时）后跳转
+        livePreloadManager.awaitCritical(SPLASH_TIMEOUT_MS, this::navigateToLive);
     }
 
     private void navigateToLive(){
         if (hasNavigated || isFinishing()) return;
         hasNavigated = true;
 
+        // 输出应用初始化耗时（后台执行、主线程等待）
+        AppInitializer.getInstance().dumpReport();
+
         Intent it = new Intent(this, LiveActivity.class);
         startActivity(it);
         finish();
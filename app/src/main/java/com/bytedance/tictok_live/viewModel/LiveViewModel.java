@@ -8,13 +8,21 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.bytedance.tictok_live.constant.BusinessConstant;
+import com.bytedance.tictok_live.context.App;
 import com.bytedance.tictok_live.model.Comment;
 import com.bytedance.tictok_live.model.HostInfo;
 import com.bytedance.tictok_live.repository.LiveRepository;
+import com.bytedance.tictok_live.utils.metrics.Counter;
+import com.bytedance.tictok_live.utils.metrics.MetricsRegistry;
 import com.bytedance.tictok_live.utils.preload.LivePreloadManager;
+import com.bytedance.tictok_live.utils.snapshot.RoomSnapshot;
+import com.bytedance.tictok_live.utils.snapshot.RoomSnapshotStore;
+import com.bytedance.tictok_live.utils.startup.StartupFuture;
+import com.bytedance.tictok_live.utils.trace.Tracer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -27,6 +35,11 @@ public class LiveViewModel extends ViewModel {
 
     private static final String TAG = "LiveViewModel";
 
+    // 指标：进入评论列表的评论条数（网络加载、发送成功）
+    private static final Counter INGRESS_METRIC = MetricsRegistry.getInstance().counter("comment.ingress");
+    // 异步追踪区间 id
+    private static final AtomicLong TRACE_SEQUENCE = new AtomicLong();
+
     // 持有 Model 层实例
     private LiveRepository liveRepository;
 
@@ -61,54 +74,48 @@ public class LiveViewModel extends ViewModel {
     // WebSocket 监听在线人数
     private void initWebSocketListener() {
         liveRepository.observeWebSocketMessage(message -> {
+            Tracer.begin("vm.onWsMessage");
             if (BusinessConstant.ONLINE_COUNT_INCREASE_MSG.equals(message)) {
                 int current = onlineCount.getValue() == null ? 0 : onlineCount.getValue();
                 onlineCount.postValue(current + 1);
             }
+            Tracer.end();
         });
     }
 
-    // 获取主播信息
+    // 获取主播信息（先展示缓存，后台校验，有变化才更新）
     public void loadHostInfo() {
-        liveRepository.getHostInfo(new Callback<HostInfo>() {
+        liveRepository.getHostInfoCacheFirst(new LiveRepository.CacheFirstCallback<HostInfo>() {
             @Override
-            public void onResponse(Call<HostInfo> call, Response<HostInfo> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    HostInfo info = response.body();
-                    hostInfo.postValue(info);
-                    Log.d(TAG, "主播信息加载成功：" + info.toString());
-                } else {
-                    Log.w(TAG, "主播信息请求成功但无数据，code：" + response.code());
-                }
+            public void onData(HostInfo info, boolean fromCache) {
+                postHostInfoIfChanged(info);
+                Log.d(TAG, "主播信息加载成功（" + (fromCache ? "缓存" : "网络") + "）：" + info.toString());
             }
 
             @Override
-            public void onFailure(Call<HostInfo> call, Throwable t) {
+            public void onError(Throwable t) {
                 Log.e(TAG, "主播信息请求失败", t);
-                t.printStackTrace();
             }
         });
     }
 
-    // 业务逻辑：获取初始评论（公屏）
+    // 业务逻辑：获取初始评论（公屏，先展示缓存，后台校验，有变化才更新）
     public void loadInitComments() {
-        liveRepository.getInitComments(new Callback<List<Comment>>() {
+        liveRepository.getInitCommentsCacheFirst(new LiveRepository.CacheFirstCallback<List<Comment>>() {
             @Override
-            public void onResponse(Call<List<Comment>> call, Response<List<Comment>> response) {
-                // 过虑空或过长评论
-                ArrayList<Comment> validComments = new ArrayList<>();
-                for (Comment comment : response.body()) {
-                    if (!TextUtils.isEmpty(comment.getComment()) && comment.getComment().length() <= BusinessConstant.COMMENT_MAX_LENGTH) {
-                        validComments.add(comment);
-                    }
-                }
+            public void onData(List<Comment> comments, boolean fromCache) {
                 // 更新评论列表，View 自动刷新
+                Tracer.begin("vm.filterComments");
+                List<Comment> validComments = LiveRepository.filterValidComments(comments);
+                Tracer.end();
+                INGRESS_METRIC.add(validComments.size());
+                Tracer.instant("vm.postComments");
                 commentList.postValue(validComments);
             }
 
             @Override
-            public void onFailure(Call<List<Comment>> call, Throwable t) {
-                Log.e(TAG, "获取评论失败");
+            public void onError(Throwable t) {
+                Log.e(TAG, "获取评论失败", t);
             }
         });
     }
@@ -121,9 +128,12 @@ public class LiveViewModel extends ViewModel {
             return;
         }
 
+        long traceId = TRACE_SEQUENCE.incrementAndGet();
+        Tracer.asyncBegin("vm.sendComment", traceId);
         liveRepository.sendComment(commentContent, new Callback<Comment>() {
             @Override
             public void onResponse(Call<Comment> call, Response<Comment> response) {
+                Tracer.asyncEnd("vm.sendComment", traceId);
                 if (response.isSuccessful() && response.body() != null) {
                     Comment newComment = response.body();
                     List<Comment> currentList = commentList.getValue();
@@ -131,6 +141,7 @@ public class LiveViewModel extends ViewModel {
                         currentList = new ArrayList<>();
                     }
                     currentList.add(newComment);
+                    INGRESS_METRIC.inc();
                     commentList.postValue(currentList);
                     Log.d(TAG, "评论发送成功： " + newComment.getComment());
 
@@ -143,6 +154,7 @@ public class LiveViewModel extends ViewModel {
 
             @Override
             public void onFailure(Call<Comment> call, Throwable t) {
+                Tracer.asyncEnd("vm.sendComment", traceId);
                 Log.e(TAG, "评论发送失败,请检查网络", t);
                 t.printStackTrace();
             }
@@ -179,7 +191,7 @@ public class LiveViewModel extends ViewModel {
         liveRepository.resumeWebSocket();
     }
 
-    //释放 WebSocket 连接
+    // 离开直播间：断开 WebSocket 连接（管理类保留，再次进房复用）
     public void releaseWebSocket(){
         Log.d(TAG, "释放WebSocket连接");
         liveRepository.releaseWebSocket();
@@ -190,15 +202,108 @@ public class LiveViewModel extends ViewModel {
      */
     public void loadHostInfoWithPre() {
         LivePreloadManager preloadManager = LivePreloadManager.getInstance();
-        HostInfo preloadHost = preloadManager.getCachedHostInfo();
-
-        if (preloadHost != null){
+        HostInfo cachedHost = preloadManager.getCachedHostInfo();
+        if (cachedHost != null) {
+            // 在主线程同步设置，首帧即可展示
             Log.d(TAG, "复用预加载的主播信息");
-            hostInfo.postValue(preloadHost);
-        }else {
-            Log.w(TAG,"无预加载主播信息，兜底请求");
+            if (!cachedHost.equals(hostInfo.getValue())) {
+                hostInfo.setValue(cachedHost);
+            }
+            return;
+        }
+
+        // 等待预加载任务完成（启动页超时提前退出时仍在进行），不重复发起请求
+        StartupFuture<HostInfo> future = preloadManager.getHostInfoFuture();
+        if (future == null) {
+            Log.w(TAG,"未启动预加载，直接请求主播信息");
             loadHostInfo();
+            return;
         }
 
+        future.observe(preloadHost -> {
+            if (preloadHost != null){
+                Log.d(TAG, "复用预加载的主播信息");
+                postHostInfoIfChanged(preloadHost);
+            }else {
+                Log.w(TAG,"无预加载主播信息，兜底请求");
+                loadHostInfo();
+            }
+        });
+    }
+
+    /**
+     * 加载首屏评论，使用预加载（如果可以的话）
+     */
+    public void loadInitCommentsWithPre() {
+        LivePreloadManager preloadManager = LivePreloadManager.getInstance();
+        List<Comment> cachedComments = preloadManager.getCachedComments();
+        if (cachedComments != null) {
+            // 预加载时已过滤，在主线程同步设置，首帧即可展示
+            Log.d(TAG, "复用预加载的首屏评论，数量：" + cachedComments.size());
+            INGRESS_METRIC.add(cachedComments.size());
+            commentList.setValue(new ArrayList<>(cachedComments));
+            return;
+        }
+
+        StartupFuture<List<Comment>> future = preloadManager.getCommentsFuture();
+        if (future == null) {
+            Log.w(TAG,"未启动预加载，直接请求评论");
+            loadInitComments();
+            return;
+        }
+
+        future.observe(preloadComments -> {
+            if (preloadComments != null) {
+                Log.d(TAG, "复用预加载的首屏评论");
+                INGRESS_METRIC.add(preloadComments.size());
+                commentList.postValue(new ArrayList<>(preloadComments));
+            } else {
+                Log.w(TAG,"无预加载评论，兜底请求");
+                loadInitComments();
+            }
+        });
+    }
+
+    /**
+     * 用上次离开直播间时的快照先填充页面（网络数据返回后按差异覆盖），需在加载预加载数据之前调用
+     * @return 是否有可用快照
+     */
+    public boolean restoreSnapshot() {
+        RoomSnapshot snapshot = RoomSnapshotStore.getInstance(App.getAppContext()).peek();
+        if (snapshot == null) return false;
+
+        LivePreloadManager preloadManager = LivePreloadManager.getInstance();
+        // 预加载数据已就绪则无需快照
+        if (snapshot.getHostInfo() != null && preloadManager.getCachedHostInfo() == null) {
+            hostInfo.setValue(snapshot.getHostInfo());
+        }
+        if (!snapshot.getComments().isEmpty() && preloadManager.getCachedComments() == null) {
+            commentList.setValue(new ArrayList<>(snapshot.getComments()));
+        }
+        if (snapshot.getOnlineCount() > 0) {
+            onlineCount.setValue(snapshot.getOnlineCount());
+        }
+        Log.d(TAG, "已恢复直播间快照，评论：" + snapshot.getComments().size() + " 条");
+        return true;
+    }
+
+    /**
+     * 保存当前直播间状态快照（主线程只拷贝数据，编码写盘在后台）
+     */
+    public void saveSnapshot() {
+        Integer count = onlineCount.getValue();
+        RoomSnapshot snapshot = new RoomSnapshot(
+                hostInfo.getValue(),
+                commentList.getValue(),
+                count == null ? 0 : count,
+                System.currentTimeMillis()
+        );
+        RoomSnapshotStore.getInstance(App.getAppContext()).saveAsync(snapshot);
+    }
+
+    // 主播信息有变化才通知（快照、缓存、网络内容相同时不重复刷新头像）
+    private void postHostInfoIfChanged(HostInfo info) {
+        if (info != null && info.equals(hostInfo.getValue())) return;
+        hostInfo.postValue(info);
     }
 }
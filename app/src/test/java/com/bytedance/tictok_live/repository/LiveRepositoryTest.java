@@ -0,0 +1,166 @@
+package com.bytedance.tictok_live.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * 先缓存后网络：网络失败后到达的缓存仍回调，网络成功后到达的缓存丢弃
+ */
+public class LiveRepositoryTest {
+
+    private final FakeCall<String> cacheCall = new FakeCall<>();
+    private final FakeCall<String> networkCall = new FakeCall<>();
+    private final RecordingCallback callback = new RecordingCallback();
+
+    @Test
+    public void cacheAfterNetworkFailureIsDelivered() {
+        LiveRepository.loadCacheFirst(cacheCall, "GET failure", () -> networkCall, callback);
+
+        networkCall.fail(new IOException("offline"));
+        cacheCall.respond(Response.success("cached"));
+
+        assertTrue(callback.errors.get(0) instanceof IOException);
+        assertEquals(1, callback.data.size());
+        assertEquals("cached", callback.data.get(0));
+        assertTrue(callback.fromCache.get(0));
+    }
+
+    @Test
+    public void cacheAfterNetworkHttpErrorIsDelivered() {
+        LiveRepository.loadCacheFirst(cacheCall, "GET http_error", () -> networkCall, callback);
+
+        networkCall.respond(Response.error(500, ResponseBody.create("", MediaType.get("text/plain"))));
+        cacheCall.respond(Response.success("cached"));
+
+        assertTrue(callback.errors.get(0) instanceof HttpException);
+        assertEquals(1, callback.data.size());
+        assertEquals("cached", callback.data.get(0));
+    }
+
+    @Test
+    public void cacheAfterNetworkSuccessIsDropped() {
+        LiveRepository.loadCacheFirst(cacheCall, "GET success", () -> networkCall, callback);
+
+        networkCall.respond(Response.success("fresh"));
+        cacheCall.respond(Response.success("stale"));
+
+        assertTrue(callback.errors.isEmpty());
+        assertEquals(1, callback.data.size());
+        assertEquals("fresh", callback.data.get(0));
+        assertEquals(Boolean.FALSE, callback.fromCache.get(0));
+    }
+
+    @Test
+    public void unchangedNetworkDataAfterCacheIsNotDeliveredAgain() {
+        LiveRepository.loadCacheFirst(cacheCall, "GET unchanged", () -> networkCall, callback);
+
+        cacheCall.respond(Response.success("same"));
+        networkCall.respond(Response.success("same"));
+
+        assertEquals(1, callback.data.size());
+        assertTrue(callback.fromCache.get(0));
+    }
+
+    /**
+     * 记录回调
+     */
+    private static class RecordingCallback implements LiveRepository.CacheFirstCallback<String> {
+        final List<String> data = new ArrayList<>();
+        final List<Boolean> fromCache = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+
+        @Override
+        public void onData(String value, boolean cached) {
+            data.add(value);
+            fromCache.add(cached);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            errors.add(t);
+        }
+    }
+
+    /**
+     * 手动完成的 Call：enqueue 只记录回调，由用例决定返回顺序
+     */
+    private static class FakeCall<T> implements Call<T> {
+        private Callback<T> callback;
+        private boolean executed;
+        private boolean canceled;
+
+        void respond(Response<T> response) {
+            assertTrue("尚未 enqueue", callback != null);
+            callback.onResponse(this, response);
+        }
+
+        void fail(Throwable t) {
+            assertTrue("尚未 enqueue", callback != null);
+            callback.onFailure(this, t);
+        }
+
+        @NonNull
+        @Override
+        public Response<T> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            assertNull("重复 enqueue", this.callback);
+            this.callback = callback;
+            executed = true;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @NonNull
+        @Override
+        public Call<T> clone() {
+            return new FakeCall<>();
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return new Request.Builder().url("https://example.com/fake").build();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+}
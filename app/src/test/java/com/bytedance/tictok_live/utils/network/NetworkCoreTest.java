@@ -0,0 +1,227 @@
+package com.bytedance.tictok_live.utils.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+/**
+ * 共享连接池：同域名请求只做一次 TCP 建连、一次 TLS 握手，派生 client（直播媒体）同样复用；
+ * WebSocket 派生 client 共享连接池，但升级需要独占的 HTTP/1.1 连接
+ */
+public class NetworkCoreTest {
+
+    private MockWebServer server;
+    private ConnectionEvents events;
+    // NetworkCore 的 client 加上信任测试证书（派生 client，仍共享连接池）
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+
+        HeldCertificate certificate = new HeldCertificate.Builder()
+                .addSubjectAlternativeName(server.getHostName())
+                .build();
+        HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+                .heldCertificate(certificate)
+                .build();
+        server.useHttps(serverCertificates.sslSocketFactory(), false);
+        HandshakeCertificates clientCertificates = new HandshakeCertificates.Builder()
+                .addTrustedCertificate(certificate.certificate())
+                .build();
+
+        events = new ConnectionEvents();
+        client = NetworkCore.getInstance().getOkHttpClient().newBuilder()
+                .sslSocketFactory(clientCertificates.sslSocketFactory(), clientCertificates.trustManager())
+                .eventListener(events)
+                .build();
+        // 连接池是进程级单例，清掉其它用例留下的连接
+        client.connectionPool().evictAll();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.connectionPool().evictAll();
+        server.shutdown();
+    }
+
+    @Test
+    public void sequentialRequestsReuseOneHandshake() throws Exception {
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setBody("second"));
+
+        Protocol protocol = get(client, "/first");
+        get(client, "/second");
+
+        assertEquals(Protocol.HTTP_2, protocol);
+        assertEquals(1, events.connects.get());
+        assertEquals(1, events.handshakes.get());
+        // MockWebServer 的序号按连接计数：第二个请求是同一连接上的第 2 个
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(1, NetworkCore.getInstance().getConnectionCount());
+    }
+
+    @Test
+    public void derivedClientSharesConnectionPool() throws Exception {
+        server.enqueue(new MockResponse().setBody("rest"));
+        server.enqueue(new MockResponse().setBody("media"));
+
+        // 业务按需覆盖超时等配置，连接仍来自同一个池
+        OkHttpClient derived = client.newBuilder()
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build();
+
+        get(client, "/rest");
+        get(derived, "/media");
+
+        assertEquals(1, events.connects.get());
+        assertEquals(1, events.handshakes.get());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(1, NetworkCore.getInstance().getConnectionCount());
+    }
+
+    @Test
+    public void mediaClientSharesRestConnectionAndHandshake() throws Exception {
+        server.enqueue(new MockResponse().setBody("host_info"));
+        server.enqueue(new MockResponse().setBody("manifest"));
+        server.enqueue(new MockResponse().setBody("segment"));
+
+        // 与 LivePlayerManager.createHttpDataSourceFactory 相同的派生方式
+        OkHttpClient media = NetworkCore.deriveMediaClient(client);
+        assertSame(client.connectionPool(), media.connectionPool());
+        assertSame(client.dispatcher(), media.dispatcher());
+        assertEquals(5000, media.readTimeoutMillis());
+        assertTrue(media.followSslRedirects());
+
+        get(client, "/host_info");
+        Protocol protocol = get(media, "/live.mpd");
+        get(media, "/seg_1.m4s");
+
+        assertEquals(Protocol.HTTP_2, protocol);
+        assertEquals(1, events.connects.get());
+        assertEquals(1, events.handshakes.get());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(2, server.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    public void webSocketClientSharesPoolButUpgradesOnItsOwnConnection() throws Exception {
+        server.enqueue(new MockResponse().setBody("before"));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new CloseOnClosingListener()));
+        server.enqueue(new MockResponse().setBody("after"));
+
+        // 与 WebSocketManager 相同的派生方式
+        OkHttpClient webSocketClient = NetworkCore.deriveWebSocketClient(client);
+        assertSame(client.connectionPool(), webSocketClient.connectionPool());
+        assertSame(client.dispatcher(), webSocketClient.dispatcher());
+
+        get(client, "/before");
+
+        CountDownLatch opened = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicReference<Response> upgrade = new AtomicReference<>();
+        WebSocket webSocket = webSocketClient.newWebSocket(
+                new Request.Builder().url(server.url("/ws")).build(),
+                new WebSocketListener() {
+                    @Override
+                    public void onOpen(@NonNull WebSocket webSocket, @NonNull Response response) {
+                        upgrade.set(response);
+                        opened.countDown();
+                    }
+
+                    @Override
+                    public void onClosed(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
+                        closed.countDown();
+                    }
+                });
+        assertTrue("WebSocket 未连上", opened.await(5, TimeUnit.SECONDS));
+
+        // REST 在 WebSocket 连上后仍复用原来的 HTTP/2 连接
+        get(client, "/after");
+
+        // WebSocket 升级只能走 HTTP/1.1：单独建连并完成一次 TLS 握手，不占用 REST 的连接
+        assertEquals(Protocol.HTTP_1_1, upgrade.get().protocol());
+        assertNotNull(upgrade.get().handshake());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        // OkHttp 建立 WebSocket 时不回调 client 的 EventListener，这里只统计到 REST 的一次建连、握手
+        assertEquals(1, events.connects.get());
+        assertEquals(1, events.handshakes.get());
+
+        webSocket.close(1000, null);
+        assertTrue("WebSocket 未正常关闭", closed.await(5, TimeUnit.SECONDS));
+    }
+
+    private Protocol get(OkHttpClient okHttpClient, String path) throws IOException {
+        Request request = new Request.Builder().url(server.url(path)).build();
+        try (Response response = okHttpClient.newCall(request).execute()) {
+            assertEquals(200, response.code());
+            // 读完响应体，释放调度许可并把连接归还连接池
+            response.body().string();
+            return response.protocol();
+        }
+    }
+
+    /**
+     * 服务端：收到关闭即回复关闭，完成关闭握手
+     */
+    private static class CloseOnClosingListener extends WebSocketListener {
+        @Override
+        public void onClosing(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
+            webSocket.close(code, null);
+        }
+    }
+
+    /**
+     * 统计建连、握手次数
+     */
+    private static class ConnectionEvents extends EventListener {
+        final AtomicInteger connects = new AtomicInteger();
+        final AtomicInteger handshakes = new AtomicInteger();
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                                 @NonNull Proxy proxy) {
+            connects.incrementAndGet();
+        }
+
+        @Override
+        public void secureConnectEnd(@NonNull Call call, Handshake handshake) {
+            handshakes.incrementAndGet();
+        }
+    }
+}
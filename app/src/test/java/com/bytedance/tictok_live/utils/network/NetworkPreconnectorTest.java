@@ -0,0 +1,95 @@
+package com.bytedance.tictok_live.utils.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * 预热收益统计：只有真正拿到连接的请求才计入，缓存应答（命中、only-if-cached 未命中）不计
+ */
+public class NetworkPreconnectorTest {
+
+    // 模拟的预热建连耗时
+    private static final long WARMUP_COST_MS = 42;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private String host;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        // 预热统计按域名记录，单例中只有该用例使用这个名字
+        host = server.getHostName();
+        client = NetworkCore.getInstance().getOkHttpClient().newBuilder()
+                .cache(new Cache(temporaryFolder.newFolder("http_cache"), 1024 * 1024))
+                .build();
+        client.connectionPool().evictAll();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.connectionPool().evictAll();
+        server.shutdown();
+    }
+
+    @Test
+    public void onlyNetworkCallsWithAcquiredConnectionAreCredited() throws Exception {
+        NetworkPreconnector preconnector = NetworkPreconnector.getInstance();
+
+        // 预热前先填充缓存（未预热的域名不统计）
+        server.enqueue(new MockResponse().setBody("cached").setHeader("Cache-Control", "max-age=60"));
+        assertEquals("cached", get("/cached", null));
+        client.connectionPool().evictAll();
+
+        // 模拟预热完成，并让预热连接留在连接池中
+        server.enqueue(new MockResponse().setBody("warm"));
+        assertEquals("warm", get("/warmup", null));
+        preconnector.onWarmupConnected(host, WARMUP_COST_MS);
+
+        // 1. 命中缓存：不走网络，不计入
+        assertEquals("cached", get("/cached", null));
+        assertNull(preconnector.getSavedMs(host));
+
+        // 2. only-if-cached 未命中：504 由缓存层返回，不计入
+        assertEquals("504", get("/missing", CacheControl.FORCE_CACHE));
+        assertNull(preconnector.getSavedMs(host));
+
+        // 3. 走网络且复用了预热连接：计入节省耗时
+        server.enqueue(new MockResponse().setBody("fresh"));
+        assertEquals("fresh", get("/fresh", CacheControl.FORCE_NETWORK));
+        Long saved = preconnector.getSavedMs(host);
+        assertNotNull(saved);
+        assertEquals(WARMUP_COST_MS, saved.longValue());
+    }
+
+    private String get(String path, CacheControl cacheControl) throws IOException {
+        Request.Builder builder = new Request.Builder().url(server.url(path));
+        if (cacheControl != null) {
+            builder.cacheControl(cacheControl);
+        }
+        try (Response response = client.newCall(builder.build()).execute()) {
+            return response.isSuccessful() ? response.body().string() : String.valueOf(response.code());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bytedance.tictok_live.utils.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import com.bytedance.tictok_live.utils.network.NetworkPriorityScheduler.PriorityClass;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * 准入调度：缓冲不足时低优先级请求在应用层排队（不占 OkHttp 线程），缓冲恢复、超时、取消时放行
+ */
+public class PriorityCallFactoryTest {
+
+    private MockWebServer server;
+    private NetworkPriorityScheduler scheduler;
+    private PriorityCallFactory factory;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        scheduler = NetworkPriorityScheduler.getInstance();
+        scheduler.setEnabled(true);
+        factory = new PriorityCallFactory(NetworkCore.getInstance().getOkHttpClient());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        scheduler.updateBufferedDuration(NetworkPriorityScheduler.BUFFER_UNKNOWN);
+        scheduler.setEnabled(true);
+        server.shutdown();
+    }
+
+    @Test
+    public void lowBufferDefersCommentsUntilBufferRecovers() throws Exception {
+        server.enqueue(new MockResponse().setBody("comments"));
+        scheduler.updateBufferedDuration(500);
+
+        ResultCallback callback = new ResultCallback();
+        factory.newCall(request(PriorityClass.COMMENTS)).enqueue(callback);
+
+        // 延后期间请求没有发出，也不占用分类调度器
+        assertNull(server.takeRequest(300, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getDeferredCount());
+        assertEquals(0, scheduler.getDispatcher(PriorityClass.COMMENTS).queuedCallsCount());
+
+        scheduler.updateBufferedDuration(5000);
+        assertEquals("comments", callback.await());
+        assertEquals(0, scheduler.getDeferredCount());
+    }
+
+    @Test
+    public void criticalRequestIsNotDeferred() throws Exception {
+        server.enqueue(new MockResponse().setBody("host"));
+        scheduler.updateBufferedDuration(500);
+
+        ResultCallback callback = new ResultCallback();
+        factory.newCall(request(PriorityClass.CRITICAL)).enqueue(callback);
+
+        assertEquals("host", callback.await());
+        assertEquals(0, scheduler.getDeferredCount());
+    }
+
+    @Test
+    public void deferredRequestIsReleasedAfterMaxDefer() throws Exception {
+        server.enqueue(new MockResponse().setBody("avatar"));
+        scheduler.updateBufferedDuration(500);
+
+        long start = System.nanoTime();
+        ResultCallback callback = new ResultCallback();
+        factory.newCall(request(PriorityClass.AVATAR)).enqueue(callback);
+
+        assertEquals("avatar", callback.await());
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("应延后约 " + NetworkPriorityScheduler.MAX_DEFER_MS + "ms：" + waitedMs,
+                waitedMs >= NetworkPriorityScheduler.MAX_DEFER_MS - 100);
+    }
+
+    @Test
+    public void cancelReleasesDeferredRequestAsFailure() throws Exception {
+        scheduler.updateBufferedDuration(500);
+
+        ResultCallback callback = new ResultCallback();
+        Call call = factory.newCall(request(PriorityClass.COMMENTS));
+        call.enqueue(callback);
+        call.cancel();
+
+        assertNotNull(callback.awaitFailure());
+        assertTrue(call.isCanceled());
+        assertEquals(0, scheduler.getDeferredCount());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void onlyIfCachedAndDisabledSchedulerAreNotDeferred() throws Exception {
+        server.enqueue(new MockResponse().setBody("fresh"));
+        scheduler.updateBufferedDuration(500);
+
+        // only-if-cached 只读缓存（无缓存时 504），不排队
+        ResultCallback cached = new ResultCallback();
+        factory.newCall(request(PriorityClass.COMMENTS).newBuilder()
+                .cacheControl(CacheControl.FORCE_CACHE)
+                .build()).enqueue(cached);
+        assertEquals("504", cached.await());
+
+        // 关闭调度后直接发出
+        scheduler.setEnabled(false);
+        ResultCallback fresh = new ResultCallback();
+        factory.newCall(request(PriorityClass.COMMENTS)).enqueue(fresh);
+        assertEquals("fresh", fresh.await());
+        assertEquals(0, scheduler.getDeferredCount());
+    }
+
+    private Request request(PriorityClass cls) {
+        return new Request.Builder()
+                .url(server.url("/" + cls.name().toLowerCase()))
+                .tag(PriorityClass.class, cls)
+                .build();
+    }
+
+    /**
+     * 记录响应体（非 2xx 记录状态码）或失败
+     */
+    private static class ResultCallback implements Callback {
+        private final BlockingQueue<Object> results = new ArrayBlockingQueue<>(1);
+
+        @Override
+        public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+            try (Response r = response) {
+                results.add(r.isSuccessful() ? r.body().string() : String.valueOf(r.code()));
+            }
+        }
+
+        @Override
+        public void onFailure(@NonNull Call call, @NonNull IOException e) {
+            results.add(e);
+        }
+
+        String await() throws InterruptedException {
+            Object result = results.poll(10, TimeUnit.SECONDS);
+            assertTrue("应收到响应：" + result, result instanceof String);
+            return (String) result;
+        }
+
+        IOException awaitFailure() throws InterruptedException {
+            Object result = results.poll(10, TimeUnit.SECONDS);
+            assertTrue("应收到失败：" + result, result instanceof IOException);
+            return (IOException) result;
+        }
+    }
+}
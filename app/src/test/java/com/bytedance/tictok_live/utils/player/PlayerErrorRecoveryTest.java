@@ -0,0 +1,220 @@
+package com.bytedance.tictok_live.utils.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.media3.common.PlaybackException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 异常恢复状态机：分级动作、退避、降档、熔断（手动推进的时钟 + 记录调用的恢复动作）
+ */
+public class PlayerErrorRecoveryTest {
+
+    private FakeScheduler scheduler;
+    private FakeActions actions;
+    private PlayerErrorRecovery recovery;
+    private final List<PlayerErrorRecovery.State> stateChanges = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        scheduler = new FakeScheduler();
+        actions = new FakeActions();
+        recovery = new PlayerErrorRecovery(actions, scheduler);
+        recovery.setListener((state, lastError) -> stateChanges.add(state));
+    }
+
+    @Test
+    public void networkErrorRetriesKeepingBufferAfterJitteredBackoff() {
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED));
+
+        assertEquals(PlayerErrorRecovery.State.RECOVERING, recovery.getState());
+        assertEquals(0, actions.retries);
+        long delay = scheduler.nextDelayMs();
+        assertTrue("首次退避应在 [250, 500]ms：" + delay, delay >= 250 && delay <= 500);
+
+        scheduler.advance(delay);
+        assertEquals(1, actions.retries);
+        assertEquals(0, actions.resets);
+
+        scheduler.advance(300);
+        recovery.onPlaybackReady();
+        assertEquals(PlayerErrorRecovery.State.HEALTHY, recovery.getState());
+        assertEquals(1, recovery.getRecoveredCount());
+        assertEquals(delay + 300, recovery.getLastTimeToRecoverMs());
+    }
+
+    @Test
+    public void backoffGrowsWithinOneEpisode() {
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_TIMEOUT));
+        scheduler.advance(scheduler.nextDelayMs());
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_TIMEOUT));
+        long second = scheduler.nextDelayMs();
+        assertTrue("第二次退避应在 [500, 1000]ms：" + second, second >= 500 && second <= 1000);
+    }
+
+    @Test
+    public void behindLiveWindowRejoinsImmediately() {
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_BEHIND_LIVE_WINDOW));
+
+        assertEquals(1, actions.rejoins);
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    public void consecutiveDecoderFailuresStepDownRendition() {
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_DECODING_FAILED));
+        scheduler.advance(scheduler.nextDelayMs());
+        assertEquals(0, actions.stepDowns);
+        assertEquals(1, actions.resets);
+
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_DECODING_FAILED));
+        assertEquals(1, actions.stepDowns);
+    }
+
+    @Test
+    public void readyBetweenDecoderFailuresResetsStepDownCount() {
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_DECODING_FAILED));
+        scheduler.advance(scheduler.nextDelayMs());
+        recovery.onPlaybackReady();
+
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_DECODING_FAILED));
+        assertEquals(0, actions.stepDowns);
+    }
+
+    @Test
+    public void tooManyFailuresInWindowTripCircuitBreaker() {
+        for (int i = 0; i < 5; i++) {
+            recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED));
+            scheduler.advance(1000);
+        }
+        assertEquals(PlayerErrorRecovery.State.RECOVERING, recovery.getState());
+
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED));
+        assertEquals(PlayerErrorRecovery.State.FAILED, recovery.getState());
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(PlayerErrorRecovery.State.FAILED, stateChanges.get(stateChanges.size() - 1));
+
+        // 熔断后不再自动恢复
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED));
+        assertEquals(0, scheduler.pendingCount());
+
+        recovery.retryManually();
+        assertEquals(PlayerErrorRecovery.State.RECOVERING, recovery.getState());
+        assertEquals(1, actions.resets);
+    }
+
+    @Test
+    public void failuresOutsideWindowDoNotTripCircuitBreaker() {
+        for (int i = 0; i < 10; i++) {
+            recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED));
+            scheduler.advance(20_000);
+        }
+        assertEquals(PlayerErrorRecovery.State.RECOVERING, recovery.getState());
+    }
+
+    @Test
+    public void cancelDropsPendingRetry() {
+        recovery.onPlayerError(error(PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED));
+        recovery.cancel();
+
+        scheduler.advance(10_000);
+        assertEquals(0, actions.retries);
+        assertEquals(PlayerErrorRecovery.State.HEALTHY, recovery.getState());
+    }
+
+    private static PlaybackException error(int code) {
+        return new PlaybackException("test", null, code);
+    }
+
+    /**
+     * 手动推进的时钟与延迟任务
+     */
+    private static class FakeScheduler implements PlayerErrorRecovery.Scheduler {
+        private long nowMs = 1_000;
+        private final List<long[]> dueTimes = new ArrayList<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public long now() {
+            return nowMs;
+        }
+
+        @Override
+        public void postDelayed(Runnable task, long delayMs) {
+            dueTimes.add(new long[]{nowMs + delayMs});
+            tasks.add(task);
+        }
+
+        @Override
+        public void cancelAll() {
+            dueTimes.clear();
+            tasks.clear();
+        }
+
+        int pendingCount() {
+            return tasks.size();
+        }
+
+        long nextDelayMs() {
+            assertEquals("应有一个待执行任务", 1, tasks.size());
+            return dueTimes.get(0)[0] - nowMs;
+        }
+
+        void advance(long ms) {
+            nowMs += ms;
+            List<Runnable> due = new ArrayList<>();
+            Iterator<long[]> timeIterator = dueTimes.iterator();
+            Iterator<Runnable> taskIterator = tasks.iterator();
+            while (timeIterator.hasNext()) {
+                long dueTime = timeIterator.next()[0];
+                Runnable task = taskIterator.next();
+                if (dueTime <= nowMs) {
+                    due.add(task);
+                    timeIterator.remove();
+                    taskIterator.remove();
+                }
+            }
+            for (Runnable task : due) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * 记录调用次数的恢复动作
+     */
+    private static class FakeActions implements PlayerErrorRecovery.RecoveryActions {
+        int retries;
+        int rejoins;
+        int resets;
+        int stepDowns;
+
+        @Override
+        public void retryKeepingBuffer() {
+            retries++;
+        }
+
+        @Override
+        public void rejoinLiveEdge() {
+            rejoins++;
+        }
+
+        @Override
+        public void resetPlayer() {
+            resets++;
+        }
+
+        @Override
+        public boolean stepDownRendition() {
+            stepDowns++;
+            return true;
+        }
+    }
+}
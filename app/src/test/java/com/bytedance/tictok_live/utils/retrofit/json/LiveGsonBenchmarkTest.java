@@ -0,0 +1,110 @@
+package com.bytedance.tictok_live.utils.retrofit.json;
+
+import static org.junit.Assert.assertEquals;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * 流式解析与 Gson 反射解析耗时对比（JVM 计时，结果打印到标准输出）
+ *
+ *  1. 首次调用：新建 Gson 实例后的第一次解析（含 TypeAdapter 创建，反射解析还要扫描字段），对应进程启动后的首次请求
+ *  2. 稳态：预热后每次解析的耗时，取多轮的中位数
+ * 只做对比参考，不断言耗时（CI 机器负载不稳定）；绝对值以设备上为准
+ */
+public class LiveGsonBenchmarkTest {
+
+    private static final Type COMMENT_LIST_TYPE = new TypeToken<List<Comment>>() {}.getType();
+
+    // 评论条数（与一次拉取的评论列表同量级）
+    private static final int COMMENT_COUNT = 200;
+    // 首次调用：新建实例的次数
+    private static final int FRESH_INSTANCES = 20;
+    // 稳态：预热次数、每轮次数、轮数
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS_PER_ROUND = 1_000;
+    private static final int ROUNDS = 5;
+
+    // 防止 JIT 把解析结果当作无用代码消除
+    private static int sink;
+
+    @Test
+    public void streamingVersusReflective() {
+        String json = buildCommentsJson();
+        // 结果一致才有对比意义
+        assertEquals(new Gson().<List<Comment>>fromJson(json, COMMENT_LIST_TYPE),
+                LiveGson.create().<List<Comment>>fromJson(json, COMMENT_LIST_TYPE));
+
+        long streamingFirstUs = firstCallMedianUs(LiveGson::create, json);
+        long reflectiveFirstUs = firstCallMedianUs(Gson::new, json);
+        double streamingSteadyUs = steadyStateMedianUs(LiveGson.create(), json);
+        double reflectiveSteadyUs = steadyStateMedianUs(new Gson(), json);
+
+        System.out.println(String.format(Locale.US,
+                "List<Comment> x%d（%d 字节）\n"
+                        + "  首次调用（新实例，中位数）：流式 %dus，反射 %dus\n"
+                        + "  稳态（每次，中位数）：    流式 %.1fus，反射 %.1fus（%.2fx）",
+                COMMENT_COUNT, json.length(),
+                streamingFirstUs, reflectiveFirstUs,
+                streamingSteadyUs, reflectiveSteadyUs, reflectiveSteadyUs / streamingSteadyUs));
+    }
+
+    // 每次新建 Gson 实例并解析一次，取中位数（不受首个实例的类加载影响）
+    private static long firstCallMedianUs(Supplier<Gson> gsonFactory, String json) {
+        long[] samples = new long[FRESH_INSTANCES];
+        for (int i = 0; i < FRESH_INSTANCES; i++) {
+            long start = System.nanoTime();
+            Gson gson = gsonFactory.get();
+            List<Comment> comments = gson.fromJson(json, COMMENT_LIST_TYPE);
+            samples[i] = (System.nanoTime() - start) / 1000;
+            sink += comments.size();
+        }
+        return median(samples);
+    }
+
+    private static double steadyStateMedianUs(Gson gson, String json) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            List<Comment> comments = gson.fromJson(json, COMMENT_LIST_TYPE);
+            sink += comments.size();
+        }
+        long[] roundNs = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS_PER_ROUND; i++) {
+                List<Comment> comments = gson.fromJson(json, COMMENT_LIST_TYPE);
+                sink += comments.size();
+            }
+            roundNs[round] = System.nanoTime() - start;
+        }
+        return median(roundNs) / 1000.0 / ITERATIONS_PER_ROUND;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String buildCommentsJson() {
+        StringBuilder sb = new StringBuilder(COMMENT_COUNT * 160);
+        sb.append('[');
+        for (int i = 0; i < COMMENT_COUNT; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"createdAt\":\"2025-11-20T08:00:00.000Z\",\"name\":\"观众").append(i)
+                    .append("\",\"avatar\":\"https://cdn.example.com/avatar/").append(i)
+                    .append(".png\",\"comment\":\"主播好，第 ").append(i)
+                    .append(" 条评论\",\"id\":\"").append(i).append("\"}");
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,110 @@
+package com.bytedance.tictok_live.utils.retrofit.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.bytedance.tictok_live.model.HostInfo;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 手写流式解析与 Gson 反射解析结果一致（字段缺失、null、未知字段、数字/布尔写成字符串字段等）
+ */
+public class LiveGsonTest {
+
+    private static final Type COMMENT_LIST_TYPE = new TypeToken<List<Comment>>() {}.getType();
+
+    private final Gson streaming = LiveGson.create();
+    private final Gson reflective = new Gson();
+
+    @Test
+    public void commentListMatchesReflectiveParsing() {
+        String json = "["
+                + "{\"createdAt\":\"2025-11-20T08:00:00.000Z\",\"name\":\"小明\",\"avatar\":\"https://a/1.png\","
+                + "\"comment\":\"主播好\",\"id\":\"1\"},"
+                // 字段缺失、显式 null
+                + "{\"name\":\"小红\",\"comment\":null,\"id\":\"2\"},"
+                // 未知字段（含嵌套对象、数组）
+                + "{\"id\":\"3\",\"extra\":{\"a\":[1,2,{\"b\":null}]},\"tags\":[\"x\"],\"comment\":\"hi\"},"
+                // 字符串字段给了数字、布尔
+                + "{\"id\":4,\"name\":true,\"createdAt\":1732089600}"
+                + "]";
+
+        List<Comment> expected = reflective.fromJson(json, COMMENT_LIST_TYPE);
+        List<Comment> actual = streaming.fromJson(json, COMMENT_LIST_TYPE);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void hostInfoMatchesReflectiveParsing() {
+        String[] samples = {
+                "{\"createdAt\":\"2025-11-20\",\"name\":\"主播\",\"avatar\":\"https://a/h.png\","
+                        + "\"roomName\":\"直播间\",\"followerNum\":12345,\"id\":\"1\"}",
+                // 粉丝数写成字符串、为 null、缺失
+                "{\"followerNum\":\"678\",\"id\":\"2\"}",
+                "{\"followerNum\":null,\"roomName\":null,\"id\":\"3\"}",
+                "{\"id\":\"4\",\"unknown\":[{}]}",
+                // 整数值的小数写法（1.0、"2.0"）可读
+                "{\"followerNum\":1.0,\"id\":\"5\"}",
+                "{\"followerNum\":\"2.0\",\"id\":\"6\"}"
+        };
+        for (String json : samples) {
+            assertEquals(json, reflective.fromJson(json, HostInfo.class), streaming.fromJson(json, HostInfo.class));
+        }
+    }
+
+    @Test
+    public void invalidFollowerNumFailsLikeReflectiveParsing() {
+        // 小数、非数字字符串、布尔、超出 int 范围：反射解析抛异常，流式解析同样抛异常而不是截断或置 0
+        String[] samples = {
+                "{\"followerNum\":1.5}",
+                "{\"followerNum\":\"abc\"}",
+                "{\"followerNum\":true}",
+                "{\"followerNum\":3000000000}"
+        };
+        for (String json : samples) {
+            assertThrows(json, JsonSyntaxException.class, () -> reflective.fromJson(json, HostInfo.class));
+            assertThrows(json, JsonSyntaxException.class, () -> streaming.fromJson(json, HostInfo.class));
+        }
+    }
+
+    @Test
+    public void writeIsReadableByReflectiveParsing() {
+        List<Comment> comments = Arrays.asList(
+                new Comment("2025-11-20", "小明", "https://a/1.png", "含 \"引号\" 和 \\ 的评论", "1"),
+                new Comment(null, "小红", null, null, "2"));
+        HostInfo hostInfo = new HostInfo("1", 99, "直播间", "https://a/h.png", "主播", "2025-11-20");
+
+        assertEquals(comments, reflective.fromJson(streaming.toJson(comments, COMMENT_LIST_TYPE), COMMENT_LIST_TYPE));
+        assertEquals(hostInfo, reflective.fromJson(streaming.toJson(hostInfo), HostInfo.class));
+    }
+
+    @Test
+    public void nullTopLevelValues() {
+        assertNull(streaming.fromJson("null", HostInfo.class));
+        assertNull(streaming.fromJson("null", COMMENT_LIST_TYPE));
+    }
+
+    @Test
+    public void commentListDropsNullElements() {
+        String json = "[{\"id\":\"1\"},null,{\"id\":\"2\"}]";
+
+        List<Comment> expected = reflective.fromJson(json, COMMENT_LIST_TYPE);
+        List<Comment> actual = streaming.fromJson(json, COMMENT_LIST_TYPE);
+
+        // 反射解析保留 null 元素，流式解析丢弃
+        assertEquals(3, expected.size());
+        assertNull(expected.get(1));
+        assertEquals(Arrays.asList(expected.get(0), expected.get(2)), actual);
+    }
+}
@@ -0,0 +1,92 @@
+package com.bytedance.tictok_live.utils.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.bytedance.tictok_live.model.Comment;
+import com.bytedance.tictok_live.model.HostInfo;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 快照二进制编码：往返一致、CRC 校验拦截损坏和截断的文件
+ */
+public class RoomSnapshotStoreTest {
+
+    @Test
+    public void roundTripKeepsAllFields() throws IOException {
+        HostInfo host = new HostInfo("host-1", 12345, "直播间 🎉", "https://a/h.png", "主播", "2025-11-20");
+        List<Comment> comments = Arrays.asList(
+                new Comment("2025-11-20T08:00:00Z", "小明", "https://a/1.png", "主播好", "1"),
+                new Comment(null, "", null, "含换行\n和 emoji 😀", "2"));
+        RoomSnapshot snapshot = new RoomSnapshot(host, comments, 888, 1_732_089_600_000L);
+
+        RoomSnapshot decoded = RoomSnapshotStore.decode(ByteBuffer.wrap(RoomSnapshotStore.encode(snapshot)));
+
+        assertNotNull(decoded);
+        assertEquals(host, decoded.getHostInfo());
+        assertEquals(comments, decoded.getComments());
+        assertEquals(888, decoded.getOnlineCount());
+        assertEquals(1_732_089_600_000L, decoded.getSavedAtMs());
+    }
+
+    @Test
+    public void roundTripWithoutHostOrComments() throws IOException {
+        RoomSnapshot snapshot = new RoomSnapshot(null, null, 0, 1L);
+
+        RoomSnapshot decoded = RoomSnapshotStore.decode(ByteBuffer.wrap(RoomSnapshotStore.encode(snapshot)));
+
+        assertNotNull(decoded);
+        assertNull(decoded.getHostInfo());
+        assertEquals(Collections.emptyList(), decoded.getComments());
+    }
+
+    @Test
+    public void keepsOnlyRecentComments() throws IOException {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < RoomSnapshot.MAX_COMMENTS + 5; i++) {
+            comments.add(new Comment(null, "user" + i, null, "c" + i, String.valueOf(i)));
+        }
+        RoomSnapshot snapshot = new RoomSnapshot(null, comments, 1, 1L);
+
+        RoomSnapshot decoded = RoomSnapshotStore.decode(ByteBuffer.wrap(RoomSnapshotStore.encode(snapshot)));
+
+        assertNotNull(decoded);
+        assertEquals(RoomSnapshot.MAX_COMMENTS, decoded.getComments().size());
+        assertEquals("5", decoded.getComments().get(0).getId());
+    }
+
+    @Test
+    public void corruptedByteIsRejected() throws IOException {
+        byte[] data = encodeSample();
+        // 逐字节翻转（含末尾 CRC 本身），任何一处损坏都应被拒绝
+        for (int i = 0; i < data.length; i++) {
+            byte[] corrupted = data.clone();
+            corrupted[i] ^= 0x01;
+            assertNull("第 " + i + " 字节损坏未被拒绝", RoomSnapshotStore.decode(ByteBuffer.wrap(corrupted)));
+        }
+    }
+
+    @Test
+    public void truncatedFileIsRejected() throws IOException {
+        byte[] data = encodeSample();
+        for (int length = 0; length < data.length; length++) {
+            assertNull("截断到 " + length + " 字节未被拒绝",
+                    RoomSnapshotStore.decode(ByteBuffer.wrap(Arrays.copyOf(data, length))));
+        }
+    }
+
+    private static byte[] encodeSample() throws IOException {
+        HostInfo host = new HostInfo("h", 1, "room", null, "name", null);
+        List<Comment> comments = Collections.singletonList(new Comment("t", "n", "a", "c", "1"));
+        return RoomSnapshotStore.encode(new RoomSnapshot(host, comments, 2, 3L));
+    }
+}
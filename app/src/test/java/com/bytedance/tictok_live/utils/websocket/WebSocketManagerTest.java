@@ -0,0 +1,136 @@
+package com.bytedance.tictok_live.utils.websocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import com.bytedance.tictok_live.utils.network.NetworkCore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * 同一进程内多次进出直播间：离开只断开连接，再次进房复用同一个管理类，心跳正常
+ */
+public class WebSocketManagerTest {
+
+    private MockWebServer server;
+    private WebSocketManager manager;
+    // 服务端收到的消息（回显服务：收什么发什么）
+    private final BlockingQueue<String> serverMessages = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Integer> serverClosed = new LinkedBlockingQueue<>();
+    // 服务端收到关闭后暂不回复的连接（由用例决定何时完成关闭握手）
+    private final BlockingQueue<WebSocket> closingSockets = new LinkedBlockingQueue<>();
+    // OkHttp 回调线程上抛出的异常
+    private final List<Throwable> uncaught = new CopyOnWriteArrayList<>();
+    private Thread.UncaughtExceptionHandler previousHandler;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        previousHandler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> uncaught.add(e));
+        String url = "ws://" + server.getHostName() + ":" + server.getPort() + "/";
+        manager = new WebSocketManager(url, NetworkCore.getInstance().getOkHttpClient());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        manager.release();
+        // 回复仍在等待的关闭握手，服务端才能正常停止
+        WebSocket socket;
+        while ((socket = closingSockets.poll(500, TimeUnit.MILLISECONDS)) != null) {
+            socket.close(1000, null);
+        }
+        server.shutdown();
+        Thread.setDefaultUncaughtExceptionHandler(previousHandler);
+    }
+
+    @Test
+    public void enterRoomTwiceReusesManager() throws Exception {
+        for (int room = 1; room <= 2; room++) {
+            server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+
+            // 进房
+            CountDownLatch connected = new CountDownLatch(1);
+            manager.whenConnected(connected::countDown);
+            manager.connect();
+            assertTrue("第 " + room + " 次进房未连上", connected.await(5, TimeUnit.SECONDS));
+            // 连接成功立即发出第一次心跳
+            assertEquals("第 " + room + " 次进房没有心跳", "ping", serverMessages.poll(5, TimeUnit.SECONDS));
+
+            // 离房
+            manager.leaveRoom();
+            assertFalse(manager.isConnected.get());
+            assertEquals(Integer.valueOf(1000), serverClosed.poll(5, TimeUnit.SECONDS));
+            completeClose();
+        }
+        assertTrue("回调线程抛出异常：" + uncaught, uncaught.isEmpty());
+    }
+
+    @Test
+    public void lateCloseOfPreviousSocketKeepsNewConnection() throws Exception {
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+
+        CountDownLatch first = new CountDownLatch(1);
+        manager.whenConnected(first::countDown);
+        manager.connect();
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        // 离房后立刻再进房：旧连接的关闭握手在新连接建立之后才完成
+        manager.leaveRoom();
+        CountDownLatch second = new CountDownLatch(1);
+        manager.whenConnected(second::countDown);
+        manager.connect();
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(1000), serverClosed.poll(5, TimeUnit.SECONDS));
+        completeClose();
+        // 等客户端收到旧连接的 onClosed
+        Thread.sleep(300);
+
+        assertTrue("旧连接的关闭回调重置了新连接状态", manager.isConnected.get());
+        assertTrue("回调线程抛出异常：" + uncaught, uncaught.isEmpty());
+    }
+
+    // 服务端回复关闭，完成旧连接的关闭握手
+    private void completeClose() throws InterruptedException {
+        WebSocket socket = closingSockets.poll(5, TimeUnit.SECONDS);
+        assertTrue(socket != null);
+        socket.close(1000, null);
+    }
+
+    /**
+     * 服务端：回显消息；收到关闭先记下，由用例回复
+     */
+    private class EchoListener extends WebSocketListener {
+        @Override
+        public void onMessage(@NonNull WebSocket webSocket, @NonNull String text) {
+            serverMessages.add(text);
+            webSocket.send(text);
+        }
+
+        @Override
+        public void onClosing(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
+            serverClosed.add(code);
+            closingSockets.add(webSocket);
+        }
+    }
+}